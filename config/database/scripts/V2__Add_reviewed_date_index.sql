@@ -0,0 +1,4 @@
+-- -----------------------------------------------------
+-- Index for keyset pagination and date range scans
+-- -----------------------------------------------------
+CREATE INDEX idx_reviews_reviewed_date_id ON reviews (reviewed_date, id);
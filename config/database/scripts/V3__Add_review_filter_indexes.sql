@@ -0,0 +1,7 @@
+-- -----------------------------------------------------
+-- Composite indexes for combined review filters, equality columns first
+-- -----------------------------------------------------
+CREATE INDEX idx_reviews_source_rating_date ON reviews (review_source, rating, reviewed_date);
+CREATE INDEX idx_reviews_source_date ON reviews (review_source, reviewed_date);
+CREATE INDEX idx_reviews_rating_date ON reviews (rating, reviewed_date);
+CREATE INDEX idx_reviews_product_date ON reviews (product_name, reviewed_date);
@@ -0,0 +1,18 @@
+-- -----------------------------------------------------
+-- Table `review_rating_rollups`
+-- Review counts per store, month and rating, kept up to date as reviews are
+-- written so rating statistics do not need to scan `reviews`
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS review_rating_rollups (
+    review_source VARCHAR(50) NOT NULL,
+    review_year   INT NOT NULL,
+    review_month  INT NOT NULL,
+    rating        INT NOT NULL,
+    review_count  BIGINT NOT NULL,
+    PRIMARY KEY (review_source, review_year, review_month, rating)
+);
+
+INSERT INTO review_rating_rollups (review_source, review_year, review_month, rating, review_count)
+SELECT review_source, YEAR(reviewed_date), MONTH(reviewed_date), rating, COUNT(*)
+FROM reviews
+GROUP BY review_source, YEAR(reviewed_date), MONTH(reviewed_date), rating;
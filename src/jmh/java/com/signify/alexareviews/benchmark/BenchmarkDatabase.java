@@ -0,0 +1,96 @@
+package com.signify.alexareviews.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.repository.ReviewBatchRepository;
+import com.signify.alexareviews.repository.ReviewRollupRepository;
+import com.signify.alexareviews.service.ReviewBatchWriter;
+import com.signify.alexareviews.service.ReviewIdFilter;
+import com.signify.alexareviews.service.ReviewMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * A private in-memory H2 database migrated with the application's Flyway
+ * scripts, wired to the real repositories without a Spring context. Synthetic
+ * reviews are generated from a fixed seed so every run sees the same data.
+ */
+final class BenchmarkDatabase {
+
+	static final String[] SOURCES = { "iTunes", "Google Play Store" };
+	static final String[] PRODUCTS = { "Amazon Alexa", "Echo Dot", "Echo Show", "Fire TV", "Kindle" };
+	static final LocalDate FIRST_DAY = LocalDate.of(2015, 1, 1);
+	static final int DAYS = 10 * 365;
+	// Skewed like real app store ratings: mostly fives and ones
+	private static final int[] RATINGS = { 1, 1, 1, 2, 3, 4, 4, 5, 5, 5, 5, 5 };
+	private static final AtomicInteger databases = new AtomicInteger();
+
+	final DataSource dataSource;
+	final JdbcTemplate jdbcTemplate;
+	final ReviewBatchRepository batchRepository;
+	final ReviewRollupRepository rollupRepository;
+	final ReviewBatchWriter batchWriter;
+
+	BenchmarkDatabase() {
+		DriverManagerDataSource source = new DriverManagerDataSource(
+				"jdbc:h2:mem:benchmark" + databases.incrementAndGet() + ";DB_CLOSE_DELAY=-1", "sa", "");
+		this.dataSource = source;
+		Flyway.configure().dataSource(source).locations("filesystem:config/database/scripts",
+				"filesystem:config/database/vendor/h2").load().migrate();
+		this.jdbcTemplate = new JdbcTemplate(source);
+		this.batchRepository = new ReviewBatchRepository(jdbcTemplate);
+		this.rollupRepository = new ReviewRollupRepository(jdbcTemplate);
+		this.batchWriter = new ReviewBatchWriter(batchRepository, rollupRepository,
+				new TransactionTemplate(new DataSourceTransactionManager(source)), event -> {
+				}, new ReviewIdFilter(jdbcTemplate, 500, 10_000_000, 0.01),
+				new ReviewMetrics(new SimpleMeterRegistry()));
+	}
+
+	/**
+	 * Writes {@code rows} synthetic reviews through the import writer in batches
+	 * of 5000, which also fills the rating rollups.
+	 */
+	void seed(int rows, long seed) {
+		Random random = new Random(seed);
+		for (int written = 0; written < rows;) {
+			List<Review> batch = reviews(random, Math.min(5000, rows - written));
+			batchWriter.write(batch);
+			written += batch.size();
+		}
+	}
+
+	static List<Review> reviews(Random random, int count) {
+		List<Review> reviews = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			reviews.add(review(random));
+		}
+		return reviews;
+	}
+
+	static Review review(Random random) {
+		int rating = RATINGS[random.nextInt(RATINGS.length)];
+		return new Review(new UUID(random.nextLong(), random.nextLong()),
+				"Synthetic review text number " + random.nextInt(1_000_000) + " rated " + rating, "Author "
+						+ random.nextInt(50_000),
+				SOURCES[random.nextInt(SOURCES.length)], rating, "Title " + random.nextInt(1000),
+				PRODUCTS[random.nextInt(PRODUCTS.length)], FIRST_DAY.plusDays(random.nextInt(DAYS)));
+	}
+
+	void shutdown() {
+		jdbcTemplate.execute("SHUTDOWN");
+	}
+}
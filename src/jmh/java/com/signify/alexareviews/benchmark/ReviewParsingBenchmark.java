@@ -0,0 +1,76 @@
+package com.signify.alexareviews.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.service.ReviewJsonDecoder;
+
+/**
+ * Decodes the records of alexa.json one at a time, comparing the generic
+ * databind path with {@link ReviewJsonDecoder}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ReviewParsingBenchmark {
+
+	private ObjectMapper objectMapper;
+	private ReviewJsonDecoder decoder;
+	private byte[][] records;
+	private Review reused;
+	private int next;
+
+	@Setup
+	public void setUp() throws IOException {
+		objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+				.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+		decoder = new ReviewJsonDecoder(objectMapper);
+		List<String> lines = Files
+				.readAllLines(Paths.get(System.getProperty("reviews.file", "src/main/resources/alexa.json")));
+		records = new byte[lines.size()][];
+		for (int i = 0; i < records.length; i++) {
+			records[i] = lines.get(i).getBytes(StandardCharsets.UTF_8);
+		}
+		reused = new Review();
+	}
+
+	private byte[] nextRecord() {
+		byte[] record = records[next];
+		next = next + 1 == records.length ? 0 : next + 1;
+		return record;
+	}
+
+	@Benchmark
+	public Review databind() throws IOException {
+		byte[] record = nextRecord();
+		return objectMapper.readValue(record, 0, record.length, Review.class);
+	}
+
+	@Benchmark
+	public Review streamingDecoder() throws IOException {
+		byte[] record = nextRecord();
+		return decoder.decode(record, 0, record.length, new Review());
+	}
+
+	@Benchmark
+	public Review streamingDecoderReusingTarget() throws IOException {
+		byte[] record = nextRecord();
+		return decoder.decode(record, 0, record.length, reused);
+	}
+}
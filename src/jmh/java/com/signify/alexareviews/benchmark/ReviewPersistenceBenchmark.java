@@ -0,0 +1,76 @@
+package com.signify.alexareviews.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.signify.alexareviews.entity.Review;
+
+/**
+ * Rows per second stored through the import writer (reviews plus rating
+ * rollups, one transaction per batch) for different batch sizes. The table is
+ * emptied before every iteration so all iterations insert into the same size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ReviewPersistenceBenchmark {
+
+	private static final int ROWS = 10_000;
+
+	@Param({ "1", "100", "1000", "5000" })
+	public int batchSize;
+
+	private BenchmarkDatabase database;
+	private List<List<Review>> batches;
+	private Random random;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		database = new BenchmarkDatabase();
+		random = new Random(42);
+	}
+
+	@Setup(Level.Invocation)
+	public void prepareBatches() {
+		List<Review> reviews = BenchmarkDatabase.reviews(random, ROWS);
+		batches = new ArrayList<>();
+		for (int i = 0; i < ROWS; i += batchSize) {
+			batches.add(reviews.subList(i, Math.min(ROWS, i + batchSize)));
+		}
+	}
+
+	@Setup(Level.Iteration)
+	public void clear() {
+		database.jdbcTemplate.execute("DELETE FROM reviews");
+		database.jdbcTemplate.execute("DELETE FROM review_rating_rollups");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		database.shutdown();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public int writeBatches() {
+		int saved = 0;
+		for (List<Review> batch : batches) {
+			saved += database.batchWriter.write(batch);
+		}
+		return saved;
+	}
+}
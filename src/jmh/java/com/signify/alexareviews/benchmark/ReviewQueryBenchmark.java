@@ -0,0 +1,105 @@
+package com.signify.alexareviews.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.model.ReviewCursor;
+import com.signify.alexareviews.model.ReviewFilter;
+import com.signify.alexareviews.repository.ReviewQueryRepository;
+
+/**
+ * Filter queries and rating aggregates against a synthetic table of
+ * {@code rows} reviews. Queries go straight to the repositories, i.e. they
+ * measure what {@code getReviews} costs on a query cache miss. The aggregates
+ * are measured both as the original GROUP BY over the reviews and as reads of
+ * the rollup table that serves them now.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReviewQueryBenchmark {
+
+	private static final LocalDate MONTH_START = LocalDate.of(2020, 3, 1);
+	private static final LocalDate MONTH_END = LocalDate.of(2020, 3, 31);
+
+	@Param({ "1000000" })
+	public int rows;
+
+	private BenchmarkDatabase database;
+	private ReviewQueryRepository queryRepository;
+	private ReviewCursor middle;
+
+	@Setup
+	public void setUp() {
+		database = new BenchmarkDatabase();
+		database.seed(rows, 7);
+		queryRepository = new ReviewQueryRepository(database.jdbcTemplate, 500);
+		middle = new ReviewCursor(LocalDate.of(2020, 1, 1), new UUID(0, 0));
+	}
+
+	@TearDown
+	public void tearDown() {
+		database.shutdown();
+	}
+
+	@Benchmark
+	public List<Review> filterByMonth() {
+		return queryRepository.findAll(ReviewFilter.dateRange(MONTH_START, MONTH_END));
+	}
+
+	@Benchmark
+	public List<Review> filterBySourceRatingAndMonth() {
+		return queryRepository.findAll(new ReviewFilter(MONTH_START, MONTH_END, "iTunes", 1, null));
+	}
+
+	@Benchmark
+	public List<Review> filterByProductAndMonth() {
+		return queryRepository.findAll(new ReviewFilter(MONTH_START, MONTH_END, null, null, "Echo Dot"));
+	}
+
+	@Benchmark
+	public List<Review> filterByRating() {
+		return queryRepository.findAll(new ReviewFilter(null, null, null, 2, null));
+	}
+
+	@Benchmark
+	public List<Review> pageOf100() {
+		return queryRepository.findPage(ReviewFilter.NONE, middle, 100);
+	}
+
+	@Benchmark
+	public List<Map<String, Object>> monthlyAverageGroupBy() {
+		return database.jdbcTemplate.queryForList(
+				"SELECT review_source, YEAR(reviewed_date), MONTH(reviewed_date), AVG(rating) FROM reviews GROUP BY review_source, YEAR(reviewed_date), MONTH(reviewed_date)");
+	}
+
+	@Benchmark
+	public List<Map<String, Object>> totalRatingsGroupBy() {
+		return database.jdbcTemplate
+				.queryForList("SELECT rating, COUNT(*) AS count FROM reviews GROUP BY rating");
+	}
+
+	@Benchmark
+	public List<Map<String, Object>> monthlyAverageRollup() {
+		return database.rollupRepository.getMonthlyAverageRatings();
+	}
+
+	@Benchmark
+	public List<Map<String, Object>> totalRatingsRollup() {
+		return database.rollupRepository.getTotalRatingsByCategory();
+	}
+}
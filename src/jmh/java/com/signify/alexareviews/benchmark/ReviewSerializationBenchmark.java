@@ -0,0 +1,66 @@
+package com.signify.alexareviews.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.model.Response;
+import com.signify.alexareviews.service.ReviewBinaryWriter;
+
+/**
+ * Serializes a {@code Response<List<Review>>} the way the controllers return it,
+ * with an ObjectMapper configured like Spring Boot's, and the same reviews in
+ * the binary export format.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReviewSerializationBenchmark {
+
+	@Param({ "100", "10000" })
+	public int reviews;
+
+	private ObjectMapper objectMapper;
+	private Response<List<Review>> response;
+
+	@Setup
+	public void setUp() {
+		objectMapper = Jackson2ObjectMapperBuilder.json()
+				.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+		response = new Response<>(true, "Success", "Fetching all reviews succeeded",
+				BenchmarkDatabase.reviews(new Random(3), reviews));
+	}
+
+	@Benchmark
+	public byte[] serializeResponse() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(response);
+	}
+
+	// The bulk export path, compression included
+	@Benchmark
+	public byte[] writeBinaryExport() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ReviewBinaryWriter writer = new ReviewBinaryWriter(out)) {
+			for (Review review : response.getData()) {
+				writer.write(review);
+			}
+		}
+		return out.toByteArray();
+	}
+}
@@ -1,13 +1,31 @@
 package com.signify.alexareviews;
 
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.signify.alexareviews.service.ReviewExportRunner;
 
 @SpringBootApplication
 public class AlexareviewsApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(AlexareviewsApplication.class, args);
+		SpringApplication application = new SpringApplication(AlexareviewsApplication.class);
+		// A command line export neither binds the HTTP port nor builds the
+		// in-memory indexes, only the beans the export needs are created
+		application.addListeners(event -> {
+			if (event instanceof ApplicationEnvironmentPreparedEvent prepared
+					&& prepared.getEnvironment().containsProperty(ReviewExportRunner.OUT_PROPERTY)) {
+				application.setWebApplicationType(WebApplicationType.NONE);
+				application.setLazyInitialization(true);
+			}
+		});
+		ConfigurableApplicationContext context = application.run(args);
+		if (context.getEnvironment().containsProperty(ReviewExportRunner.OUT_PROPERTY)) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
@@ -0,0 +1,23 @@
+package com.signify.alexareviews.configuration;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class MetricsConfig {
+
+	// Lets @Timed work on beans other than controllers, e.g. the repositories
+	@Bean
+	public TimedAspect timedAspect(MeterRegistry registry) {
+		return new TimedAspect(registry);
+	}
+
+	@Bean
+	public FilterRegistrationBean<ResponseSizeFilter> responseSizeFilter(MeterRegistry registry) {
+		return new FilterRegistrationBean<>(new ResponseSizeFilter(registry));
+	}
+}
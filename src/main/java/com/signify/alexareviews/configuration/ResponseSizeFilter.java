@@ -0,0 +1,188 @@
+package com.signify.alexareviews.configuration;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Records the bytes written for every response as
+ * {@code http.server.response.size}, tagged like {@code http.server.requests}.
+ * Bytes are counted as they pass through, so streamed bodies without a
+ * Content-Length are measured too, after any compression done by the handler.
+ * Bodies written as characters, such as error pages, are counted in the bytes
+ * of the response's character encoding.
+ */
+public class ResponseSizeFilter extends OncePerRequestFilter {
+
+	private final MeterRegistry registry;
+
+	public ResponseSizeFilter(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		CountingResponse counting = new CountingResponse(response);
+		boolean async = false;
+		try {
+			chain.doFilter(request, counting);
+			async = request.isAsyncStarted();
+		} finally {
+			if (async) {
+				// Streamed bodies are written after this returns, record once the exchange completes
+				request.getAsyncContext().addListener(new AsyncListener() {
+
+					@Override
+					public void onComplete(AsyncEvent event) {
+						record(request, counting);
+					}
+
+					@Override
+					public void onTimeout(AsyncEvent event) {
+					}
+
+					@Override
+					public void onError(AsyncEvent event) {
+					}
+
+					@Override
+					public void onStartAsync(AsyncEvent event) {
+					}
+				});
+			} else {
+				record(request, counting);
+			}
+		}
+	}
+
+	private void record(HttpServletRequest request, CountingResponse response) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		DistributionSummary.builder("http.server.response.size").baseUnit("bytes")
+				.description("Size of response bodies").tag("method", request.getMethod())
+				.tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+				.tag("status", Integer.toString(response.getStatus())).publishPercentileHistogram()
+				.register(registry).record(response.bytes);
+	}
+
+	private static final class CountingResponse extends HttpServletResponseWrapper {
+
+		private long bytes;
+		private ServletOutputStream out;
+		private PrintWriter writer;
+
+		CountingResponse(HttpServletResponse response) {
+			super(response);
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			if (out == null) {
+				ServletOutputStream delegate = super.getOutputStream();
+				out = new ServletOutputStream() {
+
+					@Override
+					public void write(int b) throws IOException {
+						delegate.write(b);
+						bytes++;
+					}
+
+					@Override
+					public void write(byte[] b, int off, int len) throws IOException {
+						delegate.write(b, off, len);
+						bytes += len;
+					}
+
+					@Override
+					public void flush() throws IOException {
+						delegate.flush();
+					}
+
+					@Override
+					public void close() throws IOException {
+						delegate.close();
+					}
+
+					@Override
+					public boolean isReady() {
+						return delegate.isReady();
+					}
+
+					@Override
+					public void setWriteListener(WriteListener listener) {
+						delegate.setWriteListener(listener);
+					}
+				};
+			}
+			return out;
+		}
+
+		// Writes straight through, a PrintWriter over a Writer does not buffer
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			if (writer == null) {
+				PrintWriter delegate = super.getWriter();
+				Charset charset = charset(getCharacterEncoding());
+				writer = new PrintWriter(new Writer() {
+
+					@Override
+					public void write(char[] chars, int off, int len) {
+						delegate.write(chars, off, len);
+						bytes += encodedLength(charset, chars, off, len);
+					}
+
+					@Override
+					public void flush() {
+						delegate.flush();
+					}
+
+					@Override
+					public void close() {
+						delegate.close();
+					}
+				});
+			}
+			return writer;
+		}
+
+		private static Charset charset(String encoding) {
+			try {
+				return encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+			} catch (IllegalArgumentException e) {
+				return StandardCharsets.ISO_8859_1;
+			}
+		}
+
+		// UTF-8 is counted without encoding; each half of a surrogate pair counts
+		// two of its four bytes, so pairs split across writes still add up
+		private static long encodedLength(Charset charset, char[] chars, int off, int len) {
+			if (!charset.equals(StandardCharsets.UTF_8)) {
+				return charset.encode(CharBuffer.wrap(chars, off, len)).remaining();
+			}
+			long length = 0;
+			for (int i = off; i < off + len; i++) {
+				char c = chars[i];
+				length += c < 0x80 ? 1 : c < 0x800 || Character.isSurrogate(c) ? 2 : 3;
+			}
+			return length;
+		}
+	}
+}
@@ -0,0 +1,13 @@
+package com.signify.alexareviews.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the {@code @Scheduled} maintenance jobs, e.g. creating and retiring
+ * review partitions.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
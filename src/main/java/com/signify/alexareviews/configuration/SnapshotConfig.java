@@ -0,0 +1,37 @@
+package com.signify.alexareviews.configuration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.signify.alexareviews.service.ReviewSnapshotLoader;
+
+/**
+ * With {@code project.snapshot.path} set, the review snapshot is restored as
+ * part of the Flyway migration. Everything that reads the database waits for
+ * the migration, so the column store, search index and id filter all load the
+ * restored reviews.
+ */
+@Configuration
+@ConditionalOnProperty("project.snapshot.path")
+public class SnapshotConfig {
+
+	@Bean
+	public FlywayMigrationStrategy snapshotRestoringMigrationStrategy(@Value("${project.snapshot.path}") Path path,
+			@Value("${project.snapshot.restore-batch-size:5000}") int batchSize) {
+		return flyway -> {
+			flyway.migrate();
+			try {
+				new ReviewSnapshotLoader(flyway.getConfiguration().getDataSource(), path, batchSize).restore();
+			} catch (IOException e) {
+				throw new UncheckedIOException("Could not restore review snapshot " + path, e);
+			}
+		};
+	}
+}
@@ -0,0 +1,40 @@
+package com.signify.alexareviews.configuration;
+
+import java.util.concurrent.ExecutorService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+/**
+ * With {@code project.threads.virtual=true} every request is handled on its own
+ * virtual thread instead of Tomcat's bounded worker pool, and so is the async
+ * part of streamed responses. A request blocked on the database then parks a
+ * virtual thread rather than holding one of a few hundred platform threads;
+ * database concurrency is bounded by the connection pool instead.
+ */
+@Configuration
+@ConditionalOnProperty(name = "project.threads.virtual", havingValue = "true")
+public class ThreadingConfig {
+
+	private static final Logger logger = LoggerFactory.getLogger(ThreadingConfig.class);
+
+	@Bean
+	public TomcatProtocolHandlerCustomizer<?> virtualThreadRequestExecutor() {
+		ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("http-virtual-");
+		logger.info("Handling requests on virtual threads");
+		return protocolHandler -> protocolHandler.setExecutor(executor);
+	}
+
+	// Replaces the auto-configured pool behind StreamingResponseBody and other MVC async work
+	@Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+	public AsyncTaskExecutor applicationTaskExecutor() {
+		return new TaskExecutorAdapter(VirtualThreads.newThreadPerTaskExecutor("task-virtual-"));
+	}
+}
@@ -0,0 +1,94 @@
+package com.signify.alexareviews.configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier, e.g. while
+ * blocking inside a {@code synchronized} block of a JDBC driver, which takes
+ * the carrier away from every other virtual thread. Pinning longer than
+ * {@code project.threads.pinned-threshold} is read from the
+ * {@code jdk.VirtualThreadPinned} JFR event and recorded as the
+ * {@code jvm.threads.virtual.pinned} timer, tagged with the frame that pinned.
+ * Each new site is logged once with its stack.
+ */
+@Component
+@ConditionalOnProperty(name = "project.threads.virtual", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+	private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+	private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+	private static final int LOGGED_FRAMES = 12;
+
+	private final MeterRegistry registry;
+	private final Duration threshold;
+	private final Map<String, Timer> sites = new ConcurrentHashMap<>();
+	private RecordingStream stream;
+
+	public VirtualThreadPinningMonitor(MeterRegistry registry,
+			@Value("${project.threads.pinned-threshold:20ms}") Duration threshold) {
+		this.registry = registry;
+		this.threshold = threshold;
+	}
+
+	@PostConstruct
+	public void start() {
+		stream = new RecordingStream();
+		stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+		stream.onEvent(PINNED_EVENT, this::onPinned);
+		stream.startAsync();
+		logger.info("Reporting virtual threads pinned for longer than {}", threshold);
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (stream != null) {
+			stream.close();
+		}
+	}
+
+	void onPinned(RecordedEvent event) {
+		List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+		String site = site(frames);
+		Timer timer = sites.computeIfAbsent(site, key -> {
+			logger.warn("Virtual thread pinned for {} ms at {}:\n\t{}", event.getDuration().toMillis(), key,
+					frames.stream().limit(LOGGED_FRAMES).map(VirtualThreadPinningMonitor::format)
+							.collect(Collectors.joining("\n\t")));
+			return Timer.builder("jvm.threads.virtual.pinned")
+					.description("Time virtual threads spent pinned to their carrier").tag("site", key)
+					.register(registry);
+		});
+		timer.record(event.getDuration());
+	}
+
+	// The first application frame says more than the JDK frame that actually blocked
+	private static String site(List<RecordedFrame> frames) {
+		for (RecordedFrame frame : frames) {
+			if (frame.getMethod().getType().getName().startsWith("com.signify.")) {
+				return format(frame);
+			}
+		}
+		return frames.isEmpty() ? "unknown" : format(frames.get(0));
+	}
+
+	private static String format(RecordedFrame frame) {
+		return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+	}
+}
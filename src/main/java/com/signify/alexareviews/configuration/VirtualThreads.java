@@ -0,0 +1,29 @@
+package com.signify.alexareviews.configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Named virtual thread factories and executors for the places that switch to
+ * virtual threads with {@code project.threads.virtual}.
+ */
+public final class VirtualThreads {
+
+	private VirtualThreads() {
+	}
+
+	/**
+	 * Creates virtual threads named {@code prefix} followed by a counter.
+	 */
+	public static ThreadFactory factory(String prefix) {
+		return Thread.ofVirtual().name(prefix, 0).factory();
+	}
+
+	/**
+	 * An executor starting a new virtual thread for every task.
+	 */
+	public static ExecutorService newThreadPerTaskExecutor(String prefix) {
+		return Executors.newThreadPerTaskExecutor(factory(prefix));
+	}
+}
@@ -0,0 +1,49 @@
+package com.signify.alexareviews.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.model.ReviewFilter;
+import com.signify.alexareviews.repository.ReactiveReviewRepository;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import reactor.core.publisher.Flux;
+
+/**
+ * Read-only endpoints served from {@link ReactiveReviewRepository}. Spring MVC
+ * subscribes to the returned Flux and requests one review at a time, so rows
+ * are only read from the database as fast as the client takes them. Only
+ * registered when {@code project.reactive.url} is set.
+ */
+@RestController
+@ConditionalOnProperty("project.reactive.url")
+@RequestMapping("/v1/api/reviews/reactive")
+@Tag(name = "Reactive Reviews", description = "Non-blocking review reads over R2DBC")
+public class ReactiveReviewController {
+
+	private final ReactiveReviewRepository reactiveRepository;
+
+	public ReactiveReviewController(ReactiveReviewRepository reactiveRepository) {
+		this.reactiveRepository = reactiveRepository;
+	}
+
+	@GetMapping(produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+	@Operation(summary = "Stream reviews reactively", description = "Emits every matching review, ordered by reviewed date, as newline delimited JSON or server-sent events depending on the Accept header")
+	public Flux<Review> streamReviews(
+			@Parameter(description = "Start date for filtering") @RequestParam(required = false) LocalDate startDate,
+			@Parameter(description = "End date for filtering") @RequestParam(required = false) LocalDate endDate,
+			@Parameter(description = "Store type (Google Play or iTunes)") @RequestParam(required = false) String storeType,
+			@Parameter(description = "Filter by rating") @RequestParam(required = false) Integer rating,
+			@Parameter(description = "Filter by product name") @RequestParam(required = false) String productName) {
+		return reactiveRepository.stream(new ReviewFilter(startDate, endDate, storeType, rating, productName));
+	}
+}
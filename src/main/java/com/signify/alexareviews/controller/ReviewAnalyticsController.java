@@ -0,0 +1,83 @@
+package com.signify.alexareviews.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.signify.alexareviews.model.ProductTrend;
+import com.signify.alexareviews.model.RatingPeriod;
+import com.signify.alexareviews.model.RatingSummary;
+import com.signify.alexareviews.model.Response;
+import com.signify.alexareviews.model.ResponseCode;
+import com.signify.alexareviews.model.ReviewFilter;
+import com.signify.alexareviews.service.ReviewAnalyticsService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/v1/api/reviews/analytics")
+@Tag(name = "Review Analytics", description = "Rating aggregations computed in memory")
+public class ReviewAnalyticsController {
+
+	private final ReviewAnalyticsService analyticsService;
+
+	public ReviewAnalyticsController(ReviewAnalyticsService analyticsService) {
+		this.analyticsService = analyticsService;
+	}
+
+	@GetMapping("/summary")
+	@Operation(summary = "Get a rating summary", description = "Count, average, histogram and percentiles of the ratings of matching reviews")
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Successfully computed the summary"),
+			@ApiResponse(responseCode = "400", description = "Invalid percentile") })
+	public ResponseEntity<Response<RatingSummary>> getRatingSummary(
+			@Parameter(description = "Start date for filtering") @RequestParam(required = false) LocalDate startDate,
+			@Parameter(description = "End date for filtering") @RequestParam(required = false) LocalDate endDate,
+			@Parameter(description = "Store type (Google Play or iTunes)") @RequestParam(required = false) String storeType,
+			@Parameter(description = "Filter by rating") @RequestParam(required = false) Integer rating,
+			@Parameter(description = "Filter by product name") @RequestParam(required = false) String productName,
+			@Parameter(description = "Percentiles to compute") @RequestParam(defaultValue = "50,90,99") List<Integer> percentiles) {
+		try {
+			RatingSummary summary = analyticsService
+					.summarize(new ReviewFilter(startDate, endDate, storeType, rating, productName), percentiles);
+			return ResponseEntity.ok(new Response<>(true, "Success", "Rating summary succeeded", summary));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest()
+					.body(new Response<>(false, ResponseCode.BAD_REQUEST.toString(), e.getMessage()));
+		}
+	}
+
+	@GetMapping("/weekly")
+	@Operation(summary = "Get weekly rating histograms", description = "Rating histogram of matching reviews per week, starting on Mondays")
+	public ResponseEntity<Response<List<RatingPeriod>>> getWeeklyHistograms(
+			@Parameter(description = "Start date for filtering") @RequestParam(required = false) LocalDate startDate,
+			@Parameter(description = "End date for filtering") @RequestParam(required = false) LocalDate endDate,
+			@Parameter(description = "Store type (Google Play or iTunes)") @RequestParam(required = false) String storeType,
+			@Parameter(description = "Filter by rating") @RequestParam(required = false) Integer rating,
+			@Parameter(description = "Filter by product name") @RequestParam(required = false) String productName) {
+		List<RatingPeriod> weeks = analyticsService
+				.weeklyHistograms(new ReviewFilter(startDate, endDate, storeType, rating, productName));
+		return ResponseEntity.ok(new Response<>(true, "Success", "Weekly rating histograms succeeded", weeks));
+	}
+
+	@GetMapping("/product-trends")
+	@Operation(summary = "Get product rating trends", description = "Monthly rating histogram and average of matching reviews per product")
+	public ResponseEntity<Response<List<ProductTrend>>> getProductTrends(
+			@Parameter(description = "Start date for filtering") @RequestParam(required = false) LocalDate startDate,
+			@Parameter(description = "End date for filtering") @RequestParam(required = false) LocalDate endDate,
+			@Parameter(description = "Store type (Google Play or iTunes)") @RequestParam(required = false) String storeType,
+			@Parameter(description = "Filter by rating") @RequestParam(required = false) Integer rating,
+			@Parameter(description = "Filter by product name") @RequestParam(required = false) String productName) {
+		List<ProductTrend> trends = analyticsService
+				.productTrends(new ReviewFilter(startDate, endDate, storeType, rating, productName));
+		return ResponseEntity.ok(new Response<>(true, "Success", "Product rating trends succeeded", trends));
+	}
+}
@@ -1,21 +1,49 @@
 package com.signify.alexareviews.controller;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.NoSuchFileException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.model.EncodedResponse;
+import com.signify.alexareviews.model.ImportJob;
+import com.signify.alexareviews.model.ImportProgress;
 import com.signify.alexareviews.model.Response;
+import com.signify.alexareviews.model.ResponseCode;
+import com.signify.alexareviews.model.ReviewField;
+import com.signify.alexareviews.model.ReviewFilter;
+import com.signify.alexareviews.model.ReviewPage;
+import com.signify.alexareviews.service.ImportJobService;
+import com.signify.alexareviews.service.ReviewBinaryWriter;
+import com.signify.alexareviews.service.ReviewImportService;
 import com.signify.alexareviews.service.ReviewService;
+import com.signify.alexareviews.service.ReviewWriteBuffer;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -30,53 +58,281 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @Tag(name = "Reviews", description = "Endpoints for managing Alexa app reviews") // API Tag for grouping in Swagger
 public class ReviewController {
 
+	private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
 	private final ReviewService reviewService;
+	private final ImportJobService importJobService;
+	private final ReviewImportService reviewImportService;
+	private final ObjectProvider<ReviewWriteBuffer> writeBuffer;
+	private final ObjectMapper objectMapper;
 
-	public ReviewController(ReviewService reviewService) {
+	public ReviewController(ReviewService reviewService, ImportJobService importJobService,
+			ReviewImportService reviewImportService, ObjectProvider<ReviewWriteBuffer> writeBuffer,
+			ObjectMapper objectMapper) {
 		this.reviewService = reviewService;
+		this.importJobService = importJobService;
+		this.reviewImportService = reviewImportService;
+		this.writeBuffer = writeBuffer;
+		this.objectMapper = objectMapper;
 	}
 
 	@PostMapping("/import")
-	public ResponseEntity<String> importReviews() {
+	@Operation(summary = "Start a review import", description = "Queues a background import of an uploaded file, a file in the import directory or the bundled review dump")
+	@ApiResponses(value = { @ApiResponse(responseCode = "202", description = "Import job queued"),
+			@ApiResponse(responseCode = "400", description = "Invalid batch size, file outside the import directory or not found"),
+			@ApiResponse(responseCode = "429", description = "Too many import jobs queued") })
+	public ResponseEntity<Response<ImportJob>> importReviews(
+			@Parameter(description = "Path of a review file, relative to the import directory on the server") @RequestParam(required = false) String filePath,
+			@Parameter(description = "Review file to upload") @RequestParam(required = false) MultipartFile file,
+			@Parameter(description = "Rows written per transaction") @RequestParam(required = false) Integer batchSize) {
+		if (batchSize != null && batchSize < 1) {
+			return ResponseEntity.badRequest()
+					.body(new Response<>(false, ResponseCode.BAD_REQUEST.toString(), "Batch size must be positive"));
+		}
+		try {
+			ImportJob job = file != null && !file.isEmpty()
+					? importJobService.submitUpload(file.getInputStream(), file.getOriginalFilename(), batchSize)
+					: importJobService.submit(filePath, batchSize);
+			return ResponseEntity.accepted().location(URI.create("/v1/api/reviews/import/" + job.getId()))
+					.body(new Response<>(true, "Success", "Import job queued", job));
+		} catch (NoSuchFileException e) {
+			return ResponseEntity.badRequest().body(
+					new Response<>(false, ResponseCode.BAD_REQUEST.toString(), "File not found: " + e.getMessage()));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest()
+					.body(new Response<>(false, ResponseCode.BAD_REQUEST.toString(), e.getMessage()));
+		} catch (RejectedExecutionException e) {
+			return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(new Response<>(false,
+					ResponseCode.FAILED.toString(), "Too many import jobs queued, try again later"));
+		} catch (IOException e) {
+			return ResponseEntity.internalServerError().body(new Response<>(false, ResponseCode.FAILED.toString(),
+					"Error importing reviews: " + e.getMessage()));
+		}
+	}
+
+	@GetMapping("/import/{id}")
+	@Operation(summary = "Get import job progress", description = "Rows parsed, saved and skipped so far, plus throughput")
+	public ResponseEntity<Response<ImportJob>> getImportJob(@PathVariable UUID id) {
+		return importJobService.getJob(id)
+				.map(job -> ResponseEntity.ok(new Response<>(true, "Success", "Fetch import job succeeded", job)))
+				.orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(new Response<>(false,
+						ResponseCode.NOT_FOUND.toString(), "Import job not found")));
+	}
+
+	@DeleteMapping("/import/{id}")
+	@Operation(summary = "Cancel an import job", description = "Stops a queued or running import; rows already saved are kept")
+	public ResponseEntity<Response<ImportJob>> cancelImportJob(@PathVariable UUID id) {
+		return importJobService.cancel(id)
+				.map(job -> ResponseEntity.ok(new Response<>(true, "Success", "Import job cancellation requested", job)))
+				.orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(new Response<>(false,
+						ResponseCode.NOT_FOUND.toString(), "Import job not found")));
+	}
+
+	@PostMapping(value = "/bulk", consumes = APPLICATION_NDJSON)
+	@Operation(summary = "Bulk add reviews", description = "Stores newline delimited reviews from the request body, parsing and saving them in batches as the body arrives")
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Body consumed, see counts for skipped rows"),
+			@ApiResponse(responseCode = "400", description = "Request body could not be read"),
+			@ApiResponse(responseCode = "429", description = "Too many bulk imports running") })
+	public ResponseEntity<Response<ImportProgress>> bulkAddReviews(InputStream body) {
 		try {
-			reviewService.importReviewsFromFile("src/main/resources/alexa.json");
-			return ResponseEntity.ok("Reviews imported successfully.");
+			ImportProgress progress = reviewImportService.importReviews(body);
+			return ResponseEntity.ok(new Response<>(true, "Success", "Bulk import of reviews succeeded", progress));
+		} catch (RejectedExecutionException e) {
+			return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1")
+					.body(new Response<>(false, ResponseCode.FAILED.toString(),
+							"Too many bulk imports running, try again later"));
 		} catch (IOException e) {
-			return ResponseEntity.internalServerError().body("Error importing reviews: " + e.getMessage());
+			return ResponseEntity.badRequest().body(new Response<>(false, ResponseCode.BAD_REQUEST.toString(),
+					"Error reading reviews: " + e.getMessage()));
 		}
 	}
 
 	@PostMapping
-	@Operation(summary = "Add a new review", description = "Stores a new review in the database")
+	@Operation(summary = "Add a new review", description = "Stores a new review in the database, or with the write-behind buffer enabled queues it to be stored in the next group commit")
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "200", description = "Review added successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Review.class))),
+			@ApiResponse(responseCode = "202", description = "Review queued by the write-behind buffer", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Review.class))),
 			@ApiResponse(responseCode = "400", description = "Invalid input data"),
-			@ApiResponse(responseCode = "500", description = "Internal server error") })
+			@ApiResponse(responseCode = "500", description = "Internal server error"),
+			@ApiResponse(responseCode = "503", description = "Write-behind buffer is full") })
 	public ResponseEntity<Review> addReview(@RequestBody Review review) {
-		return ResponseEntity.ok(reviewService.saveReview(review));
+		ReviewWriteBuffer buffer = writeBuffer.getIfAvailable();
+		if (buffer == null) {
+			return ResponseEntity.ok(reviewService.saveReview(review));
+		}
+		try {
+			return ResponseEntity.accepted().body(buffer.submit(review));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().build();
+		} catch (RejectedExecutionException e) {
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+		} catch (IOException e) {
+			return ResponseEntity.internalServerError().build();
+		}
 	}
 
 	@GetMapping
-	@Operation(summary = "Get all reviews", description = "Fetches reviews based on optional filters")
+	@Operation(summary = "Get all reviews", description = "Fetches reviews matching all of the given filters, optionally only the selected fields")
 	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Successfully fetched reviews"),
+			@ApiResponse(responseCode = "400", description = "Unknown field"),
 			@ApiResponse(responseCode = "500", description = "Internal server error") })
-	public ResponseEntity<Response<List<Review>>> getReviews(
+	public ResponseEntity<? extends Response<? extends List<?>>> getReviews(
 			@Parameter(description = "Start date for filtering") @RequestParam(required = false) LocalDate startDate,
 			@Parameter(description = "End date for filtering") @RequestParam(required = false) LocalDate endDate,
 			@Parameter(description = "Store type (Google Play or iTunes)") @RequestParam(required = false) String storeType,
-			@Parameter(description = "Filter by rating") @RequestParam(required = false) Integer rating) {
-		return ResponseEntity.ok(reviewService.getReviews(startDate, endDate, storeType, rating));
+			@Parameter(description = "Filter by rating") @RequestParam(required = false) Integer rating,
+			@Parameter(description = "Filter by product name") @RequestParam(required = false) String productName,
+			@Parameter(description = "Fields to return, e.g. rating,reviewed_date; all when absent") @RequestParam(required = false) List<String> fields) {
+		ReviewFilter filter = new ReviewFilter(startDate, endDate, storeType, rating, productName);
+		if (fields == null) {
+			return ResponseEntity.ok(reviewService.getReviews(filter));
+		}
+		try {
+			return ResponseEntity.ok(reviewService.getReviews(filter, ReviewField.parse(fields)));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest()
+					.body(new Response<>(false, ResponseCode.BAD_REQUEST.toString(), e.getMessage()));
+		}
 	}
 
-	@GetMapping("/monthly-average")
+	@GetMapping("/page")
+	@Operation(summary = "Get a page of reviews", description = "Fetches reviews ordered by reviewed date; pass the returned nextCursor back to get the following page")
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Successfully fetched the page"),
+			@ApiResponse(responseCode = "400", description = "Invalid cursor") })
+	public ResponseEntity<Response<ReviewPage>> getReviewPage(
+			@Parameter(description = "Start date for filtering") @RequestParam(required = false) LocalDate startDate,
+			@Parameter(description = "End date for filtering") @RequestParam(required = false) LocalDate endDate,
+			@Parameter(description = "Store type (Google Play or iTunes)") @RequestParam(required = false) String storeType,
+			@Parameter(description = "Filter by rating") @RequestParam(required = false) Integer rating,
+			@Parameter(description = "Filter by product name") @RequestParam(required = false) String productName,
+			@Parameter(description = "nextCursor of the previous page") @RequestParam(required = false) String cursor,
+			@Parameter(description = "Maximum reviews on the page") @RequestParam(required = false) Integer limit) {
+		try {
+			return ResponseEntity.ok(reviewService.getReviewPage(
+					new ReviewFilter(startDate, endDate, storeType, rating, productName), cursor, limit));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest()
+					.body(new Response<>(false, ResponseCode.BAD_REQUEST.toString(), e.getMessage()));
+		}
+	}
+
+	@GetMapping(value = "/stream", produces = APPLICATION_NDJSON)
+	@Operation(summary = "Stream reviews", description = "Writes every matching review as newline delimited JSON, ordered by reviewed date, without loading them all into memory")
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Streaming reviews"),
+			@ApiResponse(responseCode = "400", description = "Unknown field") })
+	public ResponseEntity<StreamingResponseBody> streamReviews(
+			@Parameter(description = "Start date for filtering") @RequestParam(required = false) LocalDate startDate,
+			@Parameter(description = "End date for filtering") @RequestParam(required = false) LocalDate endDate,
+			@Parameter(description = "Store type (Google Play or iTunes)") @RequestParam(required = false) String storeType,
+			@Parameter(description = "Filter by rating") @RequestParam(required = false) Integer rating,
+			@Parameter(description = "Filter by product name") @RequestParam(required = false) String productName,
+			@Parameter(description = "Fields to return, e.g. rating,reviewed_date; all when absent") @RequestParam(required = false) List<String> fields) {
+		ReviewFilter filter = new ReviewFilter(startDate, endDate, storeType, rating, productName);
+		if (fields == null) {
+			return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON))
+					.body(out -> reviewService.streamReviews(filter, out));
+		}
+		Set<ReviewField> selected;
+		try {
+			selected = ReviewField.parse(fields);
+		} catch (IllegalArgumentException e) {
+			// The same JSON body as GET /v1/api/reviews, written here since the
+			// method is declared to return a stream
+			Response<Void> error = new Response<>(false, ResponseCode.BAD_REQUEST.toString(), e.getMessage());
+			return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON)
+					.body(out -> objectMapper.writeValue(out, error));
+		}
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON))
+				.body(out -> reviewService.streamReviews(filter, selected, out));
+	}
+
+	@GetMapping(value = "/export", produces = ReviewBinaryWriter.MEDIA_TYPE)
+	@Operation(summary = "Export reviews", description = "Writes every matching review, ordered by reviewed date, in the compressed binary export format read by ReviewBinaryReader")
+	public ResponseEntity<StreamingResponseBody> exportReviews(
+			@Parameter(description = "Start date for filtering") @RequestParam(required = false) LocalDate startDate,
+			@Parameter(description = "End date for filtering") @RequestParam(required = false) LocalDate endDate,
+			@Parameter(description = "Store type (Google Play or iTunes)") @RequestParam(required = false) String storeType,
+			@Parameter(description = "Filter by rating") @RequestParam(required = false) Integer rating,
+			@Parameter(description = "Filter by product name") @RequestParam(required = false) String productName) {
+		ReviewFilter filter = new ReviewFilter(startDate, endDate, storeType, rating, productName);
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType(ReviewBinaryWriter.MEDIA_TYPE))
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=reviews.arv")
+				.body(out -> reviewService.exportReviews(filter, out));
+	}
+
+	@PostMapping("/rollups/rebuild")
+	@Operation(summary = "Rebuild rating rollups", description = "Recomputes the per month rating counts behind the rating statistics from the stored reviews")
+	public ResponseEntity<Response<Integer>> rebuildRatingRollups() {
+		return ResponseEntity.ok(reviewService.rebuildRatingRollups());
+	}
+
+	@GetMapping("/cache/stats")
+	@Operation(summary = "Get query cache statistics", description = "Hits, misses, evictions and invalidations of the review query cache")
+	public ResponseEntity<Response<Map<String, Object>>> getCacheStats() {
+		return ResponseEntity.ok(reviewService.getCacheStats());
+	}
+
+	@GetMapping(value = "/monthly-average", produces = MediaType.APPLICATION_JSON_VALUE)
 	@Operation(summary = "Get monthly average ratings", description = "Fetches the average ratings per month")
-	public ResponseEntity<Response<List<Map<String, Object>>>> getMonthlyAverageRatings() {
-		return ResponseEntity.ok(reviewService.getMonthlyAverageRatings());
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Successfully fetched ratings"),
+			@ApiResponse(responseCode = "304", description = "Ratings unchanged since the ETag in If-None-Match") })
+	public ResponseEntity<byte[]> getMonthlyAverageRatings(
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+		return encoded(reviewService.getMonthlyAverageRatingsBody(), acceptEncoding);
 	}
 
-	@GetMapping("/total-ratings")
+	@GetMapping(value = "/total-ratings", produces = MediaType.APPLICATION_JSON_VALUE)
 	@Operation(summary = "Get total ratings by category", description = "Fetches the total number of ratings grouped by category")
-	public ResponseEntity<Response<List<Map<String, Object>>>> getTotalRatingsByCategory() {
-		return ResponseEntity.ok(reviewService.getTotalRatingsByCategory());
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Successfully fetched ratings"),
+			@ApiResponse(responseCode = "304", description = "Ratings unchanged since the ETag in If-None-Match") })
+	public ResponseEntity<byte[]> getTotalRatingsByCategory(
+			@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+		return encoded(reviewService.getTotalRatingsByCategoryBody(), acceptEncoding);
+	}
+
+	// The cached bytes are written as they are. Spring answers If-None-Match with
+	// 304 from the ETag set here
+	private static ResponseEntity<byte[]> encoded(EncodedResponse body, String acceptEncoding) {
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+				.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		if (body.gzip() != null && acceptsGzip(acceptEncoding)) {
+			return response.eTag(body.gzipEtag()).header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzip());
+		}
+		return response.eTag(body.etag()).body(body.json());
+	}
+
+	// gzip is acceptable if it, or failing that *, is listed with a q-value above
+	// 0; an explicit gzip entry wins over *, so "*, gzip;q=0" refuses it
+	static boolean acceptsGzip(String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+		Double gzip = null;
+		Double any = null;
+		for (String coding : acceptEncoding.split(",")) {
+			String[] parts = coding.split(";");
+			String name = parts[0].trim().toLowerCase(Locale.ROOT);
+			if (name.equals("gzip") || name.equals("x-gzip")) {
+				gzip = gzip == null ? quality(parts) : Math.max(gzip, quality(parts));
+			} else if (name.equals("*")) {
+				any = quality(parts);
+			}
+		}
+		Double q = gzip != null ? gzip : any;
+		return q != null && q > 0;
+	}
+
+	private static double quality(String[] parts) {
+		for (int i = 1; i < parts.length; i++) {
+			String param = parts[i].trim();
+			if (param.length() > 1 && (param.charAt(0) == 'q' || param.charAt(0) == 'Q') && param.charAt(1) == '=') {
+				try {
+					return Double.parseDouble(param.substring(2).trim());
+				} catch (NumberFormatException e) {
+					return 0;
+				}
+			}
+		}
+		return 1;
 	}
 }
@@ -0,0 +1,56 @@
+package com.signify.alexareviews.controller;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.signify.alexareviews.model.Response;
+import com.signify.alexareviews.model.ResponseCode;
+import com.signify.alexareviews.model.ReviewPartition;
+import com.signify.alexareviews.service.ReviewPartitionService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/v1/api/reviews/partitions")
+@Tag(name = "Review Partitions", description = "Monthly partitions of the stored reviews")
+public class ReviewPartitionController {
+
+	private final ReviewPartitionService partitionService;
+
+	public ReviewPartitionController(ReviewPartitionService partitionService) {
+		this.partitionService = partitionService;
+	}
+
+	@GetMapping
+	@Operation(summary = "List review partitions", description = "Months of stored reviews with their review counts, estimated on MySQL")
+	public ResponseEntity<Response<List<ReviewPartition>>> getPartitions() {
+		return ResponseEntity
+				.ok(new Response<>(true, "Success", "Review partitions succeeded", partitionService.getPartitions()));
+	}
+
+	@DeleteMapping
+	@Operation(summary = "Retire old reviews", description = "Drops every month of reviews before the given one; export the range first to archive it")
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Successfully retired the partitions"),
+			@ApiResponse(responseCode = "400", description = "Month is not in the past") })
+	public ResponseEntity<Response<List<ReviewPartition>>> retirePartitions(
+			@Parameter(description = "First month to keep, e.g. 2018-06") @RequestParam YearMonth before) {
+		try {
+			List<ReviewPartition> retired = partitionService.retireBefore(before);
+			return ResponseEntity.ok(new Response<>(true, "Success", "Retired reviews before " + before, retired));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest()
+					.body(new Response<>(false, ResponseCode.BAD_REQUEST.toString(), e.getMessage()));
+		}
+	}
+}
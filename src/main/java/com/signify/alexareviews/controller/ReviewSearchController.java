@@ -0,0 +1,54 @@
+package com.signify.alexareviews.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.signify.alexareviews.model.Response;
+import com.signify.alexareviews.model.ResponseCode;
+import com.signify.alexareviews.model.ReviewFilter;
+import com.signify.alexareviews.model.ReviewSearchResult;
+import com.signify.alexareviews.service.ReviewSearchService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/v1/api/reviews")
+@Tag(name = "Review Search", description = "Full-text search over review titles and texts")
+public class ReviewSearchController {
+
+	private final ReviewSearchService searchService;
+
+	public ReviewSearchController(ReviewSearchService searchService) {
+		this.searchService = searchService;
+	}
+
+	@GetMapping("/search")
+	@Operation(summary = "Search reviews", description = "Finds reviews whose title or text contains any of the words of the query, best matches first; quote words to match a phrase")
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Search completed"),
+			@ApiResponse(responseCode = "400", description = "Query has no words") })
+	public ResponseEntity<Response<ReviewSearchResult>> searchReviews(
+			@Parameter(description = "Words or quoted phrases to search for") @RequestParam String q,
+			@Parameter(description = "Start date for filtering") @RequestParam(required = false) LocalDate startDate,
+			@Parameter(description = "End date for filtering") @RequestParam(required = false) LocalDate endDate,
+			@Parameter(description = "Store type (Google Play or iTunes)") @RequestParam(required = false) String storeType,
+			@Parameter(description = "Filter by rating") @RequestParam(required = false) Integer rating,
+			@Parameter(description = "Filter by product name") @RequestParam(required = false) String productName,
+			@Parameter(description = "Maximum hits to return") @RequestParam(required = false) Integer limit) {
+		try {
+			return ResponseEntity.ok(searchService.search(q,
+					new ReviewFilter(startDate, endDate, storeType, rating, productName), limit));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest()
+					.body(new Response<>(false, ResponseCode.BAD_REQUEST.toString(), e.getMessage()));
+		}
+	}
+}
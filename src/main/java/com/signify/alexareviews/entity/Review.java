@@ -6,8 +6,6 @@ import java.util.UUID;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.Table;
@@ -19,7 +17,7 @@ import jakarta.persistence.Table;
 public class Review {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.UUID) // Use UUID generation strategy
+	@TimeOrderedId
 	private UUID id;
 	@JsonProperty("review")
 	private String review;
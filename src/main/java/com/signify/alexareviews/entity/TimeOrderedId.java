@@ -0,0 +1,41 @@
+package com.signify.alexareviews.entity;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.util.EnumSet;
+
+import org.hibernate.annotations.IdGeneratorType;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+/**
+ * Assigns {@link ReviewIds#timeOrdered()} ids to new entities. Unlike setting
+ * the id before saving, Hibernate still sees the entity as new and inserts it
+ * without looking it up first.
+ */
+@IdGeneratorType(TimeOrderedId.Generator.class)
+@Retention(RUNTIME)
+@Target(FIELD)
+public @interface TimeOrderedId {
+
+	class Generator implements BeforeExecutionGenerator {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+				EventType eventType) {
+			return ReviewIds.timeOrdered();
+		}
+
+		@Override
+		public EnumSet<EventType> getEventTypes() {
+			return EventTypeSets.INSERT_ONLY;
+		}
+	}
+}
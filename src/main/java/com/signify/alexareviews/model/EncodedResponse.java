@@ -0,0 +1,16 @@
+package com.signify.alexareviews.model;
+
+/**
+ * A response body serialized once for reuse: the JSON bytes, the same bytes
+ * gzip compressed (null when too small to be worth it) and a strong ETag
+ * derived from the content.
+ */
+public record EncodedResponse(byte[] json, byte[] gzip, String etag) {
+
+	/**
+	 * ETag of the gzip representation, which must differ from the identity one.
+	 */
+	public String gzipEtag() {
+		return etag.substring(0, etag.length() - 1) + "-gzip\"";
+	}
+}
@@ -0,0 +1,95 @@
+package com.signify.alexareviews.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public class ImportJob {
+
+	private final UUID id = UUID.randomUUID();
+	private final String source;
+	private final int batchSize;
+	private final Instant submittedAt = Instant.now();
+	private final ImportProgress progress = new ImportProgress();
+	private ImportJobStatus status = ImportJobStatus.QUEUED;
+	private Instant startedAt;
+	private Instant finishedAt;
+	private String error;
+	private volatile boolean cancelRequested;
+
+	public ImportJob(String source, int batchSize) {
+		this.source = source;
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * @return false if the job was cancelled while it was still queued
+	 */
+	public synchronized boolean markRunning() {
+		if (status != ImportJobStatus.QUEUED) {
+			return false;
+		}
+		status = ImportJobStatus.RUNNING;
+		startedAt = Instant.now();
+		return true;
+	}
+
+	public synchronized void markFinished(ImportJobStatus finalStatus, String error) {
+		this.status = finalStatus;
+		this.error = error;
+		this.finishedAt = Instant.now();
+		progress.finish();
+	}
+
+	public synchronized void requestCancel() {
+		cancelRequested = true;
+		if (status == ImportJobStatus.QUEUED) {
+			markFinished(ImportJobStatus.CANCELLED, null);
+		}
+	}
+
+	public boolean isCancelRequested() {
+		return cancelRequested;
+	}
+
+	public UUID getId() {
+		return id;
+	}
+
+	public String getSource() {
+		return source;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public Instant getSubmittedAt() {
+		return submittedAt;
+	}
+
+	public synchronized ImportJobStatus getStatus() {
+		return status;
+	}
+
+	public synchronized Instant getStartedAt() {
+		return startedAt;
+	}
+
+	public synchronized Instant getFinishedAt() {
+		return finishedAt;
+	}
+
+	public synchronized String getError() {
+		return error;
+	}
+
+	public ImportProgress getProgress() {
+		return progress;
+	}
+
+	@Override
+	public String toString() {
+		return "ImportJob [id=" + id + ", source=" + source + ", status=" + getStatus() + ", progress=" + progress
+				+ "]";
+	}
+}
@@ -0,0 +1,78 @@
+package com.signify.alexareviews.model;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ImportProgress {
+
+	private final AtomicLong rowsParsed = new AtomicLong();
+	private final AtomicLong rowsSaved = new AtomicLong();
+	private final AtomicLong rowsSkipped = new AtomicLong();
+	private final List<StageStats> stages = new CopyOnWriteArrayList<>();
+	private volatile long startedAt = System.nanoTime();
+	private volatile long finishedAt;
+
+	public void addParsed(long rows) {
+		rowsParsed.addAndGet(rows);
+	}
+
+	public void addSaved(long rows) {
+		rowsSaved.addAndGet(rows);
+	}
+
+	public void addSkipped(long rows) {
+		rowsSkipped.addAndGet(rows);
+	}
+
+	/**
+	 * Restarts the clock, e.g. when a queued job actually starts running.
+	 */
+	public void start() {
+		startedAt = System.nanoTime();
+	}
+
+	public StageStats addStage(String name, int threads) {
+		StageStats stage = new StageStats(name, threads);
+		stages.add(stage);
+		return stage;
+	}
+
+	public void finish() {
+		finishedAt = System.nanoTime();
+	}
+
+	public long getRowsParsed() {
+		return rowsParsed.get();
+	}
+
+	public long getRowsSaved() {
+		return rowsSaved.get();
+	}
+
+	public long getRowsSkipped() {
+		return rowsSkipped.get();
+	}
+
+	public List<StageStats> getStages() {
+		return stages;
+	}
+
+	public long getElapsedMillis() {
+		long end = finishedAt != 0 ? finishedAt : System.nanoTime();
+		return TimeUnit.NANOSECONDS.toMillis(end - startedAt);
+	}
+
+	public double getRowsPerSecond() {
+		long elapsedMillis = Math.max(1, getElapsedMillis());
+		return rowsSaved.get() * 1000.0 / elapsedMillis;
+	}
+
+	@Override
+	public String toString() {
+		return "ImportProgress [rowsParsed=" + getRowsParsed() + ", rowsSaved=" + getRowsSaved() + ", rowsSkipped="
+				+ getRowsSkipped() + ", elapsedMillis=" + getElapsedMillis() + ", rowsPerSecond="
+				+ String.format("%.1f", getRowsPerSecond()) + ", stages=" + stages + "]";
+	}
+}
@@ -0,0 +1,6 @@
+package com.signify.alexareviews.model;
+
+import java.util.List;
+
+public record ProductTrend(String productName, List<RatingPeriod> months) {
+}
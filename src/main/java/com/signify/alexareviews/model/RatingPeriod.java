@@ -0,0 +1,10 @@
+package com.signify.alexareviews.model;
+
+import java.time.LocalDate;
+
+/**
+ * Ratings of the reviews in the week or month beginning on {@code start}.
+ * {@code histogram[i]} counts reviews rated {@code i + 1}.
+ */
+public record RatingPeriod(LocalDate start, long count, double averageRating, long[] histogram) {
+}
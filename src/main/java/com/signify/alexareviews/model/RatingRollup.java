@@ -0,0 +1,7 @@
+package com.signify.alexareviews.model;
+
+/**
+ * Number of reviews of one store, month and rating.
+ */
+public record RatingRollup(String reviewSource, int year, int month, int rating, long count) {
+}
@@ -0,0 +1,10 @@
+package com.signify.alexareviews.model;
+
+import java.util.Map;
+
+/**
+ * Rating statistics for a set of reviews. {@code histogram[i]} counts reviews
+ * rated {@code i + 1}; percentiles are keyed like {@code p90}.
+ */
+public record RatingSummary(long count, double averageRating, long[] histogram, Map<String, Integer> percentiles) {
+}
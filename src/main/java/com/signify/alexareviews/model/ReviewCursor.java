@@ -0,0 +1,40 @@
+package com.signify.alexareviews.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+import com.signify.alexareviews.entity.Review;
+
+/**
+ * Position of the last review on a page in {@code (reviewedDate, id)} order.
+ * Clients get it as an opaque token and pass it back to fetch the next page.
+ */
+public record ReviewCursor(LocalDate reviewedDate, UUID id) {
+
+	public static ReviewCursor after(Review review) {
+		return new ReviewCursor(review.getReviewedDate(), review.getId());
+	}
+
+	public String encode() {
+		String raw = reviewedDate + "|" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the token was not produced by
+	 *                                  {@link #encode()}
+	 */
+	public static ReviewCursor decode(String token) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int separator = raw.indexOf('|');
+			return new ReviewCursor(LocalDate.parse(raw.substring(0, separator)),
+					UUID.fromString(raw.substring(separator + 1)));
+		} catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+			throw new IllegalArgumentException("Invalid cursor: " + token, e);
+		}
+	}
+}
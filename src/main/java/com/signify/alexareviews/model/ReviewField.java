@@ -0,0 +1,45 @@
+package com.signify.alexareviews.model;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Review fields a client can select with {@code fields=}. The name is both the
+ * JSON property and the column of the reviews table.
+ */
+public enum ReviewField {
+
+	ID, REVIEW, AUTHOR, REVIEW_SOURCE, RATING, TITLE, PRODUCT_NAME, REVIEWED_DATE;
+
+	public String column() {
+		return name().toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Parses field names such as {@code rating} or {@code reviewed_date}; entries
+	 * may also hold several comma separated names.
+	 *
+	 * @throws IllegalArgumentException for an unknown name or no names at all
+	 */
+	public static Set<ReviewField> parse(Collection<String> names) {
+		Set<ReviewField> fields = EnumSet.noneOf(ReviewField.class);
+		for (String entry : names) {
+			for (String name : entry.split(",")) {
+				if (name.isBlank()) {
+					continue;
+				}
+				try {
+					fields.add(valueOf(name.strip().toUpperCase(Locale.ROOT)));
+				} catch (IllegalArgumentException e) {
+					throw new IllegalArgumentException("Unknown review field: " + name.strip(), e);
+				}
+			}
+		}
+		if (fields.isEmpty()) {
+			throw new IllegalArgumentException("No review fields selected");
+		}
+		return fields;
+	}
+}
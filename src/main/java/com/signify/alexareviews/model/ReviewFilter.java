@@ -0,0 +1,48 @@
+package com.signify.alexareviews.model;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+import com.signify.alexareviews.entity.Review;
+
+/**
+ * Optional review filters, combined with AND. A null field does not filter.
+ */
+public record ReviewFilter(LocalDate startDate, LocalDate endDate, String reviewSource, Integer rating,
+		String productName) {
+
+	public static final ReviewFilter NONE = new ReviewFilter(null, null, null, null, null);
+
+	public static ReviewFilter dateRange(LocalDate startDate, LocalDate endDate) {
+		return new ReviewFilter(startDate, endDate, null, null, null);
+	}
+
+	public boolean hasDateRange() {
+		return startDate != null || endDate != null;
+	}
+
+	public boolean isEmpty() {
+		return !hasDateRange() && reviewSource == null && rating == null && productName == null;
+	}
+
+	/**
+	 * The same filter with blank strings treated as absent, so equivalent
+	 * requests compare equal.
+	 */
+	public ReviewFilter normalized() {
+		String source = reviewSource != null && !reviewSource.isBlank() ? reviewSource.strip() : null;
+		String product = productName != null && !productName.isBlank() ? productName.strip() : null;
+		if (Objects.equals(source, reviewSource) && Objects.equals(product, productName)) {
+			return this;
+		}
+		return new ReviewFilter(startDate, endDate, source, rating, product);
+	}
+
+	public boolean matches(Review review) {
+		return (startDate == null || !review.getReviewedDate().isBefore(startDate))
+				&& (endDate == null || !review.getReviewedDate().isAfter(endDate))
+				&& (reviewSource == null || reviewSource.equals(review.getReviewSource()))
+				&& (rating == null || rating == review.getRating())
+				&& (productName == null || productName.equals(review.getProductName()));
+	}
+}
@@ -0,0 +1,27 @@
+package com.signify.alexareviews.model;
+
+import java.util.List;
+
+import com.signify.alexareviews.entity.Review;
+
+public class ReviewPage {
+
+	private final List<Review> items;
+	private final String nextCursor;
+
+	public ReviewPage(List<Review> items, String nextCursor) {
+		this.items = items;
+		this.nextCursor = nextCursor;
+	}
+
+	public List<Review> getItems() {
+		return items;
+	}
+
+	/**
+	 * Token for the following page, or null if this is the last one.
+	 */
+	public String getNextCursor() {
+		return nextCursor;
+	}
+}
@@ -0,0 +1,13 @@
+package com.signify.alexareviews.model;
+
+import java.time.LocalDate;
+
+/**
+ * A month of stored reviews, {@code from} inclusive to {@code to} exclusive.
+ * On MySQL this is a physical partition and {@code reviews} is the storage
+ * engine's row estimate; elsewhere it is the exact count kept in the rating
+ * rollups. The open ended partition catching dates past the last month has no
+ * {@code to}.
+ */
+public record ReviewPartition(String name, LocalDate from, LocalDate to, long reviews) {
+}
@@ -0,0 +1,9 @@
+package com.signify.alexareviews.model;
+
+import com.signify.alexareviews.entity.Review;
+
+/**
+ * A review matching a search with its relevance score; higher is better.
+ */
+public record ReviewSearchHit(Review review, double score) {
+}
@@ -0,0 +1,9 @@
+package com.signify.alexareviews.model;
+
+import java.util.List;
+
+/**
+ * The best hits of a search, best first, and how many reviews matched in total.
+ */
+public record ReviewSearchResult(int totalHits, List<ReviewSearchHit> hits) {
+}
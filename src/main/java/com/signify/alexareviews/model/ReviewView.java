@@ -0,0 +1,20 @@
+package com.signify.alexareviews.model;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Read-only projection of a review holding only the selected
+ * {@link ReviewField}s; the others are null and left out of the JSON, as is a
+ * selected title that is not set.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({ "id", "review", "author", "review_source", "rating", "title", "product_name", "reviewed_date" })
+public record ReviewView(UUID id, String review, String author,
+		@JsonProperty("review_source") String reviewSource, Integer rating, String title,
+		@JsonProperty("product_name") String productName, @JsonProperty("reviewed_date") LocalDate reviewedDate) {
+}
@@ -0,0 +1,70 @@
+package com.signify.alexareviews.model;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class StageStats {
+
+	private final String name;
+	private final int threads;
+	private final AtomicLong rows = new AtomicLong();
+	private final AtomicLong busyNanos = new AtomicLong();
+	private final AtomicLong waitNanos = new AtomicLong();
+
+	public StageStats(String name, int threads) {
+		this.name = name;
+		this.threads = threads;
+	}
+
+	public void addRows(long count) {
+		rows.addAndGet(count);
+	}
+
+	public void addBusyNanos(long nanos) {
+		busyNanos.addAndGet(nanos);
+	}
+
+	public void addWaitNanos(long nanos) {
+		waitNanos.addAndGet(nanos);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	public long getRows() {
+		return rows.get();
+	}
+
+	public long getBusyMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(busyNanos.get());
+	}
+
+	/**
+	 * Time spent blocked on the queues on either side of the stage. A stage that
+	 * waits a lot is not the bottleneck.
+	 */
+	public long getWaitMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(waitNanos.get());
+	}
+
+	/**
+	 * Throughput the stage could sustain on its own, i.e. rows per second of busy
+	 * time across all of its threads.
+	 */
+	public double getRowsPerSecond() {
+		long busyPerThread = Math.max(1, busyNanos.get() / threads);
+		return rows.get() * 1_000_000_000.0 / busyPerThread;
+	}
+
+	@Override
+	public String toString() {
+		return name + " [threads=" + threads + ", rows=" + getRows() + ", busyMillis=" + getBusyMillis()
+				+ ", waitMillis=" + getWaitMillis() + ", rowsPerSecond=" + String.format("%.1f", getRowsPerSecond())
+				+ "]";
+	}
+}
@@ -0,0 +1,94 @@
+package com.signify.alexareviews.repository;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.entity.ReviewIds;
+import com.signify.alexareviews.model.ReviewFilter;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking reads of the reviews table over R2DBC, next to the JDBC
+ * repositories. Queries are the ones {@link ReviewQueryRepository} builds, so
+ * both paths filter and order identically. Rows are emitted as the subscriber
+ * requests them.
+ * <p>
+ * The pool is private to this repository on purpose: a ConnectionFactory bean
+ * would make Spring Boot back off from configuring the JDBC DataSource. It is
+ * only created when {@code project.reactive.url} is set, since there is no
+ * safe default: it has to name the database the JDBC url points at.
+ */
+@Repository
+@ConditionalOnProperty("project.reactive.url")
+public class ReactiveReviewRepository {
+
+	private final ConnectionPool pool;
+	private final DatabaseClient client;
+
+	public ReactiveReviewRepository(@Value("${project.reactive.url}") String url,
+			@Value("${project.reactive.username:}") String username,
+			@Value("${project.reactive.password:}") String password,
+			@Value("${project.reactive.pool-size:10}") int poolSize) {
+		ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+				.option(ConnectionFactoryOptions.USER, username).option(ConnectionFactoryOptions.PASSWORD, password)
+				.build();
+		this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+				.maxSize(poolSize).maxIdleTime(Duration.ofMinutes(30)).build());
+		this.client = DatabaseClient.create(pool);
+	}
+
+	/**
+	 * Every review matching the filter in {@code (reviewed_date, id)} order.
+	 */
+	public Flux<Review> stream(ReviewFilter filter) {
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		StringBuilder sql = ReviewQueryRepository.select(filter, params);
+		sql.append(" ORDER BY reviewed_date, id");
+		return bind(client.sql(sql.toString()), params).map(ReactiveReviewRepository::mapRow).all();
+	}
+
+	@PreDestroy
+	public void close() {
+		pool.dispose();
+	}
+
+	// R2DBC drivers take java.time values, not the java.sql types used for JDBC
+	private static GenericExecuteSpec bind(GenericExecuteSpec spec, MapSqlParameterSource params) {
+		for (Map.Entry<String, Object> param : params.getValues().entrySet()) {
+			Object value = param.getValue() instanceof Date date ? date.toLocalDate() : param.getValue();
+			spec = spec.bind(param.getKey(), value);
+		}
+		return spec;
+	}
+
+	private static Review mapRow(Readable row) {
+		return new Review(id(row), row.get("review", String.class),
+				row.get("author", String.class), row.get("review_source", String.class),
+				row.get("rating", Integer.class), row.get("title", String.class),
+				row.get("product_name", String.class), row.get("reviewed_date", LocalDate.class));
+	}
+
+	// MySQL stores ids as BINARY(16), read as bytes like the JDBC mappers do; H2's
+	// UUID column has no binary codec in its R2DBC driver
+	private static UUID id(Readable row) {
+		return row.get("id") instanceof UUID id ? id : ReviewIds.fromBytes(row.get("id", byte[].class));
+	}
+}
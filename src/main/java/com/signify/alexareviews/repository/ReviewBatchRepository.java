@@ -0,0 +1,127 @@
+package com.signify.alexareviews.repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.entity.ReviewIds;
+
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * Plain JDBC batch inserts for bulk loads. Going through
+ * {@link ReviewRepository#save} would issue a SELECT before every INSERT since
+ * the id is already assigned, so bulk paths write here instead.
+ */
+@Repository
+@Timed(value = "reviews.repository", description = "Review repository calls", histogram = true)
+public class ReviewBatchRepository {
+
+	private static final String INSERT_SQL = "INSERT INTO reviews (id, review, author, review_source, rating, title, product_name, reviewed_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+	// Portable insert-if-absent: H2 and MySQL both accept it, unlike INSERT IGNORE or ON CONFLICT.
+	// The check is on the id alone: on MySQL the primary key also holds reviewed_date for
+	// partitioning, so the key no longer stops a second row with the same id and another date
+	private static final String INSERT_IF_ABSENT_SQL = "INSERT INTO reviews (id, review, author, review_source, rating, title, product_name, reviewed_date)"
+			+ " SELECT ?, ?, ?, ?, ?, ?, ?, ? FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM reviews WHERE id = ?)";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+	public ReviewBatchRepository(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+	}
+
+	public int insertAll(List<Review> reviews) {
+		if (reviews.isEmpty()) {
+			return 0;
+		}
+		int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, reviews, reviews.size(), ReviewBatchRepository::bind);
+
+		int inserted = 0;
+		for (int[] batch : counts) {
+			for (int count : batch) {
+				inserted += inserted(count) ? 1 : 0;
+			}
+		}
+		return inserted;
+	}
+
+	/**
+	 * Inserts the reviews whose id is not stored yet, whatever its reviewed date,
+	 * and leaves the others as they are, so importing the same reviews again is a
+	 * no-op.
+	 *
+	 * @return the reviews that were inserted
+	 */
+	public List<Review> insertAllIfAbsent(List<Review> reviews) {
+		if (reviews.isEmpty()) {
+			return List.of();
+		}
+		int[][] counts = jdbcTemplate.batchUpdate(INSERT_IF_ABSENT_SQL, reviews, reviews.size(), (ps, review) -> {
+			bind(ps, review);
+			ps.setBytes(9, ReviewIds.toBytes(review.getId()));
+		});
+
+		List<Review> inserted = new ArrayList<>(reviews.size());
+		int row = 0;
+		for (int[] batch : counts) {
+			for (int count : batch) {
+				if (inserted(count)) {
+					inserted.add(reviews.get(row));
+				}
+				row++;
+			}
+		}
+		return inserted;
+	}
+
+	/**
+	 * Returns those of the given ids that are stored.
+	 */
+	public Set<UUID> findExistingIds(Collection<UUID> ids) {
+		if (ids.isEmpty()) {
+			return Set.of();
+		}
+		Set<UUID> existing = new HashSet<>();
+		namedJdbcTemplate.query("SELECT id FROM reviews WHERE id IN (:ids)",
+				new MapSqlParameterSource("ids", ids.stream().map(ReviewIds::toBytes).toList()), rs -> {
+					existing.add(ReviewIds.fromBytes(rs.getBytes(1)));
+				});
+		return existing;
+	}
+
+	private static void bind(PreparedStatement ps, Review review) throws SQLException {
+		ps.setBytes(1, ReviewIds.toBytes(review.getId()));
+		ps.setString(2, review.getReview());
+		ps.setString(3, review.getAuthor());
+		ps.setString(4, review.getReviewSource());
+		ps.setInt(5, review.getRating());
+		if (review.getTitle() != null) {
+			ps.setString(6, review.getTitle());
+		} else {
+			ps.setNull(6, Types.VARCHAR);
+		}
+		ps.setString(7, review.getProductName());
+		ps.setDate(8, Date.valueOf(review.getReviewedDate()));
+	}
+
+	// Drivers that rewrite batches (e.g. MySQL with rewriteBatchedStatements) report SUCCESS_NO_INFO
+	private static boolean inserted(int count) {
+		return count == Statement.SUCCESS_NO_INFO || count > 0;
+	}
+}
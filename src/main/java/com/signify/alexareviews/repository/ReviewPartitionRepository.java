@@ -0,0 +1,151 @@
+package com.signify.alexareviews.repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.signify.alexareviews.model.ReviewPartition;
+
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * Monthly partitions of the reviews table. On MySQL {@code reviews} is range
+ * partitioned on {@code reviewed_date}: a partition {@code pYYYYMM} per month
+ * followed by {@code p_future}, which catches everything later. The optimizer
+ * prunes date range predicates to the partitions they overlap and a month is
+ * retired by dropping its partition, without touching a single row.
+ * <p>
+ * Databases without partitioning get the same months as logical partitions,
+ * read from the rating rollups. Their date range reads are bounded by the
+ * {@code reviewed_date} indexes instead, and retiring months is a range delete.
+ */
+@Repository
+@Timed(value = "reviews.repository", description = "Review repository calls", histogram = true)
+public class ReviewPartitionRepository {
+
+	static final String FUTURE_PARTITION = "p_future";
+	private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+	private final JdbcTemplate jdbcTemplate;
+	private final boolean partitioned;
+
+	public ReviewPartitionRepository(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.partitioned = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> DatabaseDriver
+				.fromProductName(connection.getMetaData().getDatabaseProductName()) == DatabaseDriver.MYSQL);
+	}
+
+	/**
+	 * Whether the database partitions the reviews table itself.
+	 */
+	public boolean isPartitioned() {
+		return partitioned;
+	}
+
+	/**
+	 * Returns the partitions in date order.
+	 */
+	public List<ReviewPartition> findAll() {
+		if (!partitioned) {
+			return jdbcTemplate.query(
+					"SELECT review_year, review_month, SUM(review_count) FROM review_rating_rollups "
+							+ "GROUP BY review_year, review_month ORDER BY review_year, review_month",
+					(rs, rowNum) -> partition(YearMonth.of(rs.getInt(1), rs.getInt(2)), rs.getLong(3)));
+		}
+		List<ReviewPartition> partitions = new ArrayList<>();
+		jdbcTemplate.query("SELECT PARTITION_NAME, TABLE_ROWS FROM information_schema.PARTITIONS "
+				+ "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'reviews' AND PARTITION_NAME IS NOT NULL "
+				+ "ORDER BY PARTITION_ORDINAL_POSITION", rs -> {
+					String name = rs.getString(1);
+					if (FUTURE_PARTITION.equals(name)) {
+						LocalDate from = partitions.isEmpty() ? null : partitions.get(partitions.size() - 1).to();
+						partitions.add(new ReviewPartition(name, from, null, rs.getLong(2)));
+					} else {
+						partitions.add(partition(YearMonth.parse(name, PARTITION_NAME), rs.getLong(2)));
+					}
+				});
+		return partitions;
+	}
+
+	/**
+	 * Splits monthly partitions off {@code p_future} up to and including
+	 * {@code last}. The first split starts at the month of the oldest review, so
+	 * reviews loaded before partitioning get months of their own. Splitting only
+	 * copies the rows already dated past the last month, none once partitions are
+	 * kept ahead of time. Does nothing where the database does not partition.
+	 *
+	 * @return the number of partitions created
+	 */
+	public int createThrough(YearMonth last) {
+		if (!partitioned) {
+			return 0;
+		}
+		List<ReviewPartition> existing = findAll();
+		YearMonth first;
+		if (existing.size() > 1) {
+			first = YearMonth.from(existing.get(existing.size() - 1).from());
+		} else {
+			LocalDate oldest = jdbcTemplate.queryForObject("SELECT MIN(reviewed_date) FROM reviews", LocalDate.class);
+			first = oldest != null ? YearMonth.from(oldest) : last;
+		}
+		if (first.isAfter(last)) {
+			return 0;
+		}
+
+		StringJoiner partitions = new StringJoiner(", ", "ALTER TABLE reviews REORGANIZE PARTITION " + FUTURE_PARTITION
+				+ " INTO (", ", PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+		int created = 0;
+		for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+			partitions.add("PARTITION " + month.format(PARTITION_NAME) + " VALUES LESS THAN ('"
+					+ month.plusMonths(1).atDay(1) + "')");
+			created++;
+		}
+		jdbcTemplate.execute(partitions.toString());
+		return created;
+	}
+
+	/**
+	 * Removes every review dated before {@code month}, together with its rating
+	 * rollups. On MySQL the months are first split off {@code p_future} if need
+	 * be and then dropped as whole partitions.
+	 *
+	 * @return the partitions that were removed
+	 */
+	@Transactional
+	public List<ReviewPartition> dropBefore(YearMonth month) {
+		LocalDate before = month.atDay(1);
+		List<ReviewPartition> dropped;
+		if (partitioned) {
+			createThrough(month.minusMonths(1));
+			dropped = findAll().stream()
+					.filter(partition -> partition.to() != null && !partition.to().isAfter(before)).toList();
+			if (!dropped.isEmpty()) {
+				StringJoiner names = new StringJoiner(", ", "ALTER TABLE reviews DROP PARTITION ", "");
+				dropped.forEach(partition -> names.add(partition.name()));
+				jdbcTemplate.execute(names.toString());
+			}
+		} else {
+			dropped = findAll().stream().filter(partition -> partition.from().isBefore(before)).toList();
+			jdbcTemplate.update("DELETE FROM reviews WHERE reviewed_date < ?", Date.valueOf(before));
+		}
+		jdbcTemplate.update(
+				"DELETE FROM review_rating_rollups WHERE review_year < ? OR (review_year = ? AND review_month < ?)",
+				month.getYear(), month.getYear(), month.getMonthValue());
+		return dropped;
+	}
+
+	private static ReviewPartition partition(YearMonth month, long reviews) {
+		return new ReviewPartition(month.format(PARTITION_NAME), month.atDay(1), month.plusMonths(1).atDay(1),
+				reviews);
+	}
+}
@@ -0,0 +1,49 @@
+package com.signify.alexareviews.repository;
+
+import com.signify.alexareviews.model.ReviewFilter;
+
+/**
+ * Access path for a filtered review query, chosen from the filters present.
+ * Each plan names the composite index whose leading columns are pinned by
+ * equality filters, so the date range and any remaining filters are applied
+ * while walking a single index range.
+ */
+public enum ReviewQueryPlan {
+
+	SOURCE_RATING_DATE("idx_reviews_source_rating_date"),
+	SOURCE_DATE("idx_reviews_source_date"),
+	RATING_DATE("idx_reviews_rating_date"),
+	PRODUCT_DATE("idx_reviews_product_date"),
+	DATE("idx_reviews_reviewed_date_id"),
+	FULL_SCAN(null);
+
+	private final String index;
+
+	ReviewQueryPlan(String index) {
+		this.index = index;
+	}
+
+	/**
+	 * @return the index to read through, or null to scan the table
+	 */
+	public String getIndex() {
+		return index;
+	}
+
+	// Equality filters first, most selective combination first; product name is
+	// only used to drive the query when nothing better is given
+	public static ReviewQueryPlan choose(ReviewFilter filter) {
+		if (filter.reviewSource() != null && filter.rating() != null) {
+			return SOURCE_RATING_DATE;
+		} else if (filter.reviewSource() != null) {
+			return SOURCE_DATE;
+		} else if (filter.rating() != null) {
+			return RATING_DATE;
+		} else if (filter.productName() != null) {
+			return PRODUCT_DATE;
+		} else if (filter.hasDateRange()) {
+			return DATE;
+		}
+		return FULL_SCAN;
+	}
+}
@@ -0,0 +1,197 @@
+package com.signify.alexareviews.repository;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.entity.ReviewIds;
+import com.signify.alexareviews.model.ReviewCursor;
+import com.signify.alexareviews.model.ReviewField;
+import com.signify.alexareviews.model.ReviewFilter;
+import com.signify.alexareviews.model.ReviewView;
+
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * Filtered review reads: whole results, keyset pages in
+ * {@code (reviewed_date, id)} order and row-by-row streaming off a JDBC
+ * cursor. All filters combine into one statement. Rows are mapped to detached
+ * {@link Review}s, bypassing the persistence context, or to {@link ReviewView}s
+ * of just the selected columns.
+ */
+@Repository
+@Timed(value = "reviews.repository", description = "Review repository calls", histogram = true)
+public class ReviewQueryRepository {
+
+	static final String SELECT_COLUMNS = "SELECT id, review, author, review_source, rating, title, product_name, reviewed_date";
+	private static final RowMapper<Review> ROW_MAPPER = ReviewQueryRepository::mapRow;
+
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+	private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+
+	public ReviewQueryRepository(JdbcTemplate jdbcTemplate,
+			@Value("${project.query.stream-fetch-size:500}") int streamFetchSize) {
+		this.jdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+		JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+		streaming.setFetchSize(streamFetchSize);
+		this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(streaming);
+	}
+
+	/**
+	 * Returns every review matching all of the given filters, read through the
+	 * index {@link ReviewQueryPlan} picks for them.
+	 */
+	public List<Review> findAll(ReviewFilter filter) {
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		StringBuilder sql = select(filter, params);
+		return jdbcTemplate.query(sql.toString(), params, ROW_MAPPER);
+	}
+
+	/**
+	 * Returns up to {@code limit} matching reviews following {@code after} (or
+	 * from the start when null), seeking straight to the page instead of skipping
+	 * over an offset.
+	 */
+	public List<Review> findPage(ReviewFilter filter, ReviewCursor after, int limit) {
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		StringBuilder sql = select(filter, params);
+		if (after != null) {
+			sql.append(params.getValues().isEmpty() ? " WHERE " : " AND ");
+			// The leading range is implied by the OR but lets MySQL prune partitions before the cursor
+			sql.append("reviewed_date >= :afterDate AND (reviewed_date > :afterDate OR (reviewed_date = :afterDate AND id > :afterId))");
+			params.addValue("afterDate", Date.valueOf(after.reviewedDate()));
+			params.addValue("afterId", ReviewIds.toBytes(after.id()));
+		}
+		sql.append(" ORDER BY reviewed_date, id LIMIT :limit");
+		params.addValue("limit", limit);
+		return jdbcTemplate.query(sql.toString(), params, ROW_MAPPER);
+	}
+
+	/**
+	 * Returns the reviews with the given ids, in no particular order. Ids that
+	 * do not exist are ignored.
+	 */
+	public List<Review> findByIds(Collection<UUID> ids) {
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+		List<byte[]> values = ids.stream().map(ReviewIds::toBytes).toList();
+		return jdbcTemplate.query(SELECT_COLUMNS + " FROM reviews WHERE id IN (:ids)",
+				new MapSqlParameterSource("ids", values), ROW_MAPPER);
+	}
+
+	/**
+	 * Hands every matching review to {@code consumer} as it comes off the cursor,
+	 * in {@code (reviewed_date, id)} order. On MySQL add useCursorFetch=true to the
+	 * JDBC url so the fetch size is honoured instead of buffering the result.
+	 */
+	public void stream(ReviewFilter filter, Consumer<Review> consumer) {
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		StringBuilder sql = select(filter, params);
+		sql.append(" ORDER BY reviewed_date, id");
+		streamingJdbcTemplate.query(sql.toString(), params, rs -> {
+			consumer.accept(mapRow(rs, 0));
+		});
+	}
+
+	/**
+	 * Like {@link #findAll} but reads only the given columns, e.g. to leave out
+	 * the review text when a client only needs ratings and dates.
+	 */
+	public List<ReviewView> findViews(ReviewFilter filter, Set<ReviewField> fields) {
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		StringBuilder sql = select(selectColumns(fields), filter, params);
+		return jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> mapView(rs, fields));
+	}
+
+	/**
+	 * Like {@link #stream} but reads only the given columns.
+	 */
+	public void streamViews(ReviewFilter filter, Set<ReviewField> fields, Consumer<ReviewView> consumer) {
+		MapSqlParameterSource params = new MapSqlParameterSource();
+		StringBuilder sql = select(selectColumns(fields), filter, params);
+		sql.append(" ORDER BY reviewed_date, id");
+		streamingJdbcTemplate.query(sql.toString(), params, rs -> {
+			consumer.accept(mapView(rs, fields));
+		});
+	}
+
+	// Predicates are emitted in the plan's index column order. USE INDEX is a hint
+	// on MySQL and restricts the candidates on H2; both read it the same way
+	static StringBuilder select(ReviewFilter filter, MapSqlParameterSource params) {
+		return select(SELECT_COLUMNS, filter, params);
+	}
+
+	private static StringBuilder select(String columns, ReviewFilter filter, MapSqlParameterSource params) {
+		ReviewQueryPlan plan = ReviewQueryPlan.choose(filter);
+		StringBuilder sql = new StringBuilder(columns).append(" FROM reviews");
+		if (plan.getIndex() != null) {
+			sql.append(" USE INDEX (").append(plan.getIndex()).append(')');
+		}
+
+		List<String> predicates = new ArrayList<>(5);
+		if (filter.reviewSource() != null) {
+			predicates.add("review_source = :reviewSource");
+			params.addValue("reviewSource", filter.reviewSource());
+		}
+		if (filter.rating() != null) {
+			predicates.add("rating = :rating");
+			params.addValue("rating", filter.rating());
+		}
+		if (filter.productName() != null) {
+			predicates.add("product_name = :productName");
+			params.addValue("productName", filter.productName());
+		}
+		if (filter.startDate() != null) {
+			predicates.add("reviewed_date >= :startDate");
+			params.addValue("startDate", Date.valueOf(filter.startDate()));
+		}
+		if (filter.endDate() != null) {
+			predicates.add("reviewed_date <= :endDate");
+			params.addValue("endDate", Date.valueOf(filter.endDate()));
+		}
+		if (!predicates.isEmpty()) {
+			sql.append(" WHERE ").append(String.join(" AND ", predicates));
+		}
+		return sql;
+	}
+
+	private static String selectColumns(Set<ReviewField> fields) {
+		StringJoiner columns = new StringJoiner(", ", "SELECT ", "");
+		fields.forEach(field -> columns.add(field.column()));
+		return columns.toString();
+	}
+
+	private static ReviewView mapView(ResultSet rs, Set<ReviewField> fields) throws SQLException {
+		Date reviewedDate = fields.contains(ReviewField.REVIEWED_DATE) ? rs.getDate("reviewed_date") : null;
+		return new ReviewView(fields.contains(ReviewField.ID) ? ReviewIds.fromBytes(rs.getBytes("id")) : null,
+				fields.contains(ReviewField.REVIEW) ? rs.getString("review") : null,
+				fields.contains(ReviewField.AUTHOR) ? rs.getString("author") : null,
+				fields.contains(ReviewField.REVIEW_SOURCE) ? rs.getString("review_source") : null,
+				fields.contains(ReviewField.RATING) ? rs.getInt("rating") : null,
+				fields.contains(ReviewField.TITLE) ? rs.getString("title") : null,
+				fields.contains(ReviewField.PRODUCT_NAME) ? rs.getString("product_name") : null,
+				reviewedDate != null ? reviewedDate.toLocalDate() : null);
+	}
+
+	static Review mapRow(ResultSet rs, int rowNum) throws SQLException {
+		return new Review(ReviewIds.fromBytes(rs.getBytes("id")), rs.getString("review"), rs.getString("author"),
+				rs.getString("review_source"), rs.getInt("rating"), rs.getString("title"),
+				rs.getString("product_name"), rs.getDate("reviewed_date").toLocalDate());
+	}
+}
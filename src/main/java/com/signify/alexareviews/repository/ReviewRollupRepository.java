@@ -0,0 +1,169 @@
+package com.signify.alexareviews.repository;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.model.RatingRollup;
+
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * Review counts per {@code (review_source, year, month, rating)}. Writers add
+ * their rows here in the same transaction as the reviews, so the rating
+ * statistics are read from a table whose size depends on the number of
+ * months rather than the number of reviews. Rating sums are not stored since
+ * rating is part of the key: the sum of a group is {@code rating * count}.
+ */
+@Repository
+@Timed(value = "reviews.repository", description = "Review repository calls", histogram = true)
+public class ReviewRollupRepository {
+
+	private static final String UPDATE_SQL = "UPDATE review_rating_rollups SET review_count = review_count + ? WHERE review_source = ? AND review_year = ? AND review_month = ? AND rating = ?";
+	private static final String DELETE_EMPTY_SQL = "DELETE FROM review_rating_rollups WHERE review_source = ? AND review_year = ? AND review_month = ? AND rating = ? AND review_count <= 0";
+	private static final String INSERT_SQL = "INSERT INTO review_rating_rollups (review_source, review_year, review_month, rating, review_count) VALUES (?, ?, ?, ?, ?)";
+	private static final String REBUILD_SQL = "INSERT INTO review_rating_rollups (review_source, review_year, review_month, rating, review_count) "
+			+ "SELECT review_source, YEAR(reviewed_date), MONTH(reviewed_date), rating, COUNT(*) FROM reviews "
+			+ "GROUP BY review_source, YEAR(reviewed_date), MONTH(reviewed_date), rating";
+
+	private record Key(String reviewSource, int year, int month, int rating) {
+		static final Comparator<Key> ORDER = Comparator.comparingInt(Key::year).thenComparingInt(Key::month)
+				.thenComparing(Key::reviewSource).thenComparingInt(Key::rating);
+	}
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public ReviewRollupRepository(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	/**
+	 * Counts {@code reviews} into their rollup rows. Must run in the transaction
+	 * that stores the reviews.
+	 */
+	public void add(List<Review> reviews) {
+		apply(List.of(), reviews);
+	}
+
+	/**
+	 * Moves overwritten reviews from the rollup rows of their {@code previous}
+	 * values to those of their {@code current} ones. Must run in the transaction
+	 * that updates the reviews.
+	 */
+	public void replace(List<Review> previous, List<Review> current) {
+		apply(previous, current);
+	}
+
+	private void apply(List<Review> removed, List<Review> added) {
+		// A chunk of reviews collapses to a handful of keys, so there is one
+		// statement per key rather than per review. Every writer locks the rows in
+		// key order, so concurrent imports, bulk posts and flushes cannot deadlock
+		Map<Key, Long> counts = new TreeMap<>(Key.ORDER);
+		for (Review review : removed) {
+			counts.merge(key(review), -1L, Long::sum);
+		}
+		for (Review review : added) {
+			counts.merge(key(review), 1L, Long::sum);
+		}
+		counts.forEach((key, count) -> {
+			if (count > 0) {
+				increment(key, count);
+			} else if (count < 0) {
+				decrement(key, -count);
+			}
+		});
+	}
+
+	private static Key key(Review review) {
+		return new Key(review.getReviewSource(), review.getReviewedDate().getYear(),
+				review.getReviewedDate().getMonthValue(), review.getRating());
+	}
+
+	private void increment(Key key, long count) {
+		if (update(key, count) > 0) {
+			return;
+		}
+		try {
+			jdbcTemplate.update(INSERT_SQL, key.reviewSource(), key.year(), key.month(), key.rating(), count);
+		} catch (DuplicateKeyException e) {
+			// Another writer created the row after our update missed it
+			update(key, count);
+		}
+	}
+
+	private void decrement(Key key, long count) {
+		update(key, -count);
+		// An emptied row would make its month's average divide by zero
+		jdbcTemplate.update(DELETE_EMPTY_SQL, key.reviewSource(), key.year(), key.month(), key.rating());
+	}
+
+	private int update(Key key, long count) {
+		return jdbcTemplate.update(UPDATE_SQL, count, key.reviewSource(), key.year(), key.month(), key.rating());
+	}
+
+	public List<Map<String, Object>> getMonthlyAverageRatings() {
+		return jdbcTemplate.query(
+				"SELECT review_source, review_year, review_month, SUM(rating * review_count) AS rating_sum, SUM(review_count) AS review_count "
+						+ "FROM review_rating_rollups GROUP BY review_source, review_year, review_month "
+						+ "ORDER BY review_source, review_year, review_month",
+				(rs, rowNum) -> {
+					Map<String, Object> row = new LinkedHashMap<>();
+					row.put("store", rs.getString("review_source"));
+					row.put("year", rs.getInt("review_year"));
+					row.put("month", rs.getInt("review_month"));
+					row.put("avgRating", (double) rs.getLong("rating_sum") / rs.getLong("review_count"));
+					return row;
+				});
+	}
+
+	public List<Map<String, Object>> getTotalRatingsByCategory() {
+		return jdbcTemplate.query(
+				"SELECT rating, SUM(review_count) AS review_count FROM review_rating_rollups GROUP BY rating ORDER BY rating",
+				(rs, rowNum) -> {
+					Map<String, Object> row = new LinkedHashMap<>();
+					row.put("rating", rs.getInt("rating"));
+					row.put("count", rs.getLong("review_count"));
+					return row;
+				});
+	}
+
+	public List<RatingRollup> findAll() {
+		return jdbcTemplate.query(
+				"SELECT review_source, review_year, review_month, rating, review_count FROM review_rating_rollups",
+				(rs, rowNum) -> new RatingRollup(rs.getString(1), rs.getInt(2), rs.getInt(3), rs.getInt(4),
+						rs.getLong(5)));
+	}
+
+	/**
+	 * Inserts the rollup rows as they are, e.g. when restoring a snapshot into an
+	 * empty table.
+	 */
+	public void insertAll(List<RatingRollup> rollups) {
+		jdbcTemplate.batchUpdate(INSERT_SQL, rollups, rollups.size(), (ps, rollup) -> {
+			ps.setString(1, rollup.reviewSource());
+			ps.setInt(2, rollup.year());
+			ps.setInt(3, rollup.month());
+			ps.setInt(4, rollup.rating());
+			ps.setLong(5, rollup.count());
+		});
+	}
+
+	/**
+	 * Recomputes every rollup row from the reviews table, repairing any drift.
+	 *
+	 * @return the number of rollup rows written
+	 */
+	@Transactional
+	public int rebuild() {
+		jdbcTemplate.update("DELETE FROM review_rating_rollups");
+		return jdbcTemplate.update(REBUILD_SQL);
+	}
+}
@@ -0,0 +1,209 @@
+package com.signify.alexareviews.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.signify.alexareviews.configuration.VirtualThreads;
+import com.signify.alexareviews.model.ImportJob;
+import com.signify.alexareviews.model.ImportJobStatus;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs imports as background jobs on a small dedicated pool, so a large import
+ * neither holds a request thread nor competes with query traffic for more than
+ * a fixed number of threads. Job threads run below normal priority and the
+ * pipeline threads they start inherit it. With virtual threads enabled the job
+ * threads are virtual; the pipeline's parser and writer threads stay platform
+ * threads since parsing is CPU bound.
+ */
+@Service
+public class ImportJobService {
+
+	private static final Logger logger = LoggerFactory.getLogger(ImportJobService.class);
+	private final ReviewImportService importService;
+	private final String defaultFile;
+	private final Path importDirectory;
+	private final int retainedJobs;
+	private final ThreadPoolExecutor executor;
+	private final Map<UUID, ImportJob> jobs = new ConcurrentHashMap<>();
+
+	public ImportJobService(ReviewImportService importService,
+			@Value("${project.import.default-file:src/main/resources/alexa.json}") String defaultFile,
+			@Value("${project.import.directory:data/import}") Path importDirectory,
+			@Value("${project.import.max-concurrent-jobs:1}") int maxConcurrentJobs,
+			@Value("${project.import.max-queued-jobs:10}") int maxQueuedJobs,
+			@Value("${project.import.retained-jobs:100}") int retainedJobs,
+			@Value("${project.threads.virtual:false}") boolean virtualThreads) {
+		this.importService = importService;
+		this.defaultFile = defaultFile;
+		this.importDirectory = importDirectory.toAbsolutePath().normalize();
+		this.retainedJobs = retainedJobs;
+		// The pool still caps concurrent jobs with virtual threads; only the job threads themselves change
+		this.executor = new ThreadPoolExecutor(maxConcurrentJobs, maxConcurrentJobs, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(Math.max(1, maxQueuedJobs)),
+				virtualThreads ? VirtualThreads.factory("import-job-") : platformThreads());
+	}
+
+	private static ThreadFactory platformThreads() {
+		AtomicInteger threadCount = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, "import-job-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			thread.setPriority(Thread.NORM_PRIORITY - 1);
+			return thread;
+		};
+	}
+
+	/**
+	 * Queues an import of a file in the import directory, or of the bundled dump
+	 * when no path is given. The path is resolved against
+	 * {@code project.import.directory}.
+	 *
+	 * @throws IllegalArgumentException   if the path leads outside the import
+	 *                                    directory
+	 * @throws NoSuchFileException        if the file does not exist
+	 * @throws RejectedExecutionException if the job queue is full
+	 */
+	public ImportJob submit(String filePath, Integer batchSize) throws IOException {
+		if (filePath == null) {
+			Path file = Paths.get(defaultFile);
+			if (!Files.isRegularFile(file)) {
+				throw new NoSuchFileException(file.toString());
+			}
+			return submit(file, file.toString(), batchSize, false);
+		}
+		Path file = resolveImportFile(filePath);
+		return submit(file, importDirectory.relativize(file).toString(), batchSize, false);
+	}
+
+	// Both the normalized path and, once it exists, the real one must stay in the
+	// import directory, so neither ../ nor a symbolic link gets out of it
+	private Path resolveImportFile(String filePath) throws IOException {
+		Path file;
+		try {
+			file = importDirectory.resolve(filePath).normalize();
+		} catch (InvalidPathException e) {
+			throw new IllegalArgumentException("Invalid file path: " + filePath);
+		}
+		if (!file.startsWith(importDirectory)) {
+			throw new IllegalArgumentException("File is outside the import directory: " + filePath);
+		}
+		if (!Files.isRegularFile(file)) {
+			throw new NoSuchFileException(filePath);
+		}
+		if (!file.toRealPath().startsWith(importDirectory.toRealPath())) {
+			throw new IllegalArgumentException("File is outside the import directory: " + filePath);
+		}
+		return file;
+	}
+
+	/**
+	 * Spools an uploaded stream to a temporary file and queues an import of it.
+	 * The temporary file is removed once the job finishes.
+	 */
+	public ImportJob submitUpload(InputStream upload, String name, Integer batchSize) throws IOException {
+		Path file = Files.createTempFile("review-import-", ".json");
+		try {
+			Files.copy(upload, file, StandardCopyOption.REPLACE_EXISTING);
+			return submit(file, "upload:" + name, batchSize, true);
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(file);
+			throw e;
+		}
+	}
+
+	public Optional<ImportJob> getJob(UUID id) {
+		return Optional.ofNullable(jobs.get(id));
+	}
+
+	public Optional<ImportJob> cancel(UUID id) {
+		ImportJob job = jobs.get(id);
+		if (job != null && !job.getStatus().isFinished()) {
+			logger.info("Cancelling import job {}", id);
+			job.requestCancel();
+		}
+		return Optional.ofNullable(job);
+	}
+
+	private ImportJob submit(Path file, String source, Integer batchSize, boolean deleteWhenDone) {
+		ImportJob job = new ImportJob(source, batchSize != null ? batchSize : importService.getBatchSize());
+		evictFinishedJobs();
+		jobs.put(job.getId(), job);
+		try {
+			executor.execute(() -> run(job, file, deleteWhenDone));
+		} catch (RejectedExecutionException e) {
+			jobs.remove(job.getId());
+			throw e;
+		}
+		logger.info("Queued import job {} for {}", job.getId(), source);
+		return job;
+	}
+
+	private void run(ImportJob job, Path file, boolean deleteWhenDone) {
+		try {
+			if (!job.markRunning()) {
+				return;
+			}
+			importService.importReviewsFromFile(file.toString(), job.getBatchSize(), job.getProgress(),
+					job::isCancelRequested);
+			job.markFinished(ImportJobStatus.COMPLETED, null);
+		} catch (CancellationException e) {
+			logger.info("Import job {} cancelled after {} rows", job.getId(), job.getProgress().getRowsSaved());
+			job.markFinished(ImportJobStatus.CANCELLED, null);
+		} catch (Exception e) {
+			logger.error("Import job {} failed", job.getId(), e);
+			job.markFinished(ImportJobStatus.FAILED, e.getMessage());
+		} finally {
+			if (deleteWhenDone) {
+				deleteQuietly(file);
+			}
+		}
+	}
+
+	private void evictFinishedJobs() {
+		if (jobs.size() < retainedJobs) {
+			return;
+		}
+		jobs.values().stream().filter(job -> job.getStatus().isFinished())
+				.sorted(Comparator.comparing(ImportJob::getSubmittedAt)).limit(jobs.size() - retainedJobs + 1L)
+				.forEach(job -> jobs.remove(job.getId()));
+	}
+
+	private static void deleteQuietly(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			logger.warn("Could not delete temporary import file {}", file, e);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		jobs.values().forEach(ImportJob::requestCancel);
+		executor.shutdown();
+	}
+}
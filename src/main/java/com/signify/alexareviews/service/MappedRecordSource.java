@@ -0,0 +1,114 @@
+package com.signify.alexareviews.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads newline separated records straight out of a memory-mapped file. Each
+ * record is a slice of the mapping, so nothing is copied or decoded until a
+ * parser looks at it. The file is mapped in regions so dumps larger than 2 GB
+ * work; a record running past the end of a region causes the next region to
+ * start at that record.
+ */
+public class MappedRecordSource implements ReviewImportPipeline.RecordSource<ByteBuffer>, Closeable {
+
+	static final int DEFAULT_REGION_SIZE = 64 * 1024 * 1024;
+	private static final long NEWLINES = 0x0A0A0A0A0A0A0A0AL;
+	private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+	private final FileChannel channel;
+	private final long fileSize;
+	private final int regionSize;
+	private MappedByteBuffer region;
+	private long regionStart;
+	private long position;
+
+	public MappedRecordSource(Path path) throws IOException {
+		this(path, DEFAULT_REGION_SIZE);
+	}
+
+	MappedRecordSource(Path path, int regionSize) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+		this.fileSize = channel.size();
+		this.regionSize = regionSize;
+	}
+
+	@Override
+	public List<ByteBuffer> read(int max) throws IOException {
+		List<ByteBuffer> records = new ArrayList<>(max);
+		while (records.size() < max && position < fileSize) {
+			if (region == null || position >= regionStart + region.limit()) {
+				map(position, regionSize);
+			}
+			int offset = (int) (position - regionStart);
+			int newline = indexOfNewline(region, offset, region.limit());
+			if (newline < 0) {
+				if (regionStart + region.limit() < fileSize) {
+					// The record runs past this region, map again starting at the record
+					growRegion(offset);
+					continue;
+				}
+				newline = region.limit();
+			}
+
+			int end = newline;
+			if (end > offset && region.get(end - 1) == '\r') {
+				end--;
+			}
+			if (end > offset) {
+				records.add(region.slice(offset, end - offset));
+			}
+			position = regionStart + newline + 1;
+		}
+		return records;
+	}
+
+	private void growRegion(int offset) throws IOException {
+		int length = offset == 0 ? region.limit() * 2 : regionSize;
+		if (offset == 0 && region.limit() == Integer.MAX_VALUE) {
+			throw new IOException("Record at offset " + position + " is larger than 2 GB");
+		}
+		map(position, length < 0 ? Integer.MAX_VALUE : length);
+	}
+
+	private void map(long start, int length) throws IOException {
+		regionStart = start;
+		region = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(length, fileSize - start));
+	}
+
+	/**
+	 * Finds the next '\n' eight bytes at a time. XOR turns newline bytes into zero
+	 * bytes, and the masked add sets the high bit of every byte that is not zero
+	 * without carrying into its neighbours.
+	 */
+	static int indexOfNewline(ByteBuffer buffer, int from, int limit) {
+		int i = from;
+		for (; i + Long.BYTES <= limit; i += Long.BYTES) {
+			long word = buffer.getLong(i) ^ NEWLINES;
+			long zeros = ~(((word & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | word | LOW_SEVEN_BITS);
+			if (zeros != 0) {
+				// Buffers are big-endian, so the first byte in memory is the most significant
+				return i + (Long.numberOfLeadingZeros(zeros) >>> 3);
+			}
+		}
+		for (; i < limit; i++) {
+			if (buffer.get(i) == '\n') {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public void close() throws IOException {
+		region = null;
+		channel.close();
+	}
+}
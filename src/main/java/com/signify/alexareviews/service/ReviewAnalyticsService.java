@@ -0,0 +1,211 @@
+package com.signify.alexareviews.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+import org.springframework.stereotype.Service;
+
+import com.signify.alexareviews.model.ProductTrend;
+import com.signify.alexareviews.model.RatingPeriod;
+import com.signify.alexareviews.model.RatingSummary;
+import com.signify.alexareviews.model.ReviewFilter;
+
+/**
+ * Rating aggregations over the {@link ReviewColumnStore}. Every aggregation is
+ * a histogram of ratings per group: the snapshot is split into fixed size
+ * chunks that are scanned in parallel, each into one counts array, and the
+ * arrays are summed. Apart from one array per chunk a scan allocates nothing.
+ */
+@Service
+public class ReviewAnalyticsService {
+
+	private static final int CHUNK_ROWS = 1 << 16;
+	private static final int RATINGS = 5;
+	private static final int ANY = -1;
+
+	private final ReviewColumnStore store;
+
+	public ReviewAnalyticsService(ReviewColumnStore store) {
+		this.store = store;
+	}
+
+	/**
+	 * @param percentiles values in (0, 100], answered with the nearest-rank
+	 *                    method
+	 */
+	public RatingSummary summarize(ReviewFilter filter, List<Integer> percentiles) {
+		for (int percentile : percentiles) {
+			if (percentile <= 0 || percentile > 100) {
+				throw new IllegalArgumentException("Percentiles must be between 1 and 100, got " + percentile);
+			}
+		}
+		ReviewColumnStore.Snapshot snapshot = store.snapshot();
+		Query query = query(filter, snapshot);
+		long[] histogram = query == null ? new long[RATINGS] : histograms(snapshot, query, 1, row -> 0);
+
+		long count = count(histogram, 0);
+		Map<String, Integer> values = new LinkedHashMap<>();
+		for (int percentile : percentiles) {
+			values.put("p" + percentile, count == 0 ? 0 : percentile(histogram, count, percentile));
+		}
+		return new RatingSummary(count, average(histogram, 0, count), histogram, values);
+	}
+
+	/**
+	 * Rating histograms per ISO week (Monday to Sunday), skipping weeks without
+	 * reviews.
+	 */
+	public List<RatingPeriod> weeklyHistograms(ReviewFilter filter) {
+		ReviewColumnStore.Snapshot snapshot = store.snapshot();
+		Query query = query(filter, snapshot);
+		if (query == null) {
+			return List.of();
+		}
+		int firstWeek = week(query.fromDay);
+		int weeks = week(query.toDay) - firstWeek + 1;
+		int[] epochDays = snapshot.epochDays;
+		long[] histograms = histograms(snapshot, query, weeks, row -> week(epochDays[row]) - firstWeek);
+
+		List<RatingPeriod> periods = new ArrayList<>();
+		for (int week = 0; week < weeks; week++) {
+			addPeriod(periods, histograms, week, LocalDate.ofEpochDay((long) (firstWeek + week) * 7 - 3));
+		}
+		return periods;
+	}
+
+	/**
+	 * Monthly rating histograms per product, skipping months without reviews.
+	 */
+	public List<ProductTrend> productTrends(ReviewFilter filter) {
+		ReviewColumnStore.Snapshot snapshot = store.snapshot();
+		Query query = query(filter, snapshot);
+		if (query == null) {
+			return List.of();
+		}
+		int firstMonth = ReviewColumnStore.epochMonth(query.fromDay);
+		int months = ReviewColumnStore.epochMonth(query.toDay) - firstMonth + 1;
+		int products = snapshot.productNames.length;
+		int[] epochMonths = snapshot.epochMonths;
+		int[] productCodes = snapshot.products;
+		long[] histograms = histograms(snapshot, query, products * months,
+				row -> productCodes[row] * months + epochMonths[row] - firstMonth);
+
+		List<ProductTrend> trends = new ArrayList<>();
+		for (int product = 0; product < products; product++) {
+			List<RatingPeriod> periods = new ArrayList<>();
+			for (int month = 0; month < months; month++) {
+				int epochMonth = firstMonth + month;
+				addPeriod(periods, histograms, product * months + month,
+						LocalDate.of(1970 + Math.floorDiv(epochMonth, 12), Math.floorMod(epochMonth, 12) + 1, 1));
+			}
+			if (!periods.isEmpty()) {
+				trends.add(new ProductTrend(snapshot.productNames[product], periods));
+			}
+		}
+		return trends;
+	}
+
+	private static long[] histograms(ReviewColumnStore.Snapshot snapshot, Query query, int groups,
+			IntUnaryOperator groupOf) {
+		int width = groups * RATINGS;
+		int chunks = (snapshot.size + CHUNK_ROWS - 1) / CHUNK_ROWS;
+		return IntStream.range(0, chunks).parallel().mapToObj(chunk -> {
+			long[] counts = new long[width];
+			byte[] ratings = snapshot.ratings;
+			int end = Math.min(snapshot.size, (chunk + 1) * CHUNK_ROWS);
+			for (int row = chunk * CHUNK_ROWS; row < end; row++) {
+				if (query.matches(snapshot, row)) {
+					counts[groupOf.applyAsInt(row) * RATINGS + ratings[row] - 1]++;
+				}
+			}
+			return counts;
+		}).reduce((a, b) -> {
+			for (int i = 0; i < a.length; i++) {
+				a[i] += b[i];
+			}
+			return a;
+		}).orElseGet(() -> new long[width]);
+	}
+
+	/**
+	 * Resolves the filter against the snapshot, or returns null if nothing can
+	 * match, e.g. an unknown store or a range outside the stored dates.
+	 */
+	private Query query(ReviewFilter filter, ReviewColumnStore.Snapshot snapshot) {
+		int source = filter.reviewSource() != null ? store.sourceCode(filter.reviewSource()) : ANY;
+		int product = filter.productName() != null ? store.productCode(filter.productName()) : ANY;
+		if ((filter.reviewSource() != null && source == ReviewColumnStore.NO_CODE)
+				|| (filter.productName() != null && product == ReviewColumnStore.NO_CODE)) {
+			return null;
+		}
+		int fromDay = filter.startDate() != null
+				? (int) Math.max(filter.startDate().toEpochDay(), snapshot.minDay)
+				: snapshot.minDay;
+		int toDay = filter.endDate() != null ? (int) Math.min(filter.endDate().toEpochDay(), snapshot.maxDay)
+				: snapshot.maxDay;
+		if (snapshot.size == 0 || fromDay > toDay) {
+			return null;
+		}
+		return new Query(fromDay, toDay, source, product, filter.rating() != null ? filter.rating() : ANY);
+	}
+
+	private record Query(int fromDay, int toDay, int source, int product, int rating) {
+
+		boolean matches(ReviewColumnStore.Snapshot snapshot, int row) {
+			int day = snapshot.epochDays[row];
+			return day >= fromDay && day <= toDay && (source == ANY || snapshot.sources[row] == source)
+					&& (product == ANY || snapshot.products[row] == product)
+					&& (rating == ANY || snapshot.ratings[row] == rating);
+		}
+	}
+
+	private static void addPeriod(List<RatingPeriod> periods, long[] histograms, int group, LocalDate start) {
+		long count = count(histograms, group);
+		if (count > 0) {
+			long[] histogram = new long[RATINGS];
+			System.arraycopy(histograms, group * RATINGS, histogram, 0, RATINGS);
+			periods.add(new RatingPeriod(start, count, average(histograms, group, count), histogram));
+		}
+	}
+
+	private static long count(long[] histograms, int group) {
+		long count = 0;
+		for (int i = 0; i < RATINGS; i++) {
+			count += histograms[group * RATINGS + i];
+		}
+		return count;
+	}
+
+	private static double average(long[] histograms, int group, long count) {
+		if (count == 0) {
+			return 0;
+		}
+		long sum = 0;
+		for (int i = 0; i < RATINGS; i++) {
+			sum += (i + 1) * histograms[group * RATINGS + i];
+		}
+		return (double) sum / count;
+	}
+
+	private static int percentile(long[] histogram, long count, int percentile) {
+		long rank = (count * percentile + 99) / 100;
+		long seen = 0;
+		for (int i = 0; i < RATINGS; i++) {
+			seen += histogram[i];
+			if (seen >= rank) {
+				return i + 1;
+			}
+		}
+		return RATINGS;
+	}
+
+	// Weeks since the Monday before the epoch, 1970-01-01 being a Thursday
+	private static int week(int epochDay) {
+		return Math.floorDiv(epochDay + 3, 7);
+	}
+}
@@ -0,0 +1,144 @@
+package com.signify.alexareviews.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.repository.ReviewBatchRepository;
+import com.signify.alexareviews.repository.ReviewRollupRepository;
+
+@Service
+public class ReviewBatchWriter {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReviewBatchWriter.class);
+	private final ReviewBatchRepository batchRepository;
+	private final ReviewRollupRepository rollupRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final ApplicationEventPublisher eventPublisher;
+	private final ReviewIdFilter idFilter;
+	private final ReviewMetrics metrics;
+
+	public ReviewBatchWriter(ReviewBatchRepository batchRepository, ReviewRollupRepository rollupRepository,
+			TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher, ReviewIdFilter idFilter,
+			ReviewMetrics metrics) {
+		this.batchRepository = batchRepository;
+		this.rollupRepository = rollupRepository;
+		this.transactionTemplate = transactionTemplate;
+		this.eventPublisher = eventPublisher;
+		this.idFilter = idFilter;
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Writes the reviews of the chunk that are not stored yet, together with
+	 * their rating rollups, in a single transaction. Reviews already stored (same
+	 * id) are skipped, so writing a chunk twice stores it once. If the batch is
+	 * rejected the chunk is retried row by row so one bad row does not cost the
+	 * whole chunk.
+	 *
+	 * @return the number of rows actually stored
+	 */
+	public int write(List<Review> reviews) {
+		long start = System.nanoTime();
+		List<Review> unseen = unseen(reviews);
+		int saved;
+		int rejected = 0;
+		try {
+			saved = insertInTransaction(unseen);
+		} catch (DataAccessException e) {
+			logger.warn("Batch insert of {} reviews failed, retrying row by row: {}", unseen.size(), e.getMessage());
+			saved = 0;
+			for (Review review : unseen) {
+				try {
+					saved += insertInTransaction(List.of(review));
+				} catch (DataAccessException rowFailure) {
+					rejected++;
+					logger.warn("Skipping review that could not be stored: {}", review, rowFailure);
+				}
+			}
+		}
+		metrics.batchWritten(saved, reviews.size() - saved - rejected, rejected, System.nanoTime() - start);
+		return saved;
+	}
+
+	/**
+	 * Like {@link #write}, for reviews that were already acknowledged: only rows
+	 * the database refuses as invalid (an integrity violation) are left out. Any
+	 * other failure, such as a deadlock, a lock wait timeout or a lost
+	 * connection, is thrown, and writing the chunk again once it passes stores
+	 * the rest of it.
+	 *
+	 * @return the reviews refused as invalid; every other review of the chunk is
+	 *         stored
+	 * @throws DataAccessException if the chunk could not be stored
+	 */
+	public List<Review> writeAcknowledged(List<Review> reviews) {
+		long start = System.nanoTime();
+		List<Review> unseen = unseen(reviews);
+		int saved;
+		List<Review> rejected = new ArrayList<>();
+		try {
+			saved = insertInTransaction(unseen);
+		} catch (DataIntegrityViolationException e) {
+			logger.warn("Batch insert of {} reviews failed, retrying row by row: {}", unseen.size(), e.getMessage());
+			saved = 0;
+			for (Review review : unseen) {
+				try {
+					saved += insertInTransaction(List.of(review));
+				} catch (DuplicateKeyException rowFailure) {
+					// Stored by a concurrent writer since the check, it is there all the same
+				} catch (DataIntegrityViolationException rowFailure) {
+					rejected.add(review);
+					logger.warn("Review refused by the database: {}", review, rowFailure);
+				}
+			}
+		}
+		metrics.batchWritten(saved, reviews.size() - saved - rejected.size(), rejected.size(),
+				System.nanoTime() - start);
+		return rejected;
+	}
+
+	private int insertInTransaction(List<Review> reviews) {
+		Integer inserted = transactionTemplate.execute(status -> insert(reviews));
+		return inserted != null ? inserted : 0;
+	}
+
+	// Drops repeats within the chunk and reviews the id filter and then the table
+	// confirm are stored; only filter hits cost a query
+	private List<Review> unseen(List<Review> reviews) {
+		Map<UUID, Review> byId = new LinkedHashMap<>(reviews.size() * 2);
+		List<UUID> maybeStored = new ArrayList<>();
+		for (Review review : reviews) {
+			if (byId.putIfAbsent(review.getId(), review) == null && idFilter.mightContain(review.getId())) {
+				maybeStored.add(review.getId());
+			}
+		}
+		if (!maybeStored.isEmpty()) {
+			byId.keySet().removeAll(batchRepository.findExistingIds(maybeStored));
+		}
+		return new ArrayList<>(byId.values());
+	}
+
+	// Insert-if-absent still guards against rows stored since the check, e.g. by a
+	// concurrent import; only the rows it inserted are counted
+	private int insert(List<Review> reviews) {
+		List<Review> inserted = batchRepository.insertAllIfAbsent(reviews);
+		if (!inserted.isEmpty()) {
+			rollupRepository.add(inserted);
+			eventPublisher.publishEvent(new ReviewsSavedEvent(inserted));
+		}
+		return inserted.size();
+	}
+}
@@ -0,0 +1,145 @@
+package com.signify.alexareviews.service;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.model.RatingRollup;
+
+/**
+ * Reads an export written by {@link ReviewBinaryWriter}, one review at a time.
+ * Rating rollups, found in snapshots only, are collected along the way.
+ */
+public class ReviewBinaryReader implements Closeable {
+
+	private final DataInputStream in;
+	private final List<String> sources = new ArrayList<>();
+	private final List<String> products = new ArrayList<>();
+	private final List<RatingRollup> rollups = new ArrayList<>();
+	private long rows;
+	private boolean ended;
+
+	public ReviewBinaryReader(InputStream source) throws IOException {
+		this.in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(source, 64 * 1024), 64 * 1024));
+		byte[] magic = new byte[ReviewBinaryWriter.MAGIC.length];
+		in.readFully(magic);
+		if (!Arrays.equals(magic, ReviewBinaryWriter.MAGIC)) {
+			throw new IOException("Not a review export");
+		}
+		int version = in.readUnsignedByte();
+		if (version < ReviewBinaryWriter.EXPORT_VERSION || version > ReviewBinaryWriter.SNAPSHOT_VERSION) {
+			throw new IOException("Unsupported review export version " + version);
+		}
+	}
+
+	/**
+	 * @return the next review, or null once the trailer has been read
+	 * @throws EOFException if the export ends without its trailer
+	 */
+	public Review read() throws IOException {
+		while (!ended) {
+			int tag = in.readUnsignedByte();
+			switch (tag) {
+			case ReviewBinaryWriter.SOURCE -> sources.add(readString());
+			case ReviewBinaryWriter.PRODUCT -> products.add(readString());
+			case ReviewBinaryWriter.ROLLUP -> rollups.add(readRollup());
+			case ReviewBinaryWriter.ROW -> {
+				rows++;
+				return readRow();
+			}
+			case ReviewBinaryWriter.END -> {
+				ended = true;
+				long written = readVarLong();
+				if (written != rows) {
+					throw new IOException("Review export has " + rows + " rows but its trailer says " + written);
+				}
+			}
+			default -> throw new IOException("Unknown entry " + tag + " in review export");
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return the rating rollups read so far, all of them once {@link #read}
+	 *         returned null
+	 */
+	public List<RatingRollup> getRollups() {
+		return rollups;
+	}
+
+	public long getRows() {
+		return rows;
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	private Review readRow() throws IOException {
+		UUID id = new UUID(in.readLong(), in.readLong());
+		long zigzag = readVarLong();
+		LocalDate reviewedDate = LocalDate.ofEpochDay((zigzag >>> 1) ^ -(zigzag & 1));
+		int rating = in.readUnsignedByte();
+		String source = lookup(sources, readVarLong());
+		String product = lookup(products, readVarLong());
+		String author = readString();
+		long titleLength = readVarLong();
+		String title = titleLength == 0 ? null : readString(titleLength - 1);
+		String review = readString();
+		return new Review(id, review, author, source, rating, title, product, reviewedDate);
+	}
+
+	private RatingRollup readRollup() throws IOException {
+		String source = lookup(sources, readVarLong());
+		long zigzag = readVarLong();
+		int year = (int) ((zigzag >>> 1) ^ -(zigzag & 1));
+		int month = (int) readVarLong();
+		int rating = in.readUnsignedByte();
+		return new RatingRollup(source, year, month, rating, readVarLong());
+	}
+
+	private static String lookup(List<String> dictionary, long id) throws IOException {
+		if (id >= dictionary.size()) {
+			throw new IOException("Dictionary id " + id + " used before it was defined");
+		}
+		return dictionary.get((int) id);
+	}
+
+	private String readString() throws IOException {
+		return readString(readVarLong());
+	}
+
+	private String readString(long length) throws IOException {
+		if (length > Integer.MAX_VALUE) {
+			throw new IOException("String of " + length + " bytes in review export");
+		}
+		byte[] bytes = new byte[(int) length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private long readVarLong() throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed varint in review export");
+	}
+}
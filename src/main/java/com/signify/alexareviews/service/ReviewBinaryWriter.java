@@ -0,0 +1,161 @@
+package com.signify.alexareviews.service;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.model.RatingRollup;
+
+/**
+ * Writes reviews in the compact export format read by
+ * {@link ReviewBinaryReader}. The whole stream is gzip compressed:
+ *
+ * <pre>
+ * export  := magic "ARV" version entry* END rows
+ * entry   := SOURCE string | PRODUCT string | ROW row | ROLLUP rollup
+ * row     := id(16) reviewedDate rating(1) source product author title? review
+ * rollup  := source year month rating(1) count
+ * </pre>
+ *
+ * Counts, dates (epoch days, zigzag) and dictionary ids are varints and strings
+ * are a varint byte length followed by UTF-8; a missing title is written as
+ * length 0 and any other length is shifted up by one. The review source and
+ * product name are written once, as dictionary entries ahead of the first row
+ * using them, and referenced by their index afterwards, so the format streams
+ * without knowing the values up front. Exports are version 1; rating rollups
+ * are only written to snapshots, which are version 2 so that readers of
+ * exports never meet them.
+ */
+public class ReviewBinaryWriter implements Closeable {
+
+	public static final String MEDIA_TYPE = "application/vnd.alexareviews.export";
+	static final byte[] MAGIC = { 'A', 'R', 'V' };
+	public static final int EXPORT_VERSION = 1;
+	public static final int SNAPSHOT_VERSION = 2;
+	static final int END = 0;
+	static final int ROW = 1;
+	static final int SOURCE = 2;
+	static final int PRODUCT = 3;
+	static final int ROLLUP = 4;
+
+	private final GZIPOutputStream gzip;
+	private final DataOutputStream out;
+	private final Map<String, Integer> sources = new HashMap<>();
+	private final Map<String, Integer> products = new HashMap<>();
+	private final int version;
+	private long rows;
+	private boolean finished;
+
+	public ReviewBinaryWriter(OutputStream target) throws IOException {
+		this(target, EXPORT_VERSION);
+	}
+
+	public ReviewBinaryWriter(OutputStream target, int version) throws IOException {
+		if (version < EXPORT_VERSION || version > SNAPSHOT_VERSION) {
+			throw new IllegalArgumentException("Unsupported review export version " + version);
+		}
+		this.version = version;
+		this.gzip = new GZIPOutputStream(target, 64 * 1024);
+		this.out = new DataOutputStream(new BufferedOutputStream(gzip, 64 * 1024));
+		out.write(MAGIC);
+		out.writeByte(version);
+	}
+
+	public void write(Review review) throws IOException {
+		int source = dictionaryId(sources, SOURCE, review.getReviewSource());
+		int product = dictionaryId(products, PRODUCT, review.getProductName());
+		out.writeByte(ROW);
+		out.writeLong(review.getId().getMostSignificantBits());
+		out.writeLong(review.getId().getLeastSignificantBits());
+		writeVarLong(zigzag(review.getReviewedDate().toEpochDay()));
+		out.writeByte(review.getRating());
+		writeVarLong(source);
+		writeVarLong(product);
+		writeString(review.getAuthor());
+		if (review.getTitle() == null) {
+			writeVarLong(0);
+		} else {
+			byte[] title = review.getTitle().getBytes(StandardCharsets.UTF_8);
+			writeVarLong(title.length + 1L);
+			out.write(title);
+		}
+		writeString(review.getReview());
+		rows++;
+	}
+
+	public void writeRollup(RatingRollup rollup) throws IOException {
+		if (version < SNAPSHOT_VERSION) {
+			throw new IllegalStateException("Rating rollups are only written to snapshots");
+		}
+		int source = dictionaryId(sources, SOURCE, rollup.reviewSource());
+		out.writeByte(ROLLUP);
+		writeVarLong(source);
+		writeVarLong(zigzag(rollup.year()));
+		writeVarLong(rollup.month());
+		out.writeByte(rollup.rating());
+		writeVarLong(rollup.count());
+	}
+
+	public long getRows() {
+		return rows;
+	}
+
+	/**
+	 * Writes the trailer and the end of the gzip stream, leaving the target open.
+	 */
+	public void finish() throws IOException {
+		if (finished) {
+			return;
+		}
+		finished = true;
+		out.writeByte(END);
+		writeVarLong(rows);
+		out.flush();
+		gzip.finish();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			finish();
+		} finally {
+			out.close();
+		}
+	}
+
+	private int dictionaryId(Map<String, Integer> dictionary, int tag, String value) throws IOException {
+		Integer id = dictionary.get(value);
+		if (id == null) {
+			id = dictionary.size();
+			dictionary.put(value, id);
+			out.writeByte(tag);
+			writeString(value);
+		}
+		return id;
+	}
+
+	private void writeString(String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarLong(bytes.length);
+		out.write(bytes);
+	}
+
+	private void writeVarLong(long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.writeByte((int) (value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+}
@@ -0,0 +1,272 @@
+package com.signify.alexareviews.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.signify.alexareviews.entity.Review;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory columnar copy of the fields analytics aggregate over: rating,
+ * reviewed date as an epoch day (plus months since 1970-01), and store and
+ * product as dictionary codes. One row costs 15 bytes and scans touch only
+ * primitive arrays.
+ * <p>
+ * There is a single writer at a time. Readers take a {@link Snapshot}; rows
+ * are only ever appended past a snapshot's size, and growing a column or
+ * removing rows copies it, so a snapshot stays consistent without locking.
+ */
+@Component
+public class ReviewColumnStore {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReviewColumnStore.class);
+	private static final int INITIAL_CAPACITY = 1024;
+	static final int NO_CODE = -1;
+
+	/**
+	 * Immutable view of the first {@code size} rows.
+	 */
+	static final class Snapshot {
+		final int size;
+		final byte[] ratings;
+		final int[] epochDays;
+		final int[] epochMonths;
+		final short[] sources;
+		final int[] products;
+		final String[] sourceNames;
+		final String[] productNames;
+		final int minDay;
+		final int maxDay;
+
+		Snapshot(int size, byte[] ratings, int[] epochDays, int[] epochMonths, short[] sources, int[] products,
+				String[] sourceNames, String[] productNames, int minDay, int maxDay) {
+			this.size = size;
+			this.ratings = ratings;
+			this.epochDays = epochDays;
+			this.epochMonths = epochMonths;
+			this.sources = sources;
+			this.products = products;
+			this.sourceNames = sourceNames;
+			this.productNames = productNames;
+			this.minDay = minDay;
+			this.maxDay = maxDay;
+		}
+	}
+
+	private final JdbcTemplate jdbcTemplate;
+	private final int fetchSize;
+	private final Map<String, Integer> sourceCodes = new ConcurrentHashMap<>();
+	private final Map<String, Integer> productCodes = new ConcurrentHashMap<>();
+
+	// Guarded by this
+	private int size;
+	private byte[] ratings = new byte[INITIAL_CAPACITY];
+	private int[] epochDays = new int[INITIAL_CAPACITY];
+	private int[] epochMonths = new int[INITIAL_CAPACITY];
+	private short[] sources = new short[INITIAL_CAPACITY];
+	private int[] products = new int[INITIAL_CAPACITY];
+	private String[] sourceNames = new String[0];
+	private String[] productNames = new String[0];
+	private int minDay = Integer.MAX_VALUE;
+	private int maxDay = Integer.MIN_VALUE;
+
+	private volatile Snapshot snapshot = publishLocked();
+
+	public ReviewColumnStore(JdbcTemplate jdbcTemplate,
+			@Value("${project.query.stream-fetch-size:500}") int fetchSize) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.fetchSize = fetchSize;
+	}
+
+	/**
+	 * Loads every stored review. Runs before the web server accepts requests, so
+	 * no write can slip in between the load and the first appended event.
+	 */
+	@PostConstruct
+	public synchronized void load() {
+		long start = System.nanoTime();
+		JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+		streaming.setFetchSize(fetchSize);
+		streaming.query("SELECT rating, reviewed_date, review_source, product_name FROM reviews", rs -> {
+			addRow(rs.getInt(1), (int) rs.getDate(2).toLocalDate().toEpochDay(), rs.getString(3), rs.getString(4));
+		});
+		snapshot = publishLocked();
+		logger.info("Loaded {} reviews into the column store in {} ms", size, (System.nanoTime() - start) / 1_000_000);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onReviewsSaved(ReviewsSavedEvent event) {
+		if (event.replaced().isEmpty()) {
+			append(event.reviews());
+		} else {
+			replace(event.replaced(), event.reviews());
+		}
+	}
+
+	public synchronized void append(Iterable<Review> reviews) {
+		for (Review review : reviews) {
+			addRow(review.getRating(), (int) review.getReviewedDate().toEpochDay(), review.getReviewSource(),
+					review.getProductName());
+		}
+		snapshot = publishLocked();
+	}
+
+	/**
+	 * Removes a row holding the values of each {@code previous} review, then
+	 * appends {@code reviews}. Rows carry no id, but any row with the same values
+	 * counts the same. The columns are copied first, as when retiring, so
+	 * snapshots taken earlier are left intact.
+	 */
+	public synchronized void replace(Iterable<Review> previous, Iterable<Review> reviews) {
+		ratings = Arrays.copyOf(ratings, ratings.length);
+		epochDays = Arrays.copyOf(epochDays, epochDays.length);
+		epochMonths = Arrays.copyOf(epochMonths, epochMonths.length);
+		sources = Arrays.copyOf(sources, sources.length);
+		products = Arrays.copyOf(products, products.length);
+		for (Review review : previous) {
+			removeRow(review.getRating(), (int) review.getReviewedDate().toEpochDay(),
+					sourceCode(review.getReviewSource()), productCode(review.getProductName()));
+		}
+		minDay = Integer.MAX_VALUE;
+		maxDay = Integer.MIN_VALUE;
+		for (int row = 0; row < size; row++) {
+			minDay = Math.min(minDay, epochDays[row]);
+			maxDay = Math.max(maxDay, epochDays[row]);
+		}
+		append(reviews);
+	}
+
+	// Moves the last row into the removed one's place
+	private void removeRow(int rating, int epochDay, int source, int product) {
+		for (int row = size - 1; row >= 0; row--) {
+			if (ratings[row] == rating && epochDays[row] == epochDay && sources[row] == source
+					&& products[row] == product) {
+				int last = --size;
+				ratings[row] = ratings[last];
+				epochDays[row] = epochDays[last];
+				epochMonths[row] = epochMonths[last];
+				sources[row] = sources[last];
+				products[row] = products[last];
+				return;
+			}
+		}
+		logger.warn("No column store row matches a replaced review dated {}", LocalDate.ofEpochDay(epochDay));
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onReviewsRetired(ReviewsRetiredEvent event) {
+		retireBefore(event.before());
+	}
+
+	/**
+	 * Removes the rows dated before {@code date}. The kept rows are copied into
+	 * new columns, so snapshots taken earlier are left intact.
+	 */
+	public synchronized void retireBefore(LocalDate date) {
+		int beforeDay = (int) date.toEpochDay();
+		int capacity = Math.max(INITIAL_CAPACITY, ratings.length);
+		byte[] keptRatings = new byte[capacity];
+		int[] keptDays = new int[capacity];
+		int[] keptMonths = new int[capacity];
+		short[] keptSources = new short[capacity];
+		int[] keptProducts = new int[capacity];
+		int kept = 0;
+		minDay = Integer.MAX_VALUE;
+		maxDay = Integer.MIN_VALUE;
+		for (int row = 0; row < size; row++) {
+			int day = epochDays[row];
+			if (day < beforeDay) {
+				continue;
+			}
+			keptRatings[kept] = ratings[row];
+			keptDays[kept] = day;
+			keptMonths[kept] = epochMonths[row];
+			keptSources[kept] = sources[row];
+			keptProducts[kept] = products[row];
+			kept++;
+			minDay = Math.min(minDay, day);
+			maxDay = Math.max(maxDay, day);
+		}
+		logger.info("Retired {} rows dated before {} from the column store", size - kept, date);
+		ratings = keptRatings;
+		epochDays = keptDays;
+		epochMonths = keptMonths;
+		sources = keptSources;
+		products = keptProducts;
+		size = kept;
+		snapshot = publishLocked();
+	}
+
+	Snapshot snapshot() {
+		return snapshot;
+	}
+
+	int sourceCode(String source) {
+		return sourceCodes.getOrDefault(source, NO_CODE);
+	}
+
+	int productCode(String product) {
+		return productCodes.getOrDefault(product, NO_CODE);
+	}
+
+	private void addRow(int rating, int epochDay, String source, String product) {
+		if (size == ratings.length) {
+			int capacity = size + (size >> 1);
+			ratings = Arrays.copyOf(ratings, capacity);
+			epochDays = Arrays.copyOf(epochDays, capacity);
+			epochMonths = Arrays.copyOf(epochMonths, capacity);
+			sources = Arrays.copyOf(sources, capacity);
+			products = Arrays.copyOf(products, capacity);
+		}
+		ratings[size] = (byte) rating;
+		epochDays[size] = epochDay;
+		epochMonths[size] = epochMonth(epochDay);
+		sources[size] = (short) code(sourceCodes, source, true);
+		products[size] = code(productCodes, product, false);
+		size++;
+		minDay = Math.min(minDay, epochDay);
+		maxDay = Math.max(maxDay, epochDay);
+	}
+
+	private int code(Map<String, Integer> codes, String value, boolean source) {
+		Integer code = codes.get(value);
+		if (code != null) {
+			return code;
+		}
+		if (source) {
+			if (sourceNames.length == Short.MAX_VALUE) {
+				throw new IllegalStateException("Too many distinct review sources");
+			}
+			sourceNames = Arrays.copyOf(sourceNames, sourceNames.length + 1);
+			sourceNames[sourceNames.length - 1] = value;
+			code = sourceNames.length - 1;
+		} else {
+			productNames = Arrays.copyOf(productNames, productNames.length + 1);
+			productNames[productNames.length - 1] = value;
+			code = productNames.length - 1;
+		}
+		// Published after the name so a reader that finds the code can resolve it
+		codes.put(value, code);
+		return code;
+	}
+
+	private Snapshot publishLocked() {
+		return new Snapshot(size, ratings, epochDays, epochMonths, sources, products, sourceNames, productNames,
+				minDay, maxDay);
+	}
+
+	static int epochMonth(int epochDay) {
+		LocalDate date = LocalDate.ofEpochDay(epochDay);
+		return (date.getYear() - 1970) * 12 + date.getMonthValue() - 1;
+	}
+}
@@ -0,0 +1,74 @@
+package com.signify.alexareviews.service;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.signify.alexareviews.model.ReviewFilter;
+
+/**
+ * Command line export: started with {@code --project.export.out=<file>}, the
+ * application writes the matching reviews to that file in the binary export
+ * format and exits instead of serving requests. The application then starts
+ * without a web server and creates beans lazily (see
+ * {@code AlexareviewsApplication}), and exits with {@link #getExitCode()}. The
+ * file is written next to its final name and moved into place once complete.
+ */
+@Component
+@ConditionalOnProperty(ReviewExportRunner.OUT_PROPERTY)
+public class ReviewExportRunner implements ApplicationRunner, ExitCodeGenerator {
+
+	public static final String OUT_PROPERTY = "project.export.out";
+
+	private static final Logger logger = LoggerFactory.getLogger(ReviewExportRunner.class);
+	private final ReviewService reviewService;
+	private final Path out;
+	private final ReviewFilter filter;
+	private volatile int exitCode = 1;
+
+	public ReviewExportRunner(ReviewService reviewService, @Value("${project.export.out}") String out,
+			@Value("${project.export.start-date:}") String startDate,
+			@Value("${project.export.end-date:}") String endDate,
+			@Value("${project.export.store-type:}") String storeType,
+			@Value("${project.export.rating:}") String rating,
+			@Value("${project.export.product-name:}") String productName) {
+		this.reviewService = reviewService;
+		this.out = Paths.get(out);
+		this.filter = new ReviewFilter(startDate.isEmpty() ? null : LocalDate.parse(startDate),
+				endDate.isEmpty() ? null : LocalDate.parse(endDate), storeType.isEmpty() ? null : storeType,
+				rating.isEmpty() ? null : Integer.valueOf(rating), productName.isEmpty() ? null : productName);
+	}
+
+	@Override
+	public void run(ApplicationArguments args) throws Exception {
+		Path partial = out.resolveSibling(out.getFileName() + ".part");
+		long rows;
+		try (OutputStream stream = Files.newOutputStream(partial)) {
+			rows = reviewService.exportReviews(filter, stream);
+		}
+		Files.move(partial, out, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		logger.info("Exported {} reviews to {} ({} bytes)", rows, out, Files.size(out));
+		exitCode = 0;
+	}
+
+	/**
+	 * 0 once the file is in place. A failed export fails the application start
+	 * instead.
+	 */
+	@Override
+	public int getExitCode() {
+		return exitCode;
+	}
+}
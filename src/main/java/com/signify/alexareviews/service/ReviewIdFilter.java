@@ -0,0 +1,121 @@
+package com.signify.alexareviews.service;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.entity.ReviewIds;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Bloom filter over the ids of stored reviews, so imports can tell most new
+ * rows apart from duplicates without asking the database. A negative answer is
+ * exact; a positive one may be wrong with the configured probability while
+ * fewer than {@code expected-rows} ids have been added, and has to be confirmed
+ * against the table. The filter is loaded once and then follows
+ * {@link ReviewsSavedEvent}s; ids are never removed.
+ * <p>
+ * Ids lead with a timestamp, so both halves of the UUID are mixed into the two
+ * base hashes of double hashing.
+ */
+@Component
+public class ReviewIdFilter {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReviewIdFilter.class);
+	private final JdbcTemplate jdbcTemplate;
+	private final int fetchSize;
+	private final long expectedRows;
+	private final long bitCount;
+	private final int hashCount;
+	private final AtomicLongArray bits;
+	private final AtomicLong added = new AtomicLong();
+
+	public ReviewIdFilter(JdbcTemplate jdbcTemplate,
+			@Value("${project.query.stream-fetch-size:500}") int fetchSize,
+			@Value("${project.import.dedup.expected-rows:10000000}") long expectedRows,
+			@Value("${project.import.dedup.false-positive-rate:0.01}") double falsePositiveRate) {
+		if (expectedRows < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+			throw new IllegalArgumentException("Expected rows must be positive and the false positive rate in (0, 1)");
+		}
+		this.jdbcTemplate = jdbcTemplate;
+		this.fetchSize = fetchSize;
+		this.expectedRows = expectedRows;
+		long optimalBits = (long) Math.ceil(-expectedRows * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		int words = (int) Math.min(Integer.MAX_VALUE - 8, (optimalBits + 63) / 64);
+		this.bitCount = words * 64L;
+		this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedRows * Math.log(2)));
+		this.bits = new AtomicLongArray(words);
+	}
+
+	@PostConstruct
+	public void load() {
+		long start = System.nanoTime();
+		JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+		streaming.setFetchSize(fetchSize);
+		streaming.query("SELECT id FROM reviews", rs -> {
+			add(ReviewIds.fromBytes(rs.getBytes(1)));
+		});
+		logger.info("Loaded {} review ids into a {} KB filter in {} ms", added.get(), bitCount / 8 / 1024,
+				(System.nanoTime() - start) / 1_000_000);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onReviewsSaved(ReviewsSavedEvent event) {
+		for (Review review : event.reviews()) {
+			add(review.getId());
+		}
+	}
+
+	public void add(UUID id) {
+		long h1 = mix(id.getMostSignificantBits() ^ mix(id.getLeastSignificantBits()));
+		long h2 = mix(id.getLeastSignificantBits() + id.getMostSignificantBits());
+		for (int i = 0; i < hashCount; i++) {
+			long bit = Math.floorMod(h1 + i * h2, bitCount);
+			int word = (int) (bit >>> 6);
+			long mask = 1L << bit;
+			long current = bits.get(word);
+			while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+				current = bits.get(word);
+			}
+		}
+		if (added.incrementAndGet() == expectedRows + 1) {
+			logger.warn("More than {} review ids in the filter, duplicate checks will hit the database more often;"
+					+ " raise project.import.dedup.expected-rows", expectedRows);
+		}
+	}
+
+	/**
+	 * @return false if the id has certainly not been added, true if it probably
+	 *         has
+	 */
+	public boolean mightContain(UUID id) {
+		long h1 = mix(id.getMostSignificantBits() ^ mix(id.getLeastSignificantBits()));
+		long h2 = mix(id.getLeastSignificantBits() + id.getMostSignificantBits());
+		for (int i = 0; i < hashCount; i++) {
+			long bit = Math.floorMod(h1 + i * h2, bitCount);
+			if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// MurmurHash3's 64 bit finalizer
+	private static long mix(long value) {
+		value ^= value >>> 33;
+		value *= 0xff51afd7ed558ccdL;
+		value ^= value >>> 33;
+		value *= 0xc4ceb9fe1a85ec53L;
+		value ^= value >>> 33;
+		return value;
+	}
+}
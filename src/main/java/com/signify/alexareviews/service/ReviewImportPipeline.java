@@ -0,0 +1,291 @@
+package com.signify.alexareviews.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.model.ImportProgress;
+import com.signify.alexareviews.model.StageStats;
+
+/**
+ * Three stage import: the calling thread reads chunks of raw records, a pool of
+ * parser threads decodes them and a single writer thread persists them in
+ * batches. The stages are joined by bounded queues, so a slow writer throttles
+ * the reader instead of letting parsed rows pile up on the heap.
+ */
+public class ReviewImportPipeline {
+
+	/**
+	 * Supplies the raw records of an import, e.g. lines of a file.
+	 */
+	@FunctionalInterface
+	public interface RecordSource<R> {
+
+		/**
+		 * @return up to {@code max} records, or an empty list once the input is
+		 *         exhausted
+		 */
+		List<R> read(int max) throws IOException;
+	}
+
+	/**
+	 * Turns a raw record into a review, or returns null if it should be skipped.
+	 */
+	@FunctionalInterface
+	public interface RecordDecoder<R> {
+		Review decode(R record);
+	}
+
+	private static final Logger logger = LoggerFactory.getLogger(ReviewImportPipeline.class);
+	private static final int RECORDS_PER_CHUNK = 256;
+	private static final long POLL_MILLIS = 100;
+	private static final List<?> END = new ArrayList<>(0);
+	private static final AtomicInteger pipelineCount = new AtomicInteger();
+
+	private final ReviewBatchWriter batchWriter;
+	private final int batchSize;
+	private final int parserThreads;
+	private final int queueCapacity;
+
+	public ReviewImportPipeline(ReviewBatchWriter batchWriter, int batchSize, int parserThreads, int queueCapacity) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Batch size must be positive");
+		}
+		this.batchWriter = batchWriter;
+		this.batchSize = batchSize;
+		this.parserThreads = parserThreads > 0 ? parserThreads : Runtime.getRuntime().availableProcessors();
+		this.queueCapacity = Math.max(1, queueCapacity);
+	}
+
+	public <R> ImportProgress run(RecordSource<R> source, RecordDecoder<R> decoder) throws IOException {
+		return run(source, decoder, new ImportProgress(), () -> false);
+	}
+
+	/**
+	 * Runs the import, publishing counts to {@code progress} as it goes. Once
+	 * {@code cancelled} returns true the stages stop and a
+	 * {@link CancellationException} is thrown; batches already written stay
+	 * committed.
+	 */
+	public <R> ImportProgress run(RecordSource<R> source, RecordDecoder<R> decoder, ImportProgress progress,
+			BooleanSupplier cancelled) throws IOException {
+		progress.start();
+		StageStats readStage = progress.addStage("reader", 1);
+		StageStats parseStage = progress.addStage("parser", parserThreads);
+		StageStats writeStage = progress.addStage("writer", 1);
+
+		BlockingQueue<List<R>> records = new ArrayBlockingQueue<>(queueCapacity);
+		BlockingQueue<List<Review>> reviews = new ArrayBlockingQueue<>(queueCapacity);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		ExecutorService workers = Executors.newFixedThreadPool(parserThreads + 1, threadFactory());
+		try {
+			for (int i = 0; i < parserThreads; i++) {
+				workers.submit(() -> parse(records, reviews, decoder, progress, parseStage, failure));
+			}
+			Future<?> writer = workers.submit(() -> write(reviews, progress, writeStage, failure));
+			read(source, records, readStage, cancelled, failure);
+			writer.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			failure.compareAndSet(null, e);
+		} catch (ExecutionException e) {
+			failure.compareAndSet(null, e.getCause());
+		} finally {
+			workers.shutdownNow();
+		}
+
+		progress.finish();
+		Throwable error = failure.get();
+		if (error instanceof IOException ioException) {
+			throw ioException;
+		} else if (error instanceof RuntimeException runtimeException) {
+			throw runtimeException;
+		} else if (error != null) {
+			throw new IllegalStateException("Import pipeline failed", error);
+		}
+		return progress;
+	}
+
+	private <R> void read(RecordSource<R> source, BlockingQueue<List<R>> records, StageStats stage,
+			BooleanSupplier cancelled, AtomicReference<Throwable> failure) throws InterruptedException {
+		try {
+			while (true) {
+				if (cancelled.getAsBoolean()) {
+					failure.compareAndSet(null, new CancellationException("Import cancelled"));
+					return;
+				}
+				long start = System.nanoTime();
+				List<R> chunk = source.read(RECORDS_PER_CHUNK);
+				stage.addBusyNanos(System.nanoTime() - start);
+				if (chunk.isEmpty()) {
+					break;
+				}
+				stage.addRows(chunk.size());
+				if (!put(records, chunk, stage, failure)) {
+					return;
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			failure.compareAndSet(null, e);
+			return;
+		}
+		for (int i = 0; i < parserThreads; i++) {
+			put(records, end(), stage, failure);
+		}
+	}
+
+	private <R> void parse(BlockingQueue<List<R>> records, BlockingQueue<List<Review>> reviews,
+			RecordDecoder<R> decoder, ImportProgress progress, StageStats stage, AtomicReference<Throwable> failure) {
+		try {
+			while (true) {
+				List<R> chunk = take(records, stage, failure);
+				if (chunk == null) {
+					return;
+				}
+				if (chunk == END) {
+					put(reviews, end(), stage, failure);
+					return;
+				}
+
+				long start = System.nanoTime();
+				List<Review> parsed = new ArrayList<>(chunk.size());
+				for (R record : chunk) {
+					Review review = decodeQuietly(decoder, record);
+					if (review != null) {
+						parsed.add(review);
+					}
+				}
+				stage.addBusyNanos(System.nanoTime() - start);
+				stage.addRows(chunk.size());
+				progress.addParsed(parsed.size());
+				progress.addSkipped(chunk.size() - parsed.size());
+
+				if (!parsed.isEmpty() && !put(reviews, parsed, stage, failure)) {
+					return;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			failure.compareAndSet(null, e);
+		} catch (RuntimeException e) {
+			failure.compareAndSet(null, e);
+		}
+	}
+
+	private void write(BlockingQueue<List<Review>> reviews, ImportProgress progress, StageStats stage,
+			AtomicReference<Throwable> failure) {
+		try {
+			int runningParsers = parserThreads;
+			List<Review> batch = new ArrayList<>(batchSize);
+			while (runningParsers > 0) {
+				List<Review> parsed = take(reviews, stage, failure);
+				if (parsed == null) {
+					return;
+				}
+				if (parsed == END) {
+					runningParsers--;
+					continue;
+				}
+				for (Review review : parsed) {
+					batch.add(review);
+					if (batch.size() == batchSize) {
+						flush(batch, progress, stage);
+						batch = new ArrayList<>(batchSize);
+					}
+				}
+			}
+			flush(batch, progress, stage);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			failure.compareAndSet(null, e);
+		} catch (RuntimeException e) {
+			failure.compareAndSet(null, e);
+		}
+	}
+
+	private void flush(List<Review> batch, ImportProgress progress, StageStats stage) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		long start = System.nanoTime();
+		int saved = batchWriter.write(batch);
+		stage.addBusyNanos(System.nanoTime() - start);
+		stage.addRows(batch.size());
+		progress.addSaved(saved);
+		progress.addSkipped(batch.size() - saved);
+		logger.debug("Flushed batch of {} reviews, {} saved so far", batch.size(), progress.getRowsSaved());
+	}
+
+	private static <R> Review decodeQuietly(RecordDecoder<R> decoder, R record) {
+		try {
+			return decoder.decode(record);
+		} catch (RuntimeException e) {
+			logger.warn("Skipping record that could not be decoded", e);
+			return null;
+		}
+	}
+
+	// Blocks while the queue is full, giving up only if another stage failed
+	private static <T> boolean put(BlockingQueue<T> queue, T item, StageStats stage,
+			AtomicReference<Throwable> failure) throws InterruptedException {
+		long start = System.nanoTime();
+		try {
+			while (failure.get() == null) {
+				if (queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+					return true;
+				}
+			}
+			return false;
+		} finally {
+			stage.addWaitNanos(System.nanoTime() - start);
+		}
+	}
+
+	private static <T> T take(BlockingQueue<T> queue, StageStats stage, AtomicReference<Throwable> failure)
+			throws InterruptedException {
+		long start = System.nanoTime();
+		try {
+			while (failure.get() == null) {
+				T item = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+				if (item != null) {
+					return item;
+				}
+			}
+			return null;
+		} finally {
+			stage.addWaitNanos(System.nanoTime() - start);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> List<T> end() {
+		return (List<T>) END;
+	}
+
+	private static ThreadFactory threadFactory() {
+		int pipeline = pipelineCount.incrementAndGet();
+		AtomicInteger threadCount = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, "review-import-" + pipeline + "-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+}
@@ -0,0 +1,148 @@
+package com.signify.alexareviews.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.entity.ReviewIds;
+import com.signify.alexareviews.model.ImportProgress;
+
+@Service
+public class ReviewImportService {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReviewImportService.class);
+	private final ReviewJsonDecoder decoder;
+	private final ReviewBatchWriter batchWriter;
+	private final int batchSize;
+	private final int parserThreads;
+	private final int queueCapacity;
+	private final ReviewMetrics metrics;
+	// Each streamed import starts its own pipeline threads, so only a few may run at once
+	private final Semaphore bulkImports;
+	private final ThreadLocal<byte[]> scratch = ThreadLocal.withInitial(() -> new byte[8192]);
+
+	public ReviewImportService(ReviewJsonDecoder decoder, ReviewBatchWriter batchWriter,
+			@Value("${project.import.batch-size:1000}") int batchSize,
+			@Value("${project.import.parser-threads:0}") int parserThreads,
+			@Value("${project.import.queue-capacity:8}") int queueCapacity,
+			@Value("${project.import.max-concurrent-bulk:1}") int maxConcurrentBulk, ReviewMetrics metrics) {
+		this.decoder = decoder;
+		this.batchWriter = batchWriter;
+		this.batchSize = batchSize;
+		this.parserThreads = parserThreads;
+		this.queueCapacity = queueCapacity;
+		this.metrics = metrics;
+		this.bulkImports = new Semaphore(maxConcurrentBulk);
+	}
+
+	public ImportProgress importReviewsFromFile(String filePath) throws IOException {
+		return importReviewsFromFile(filePath, batchSize);
+	}
+
+	public ImportProgress importReviewsFromFile(String filePath, int batchSize) throws IOException {
+		return importReviewsFromFile(filePath, batchSize, new ImportProgress(), () -> false);
+	}
+
+	public ImportProgress importReviewsFromFile(String filePath, int batchSize, ImportProgress progress,
+			BooleanSupplier cancelled) throws IOException {
+		ReviewImportPipeline pipeline = new ReviewImportPipeline(batchWriter, batchSize, parserThreads,
+				queueCapacity);
+		logger.info("Starting batched import of reviews from file: {} (batch size {})", filePath, batchSize);
+
+		try (MappedRecordSource source = new MappedRecordSource(Paths.get(filePath))) {
+			pipeline.run(source, this::parse, progress, cancelled);
+		} catch (IOException ex) {
+			logger.error("Failed to read file: {}", filePath, ex);
+			throw ex;
+		}
+
+		logger.info("Completed import of reviews from file: {} - {}", filePath, progress);
+		return progress;
+	}
+
+	/**
+	 * Imports newline delimited reviews from a stream as it is read, e.g. a bulk
+	 * upload, through the same pipeline as file imports.
+	 *
+	 * @throws RejectedExecutionException if
+	 *                                    {@code project.import.max-concurrent-bulk}
+	 *                                    streamed imports are already running
+	 */
+	public ImportProgress importReviews(InputStream in) throws IOException {
+		if (!bulkImports.tryAcquire()) {
+			throw new RejectedExecutionException("Too many bulk imports running");
+		}
+		try {
+			ReviewImportPipeline pipeline = new ReviewImportPipeline(batchWriter, batchSize, parserThreads,
+					queueCapacity);
+			logger.info("Starting streamed import of reviews (batch size {})", batchSize);
+			ImportProgress progress = pipeline.run(new StreamRecordSource(in), this::parse);
+			logger.info("Completed streamed import of reviews - {}", progress);
+			return progress;
+		} finally {
+			bulkImports.release();
+		}
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	// Heap records are decoded in place; mapped records are first copied into a
+	// reused per-thread array. A record is only turned into a String to log a failure
+	private Review parse(ByteBuffer record) {
+		int length = record.remaining();
+		byte[] bytes;
+		int offset;
+		if (record.hasArray()) {
+			bytes = record.array();
+			offset = record.arrayOffset() + record.position();
+		} else {
+			bytes = scratch.get();
+			if (bytes.length < length) {
+				bytes = new byte[Math.max(length, bytes.length * 2)];
+				scratch.set(bytes);
+			}
+			record.get(record.position(), bytes, 0, length);
+			offset = 0;
+		}
+		try {
+			Review review = decoder.decode(bytes, offset, length, new Review());
+			if (!isComplete(review)) {
+				metrics.rowInvalid();
+				logger.warn("Skipping review with missing or invalid fields: {}", asString(bytes, offset, length));
+				return null;
+			}
+			review.setId(ReviewIds.contentId(review));
+			metrics.rowParsed();
+			return review;
+		} catch (IOException e) {
+			metrics.rowMalformed();
+			logger.warn("Skipping invalid JSON line: {}", asString(bytes, offset, length), e);
+			return null;
+		}
+	}
+
+	private static String asString(byte[] bytes, int offset, int length) {
+		return new String(bytes, offset, length, StandardCharsets.UTF_8);
+	}
+
+	// Mirrors the NOT NULL and CHECK constraints on the reviews table so a bad row
+	// is dropped here instead of failing the whole batch
+	static boolean isComplete(Review review) {
+		return review.getReview() != null && review.getAuthor() != null && review.getReviewSource() != null
+				&& review.getProductName() != null && review.getReviewedDate() != null && review.getRating() >= 1
+				&& review.getRating() <= 5;
+	}
+}
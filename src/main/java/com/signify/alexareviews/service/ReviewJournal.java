@@ -0,0 +1,239 @@
+package com.signify.alexareviews.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.signify.alexareviews.entity.Review;
+
+/**
+ * Append-only journal of buffered reviews, one JSON document per line, split
+ * into numbered segment files. Appends go straight to the file channel, so an
+ * entry survives the process dying once {@link #append} returns; with
+ * {@code fsync} it also survives the machine, and appenders arriving while a
+ * force is under way share the next one instead of each paying for their own.
+ * <p>
+ * A segment is deleted, or truncated if it is still being written, once every
+ * entry in it is committed to the database. Segments found on startup hold
+ * entries that may not have been, and are handed back by {@link #replay}.
+ * Entries the database refuses are moved to {@code rejected.ndjson} next to
+ * the segments, so they are neither lost nor replayed forever.
+ */
+class ReviewJournal implements Closeable {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReviewJournal.class);
+	private static final String PREFIX = "reviews-";
+	private static final String SUFFIX = ".journal";
+	private static final String REJECTED = "rejected.ndjson";
+
+	static final class Segment {
+		final Path path;
+		final FileChannel channel;
+		// Guarded by the journal
+		long size;
+		int pending;
+		volatile long synced;
+
+		Segment(Path path) throws IOException {
+			this.path = path;
+			this.channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+		}
+	}
+
+	private final Path directory;
+	private final long segmentBytes;
+	private final boolean fsync;
+	private final ObjectMapper objectMapper;
+	private final List<Path> replayable;
+	private final Object syncLock = new Object();
+
+	// Guarded by this
+	private final List<Segment> open = new ArrayList<>();
+	private Segment current;
+	private long nextSegment;
+
+	ReviewJournal(Path directory, long segmentBytes, boolean fsync, ObjectMapper objectMapper) throws IOException {
+		this.directory = directory;
+		this.segmentBytes = segmentBytes;
+		this.fsync = fsync;
+		this.objectMapper = objectMapper;
+		Files.createDirectories(directory);
+		try (Stream<Path> files = Files.list(directory)) {
+			this.replayable = files.filter(ReviewJournal::isSegment).sorted().toList();
+		}
+		this.nextSegment = replayable.isEmpty() ? 1 : number(replayable.get(replayable.size() - 1)) + 1;
+		this.current = openSegment();
+	}
+
+	/**
+	 * Writes the review to the journal.
+	 *
+	 * @return the segment holding the entry, to be passed to {@link #committed}
+	 */
+	Segment append(Review review) throws IOException {
+		byte[] json = objectMapper.writeValueAsBytes(review);
+		ByteBuffer line = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+		Segment segment;
+		long end;
+		synchronized (this) {
+			if (current.size > 0 && current.size + line.remaining() > segmentBytes) {
+				roll();
+			}
+			segment = current;
+			while (line.hasRemaining()) {
+				segment.channel.write(line);
+			}
+			segment.size += line.capacity();
+			segment.pending++;
+			end = segment.size;
+		}
+		if (fsync) {
+			sync(segment, end);
+		}
+		return segment;
+	}
+
+	/**
+	 * Records that {@code count} entries of the segment are stored in the
+	 * database.
+	 */
+	synchronized void committed(Segment segment, int count) throws IOException {
+		segment.pending -= count;
+		if (segment.pending > 0) {
+			return;
+		}
+		if (segment == current) {
+			segment.channel.truncate(0);
+			segment.size = 0;
+			segment.synced = 0;
+		} else {
+			segment.channel.close();
+			open.remove(segment);
+			Files.deleteIfExists(segment.path);
+		}
+	}
+
+	/**
+	 * Appends reviews the database refused to the rejected file and forces it to
+	 * disk, before their entries are released with {@link #committed}.
+	 */
+	synchronized void reject(List<Review> reviews) throws IOException {
+		try (FileChannel channel = FileChannel.open(directory.resolve(REJECTED), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+			for (Review review : reviews) {
+				byte[] json = objectMapper.writeValueAsBytes(review);
+				ByteBuffer line = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+				while (line.hasRemaining()) {
+					channel.write(line);
+				}
+			}
+			channel.force(false);
+		}
+	}
+
+	/**
+	 * Reads the entries of the segments left over from the previous run. A line
+	 * that does not parse, e.g. one cut short by a crash, is skipped.
+	 */
+	List<Review> replay() throws IOException {
+		List<Review> reviews = new ArrayList<>();
+		for (Path path : replayable) {
+			try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					if (line.isBlank()) {
+						continue;
+					}
+					try {
+						reviews.add(objectMapper.readValue(line, Review.class));
+					} catch (JsonProcessingException e) {
+						logger.warn("Skipping unreadable journal entry in {}: {}", path.getFileName(), e.getOriginalMessage());
+					}
+				}
+			}
+		}
+		return reviews;
+	}
+
+	/**
+	 * Deletes the segments returned by {@link #replay} once their entries are
+	 * stored.
+	 */
+	void deleteReplayed() throws IOException {
+		for (Path path : replayable) {
+			Files.deleteIfExists(path);
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		for (Segment segment : open) {
+			segment.channel.close();
+			if (segment.pending == 0) {
+				Files.deleteIfExists(segment.path);
+			}
+		}
+		open.clear();
+	}
+
+	// The entries of a full segment are synced before the next one is written, so
+	// a sync only ever has to force the segment it appended to
+	private void roll() throws IOException {
+		if (fsync) {
+			current.channel.force(false);
+			current.synced = current.size;
+		}
+		if (current.pending == 0) {
+			current.channel.close();
+			open.remove(current);
+			Files.deleteIfExists(current.path);
+		}
+		current = openSegment();
+	}
+
+	private Segment openSegment() throws IOException {
+		Segment segment = new Segment(directory.resolve(String.format("%s%08d%s", PREFIX, nextSegment++, SUFFIX)));
+		open.add(segment);
+		return segment;
+	}
+
+	// Whoever forces the channel covers every append before it; later arrivals
+	// find their entry already synced and return without forcing again
+	private void sync(Segment segment, long position) throws IOException {
+		synchronized (syncLock) {
+			if (segment.synced >= position) {
+				return;
+			}
+			long written;
+			synchronized (this) {
+				written = segment.size;
+			}
+			segment.channel.force(false);
+			segment.synced = Math.max(segment.synced, written);
+		}
+	}
+
+	private static boolean isSegment(Path path) {
+		String name = path.getFileName().toString();
+		return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+	}
+
+	private static long number(Path path) {
+		String name = path.getFileName().toString();
+		return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+	}
+}
@@ -0,0 +1,141 @@
+package com.signify.alexareviews.service;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.signify.alexareviews.entity.Review;
+
+/**
+ * Token level decoder for the review dump format. It reads straight off a
+ * {@link JsonParser} into a caller supplied {@link Review}, so there is no
+ * reflective databind pass and the target can be reused across records. Dates
+ * are read from the parser's character buffer: the {@code yyyy-MM-dd} prefix of
+ * {@code reviewed_date} is the UTC date for the {@code ...Z} timestamps in the
+ * dumps, so no intermediate String or Instant is built.
+ */
+@Component
+public class ReviewJsonDecoder {
+
+	private final JsonFactory jsonFactory;
+
+	public ReviewJsonDecoder(ObjectMapper objectMapper) {
+		this.jsonFactory = objectMapper.getFactory();
+	}
+
+	public Review decode(byte[] bytes, int offset, int length, Review target) throws IOException {
+		try (JsonParser parser = jsonFactory.createParser(bytes, offset, length)) {
+			return decode(parser, target);
+		}
+	}
+
+	/**
+	 * Reads the next object from the parser into {@code target}, clearing any
+	 * values left from a previous record. Unknown fields are skipped.
+	 */
+	public Review decode(JsonParser parser, Review target) throws IOException {
+		JsonToken token = parser.currentToken() == null || parser.currentToken() == JsonToken.END_OBJECT
+				? parser.nextToken()
+				: parser.currentToken();
+		if (token != JsonToken.START_OBJECT) {
+			throw new JsonParseException(parser, "Expected a review object but found " + token);
+		}
+
+		target.setId(null);
+		target.setReview(null);
+		target.setAuthor(null);
+		target.setReviewSource(null);
+		target.setRating(0);
+		target.setTitle(null);
+		target.setProductName(null);
+		target.setReviewedDate(null);
+
+		String field;
+		while ((field = parser.nextFieldName()) != null) {
+			JsonToken value = parser.nextToken();
+			switch (field) {
+			case "review" -> target.setReview(text(parser, value));
+			case "author" -> target.setAuthor(text(parser, value));
+			case "review_source" -> target.setReviewSource(text(parser, value));
+			case "rating" -> target.setRating(rating(parser, value));
+			case "title" -> target.setTitle(text(parser, value));
+			case "product_name" -> target.setProductName(text(parser, value));
+			case "reviewed_date" -> target.setReviewedDate(date(parser, value));
+			default -> parser.skipChildren();
+			}
+		}
+		if (parser.currentToken() != JsonToken.END_OBJECT) {
+			throw new JsonParseException(parser, "Unterminated review object");
+		}
+		return target;
+	}
+
+	private static String text(JsonParser parser, JsonToken value) throws IOException {
+		if (value == JsonToken.VALUE_NULL) {
+			return null;
+		}
+		if (!value.isScalarValue()) {
+			throw new JsonParseException(parser, "Expected a string for " + parser.currentName());
+		}
+		return parser.getText();
+	}
+
+	private static int rating(JsonParser parser, JsonToken value) throws IOException {
+		if (value == JsonToken.VALUE_NUMBER_INT) {
+			return parser.getIntValue();
+		}
+		if (value == JsonToken.VALUE_NULL) {
+			return 0;
+		}
+		if (value == JsonToken.VALUE_STRING) {
+			char[] chars = parser.getTextCharacters();
+			int offset = parser.getTextOffset();
+			int length = parser.getTextLength();
+			if (length > 0 && length < 10) {
+				return digits(parser, chars, offset, length);
+			}
+		}
+		throw new JsonParseException(parser, "Expected a number for rating");
+	}
+
+	private static LocalDate date(JsonParser parser, JsonToken value) throws IOException {
+		if (value == JsonToken.VALUE_NULL) {
+			return null;
+		}
+		if (value != JsonToken.VALUE_STRING) {
+			throw new JsonParseException(parser, "Expected an ISO date for " + parser.currentName());
+		}
+		char[] chars = parser.getTextCharacters();
+		int offset = parser.getTextOffset();
+		int length = parser.getTextLength();
+		if (length < 10 || chars[offset + 4] != '-' || chars[offset + 7] != '-'
+				|| (length > 10 && chars[offset + 10] != 'T' && chars[offset + 10] != ' ')) {
+			throw new JsonParseException(parser, "Expected an ISO date for " + parser.currentName());
+		}
+		try {
+			return LocalDate.of(digits(parser, chars, offset, 4), digits(parser, chars, offset + 5, 2),
+					digits(parser, chars, offset + 8, 2));
+		} catch (DateTimeException e) {
+			throw new JsonParseException(parser, e.getMessage(), e);
+		}
+	}
+
+	private static int digits(JsonParser parser, char[] chars, int offset, int length) throws IOException {
+		int result = 0;
+		for (int i = offset; i < offset + length; i++) {
+			int digit = chars[i] - '0';
+			if (digit < 0 || digit > 9) {
+				throw new JsonParseException(parser, "Unexpected character '" + chars[i] + "' in number");
+			}
+			result = result * 10 + digit;
+		}
+		return result;
+	}
+}
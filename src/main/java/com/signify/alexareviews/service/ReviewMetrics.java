@@ -0,0 +1,74 @@
+package com.signify.alexareviews.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Meters of the import path. Rows are counted by outcome, so the import rate is
+ * {@code rate(reviews_import_rows_total{outcome="saved"})} and parse failures
+ * are the {@code malformed} and {@code invalid} outcomes. Rows that were
+ * already stored are counted as {@code duplicate}. Repository calls are timed
+ * separately through {@code @Timed}.
+ */
+@Component
+public class ReviewMetrics {
+
+	private final Counter rowsParsed;
+	private final Counter rowsMalformed;
+	private final Counter rowsInvalid;
+	private final Counter rowsSaved;
+	private final Counter rowsDuplicate;
+	private final Counter rowsRejected;
+	private final Timer batchFlush;
+
+	public ReviewMetrics(MeterRegistry registry) {
+		this.rowsParsed = rows(registry, "parsed");
+		this.rowsMalformed = rows(registry, "malformed");
+		this.rowsInvalid = rows(registry, "invalid");
+		this.rowsSaved = rows(registry, "saved");
+		this.rowsDuplicate = rows(registry, "duplicate");
+		this.rowsRejected = rows(registry, "rejected");
+		this.batchFlush = Timer.builder("reviews.import.batch.flush")
+				.description("Time to write one import batch, including row by row retries").publishPercentileHistogram()
+				.register(registry);
+	}
+
+	private static Counter rows(MeterRegistry registry, String outcome) {
+		return Counter.builder("reviews.import.rows").description("Review rows handled by imports")
+				.tag("outcome", outcome).register(registry);
+	}
+
+	public void rowParsed() {
+		rowsParsed.increment();
+	}
+
+	/**
+	 * A row that is not valid JSON.
+	 */
+	public void rowMalformed() {
+		rowsMalformed.increment();
+	}
+
+	/**
+	 * A row that parsed but misses required fields.
+	 */
+	public void rowInvalid() {
+		rowsInvalid.increment();
+	}
+
+	/**
+	 * A written batch: rows stored, rows skipped as already stored and rows the
+	 * database refused.
+	 */
+	public void batchWritten(int saved, int duplicates, int rejected, long nanos) {
+		rowsSaved.increment(saved);
+		rowsDuplicate.increment(duplicates);
+		rowsRejected.increment(rejected);
+		batchFlush.record(nanos, TimeUnit.NANOSECONDS);
+	}
+}
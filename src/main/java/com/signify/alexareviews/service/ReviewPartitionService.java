@@ -0,0 +1,85 @@
+package com.signify.alexareviews.service;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.signify.alexareviews.model.ReviewPartition;
+import com.signify.alexareviews.repository.ReviewPartitionRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Keeps monthly review partitions a few months ahead of the current one and,
+ * when a retention period is set, retires the months that fell out of it. To
+ * archive rather than discard, export the months first through
+ * {@code /v1/api/reviews/export?endDate=...}.
+ */
+@Service
+public class ReviewPartitionService {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReviewPartitionService.class);
+	private final ReviewPartitionRepository partitionRepository;
+	private final ApplicationEventPublisher eventPublisher;
+	private final int monthsAhead;
+	private final int retentionMonths;
+
+	public ReviewPartitionService(ReviewPartitionRepository partitionRepository,
+			ApplicationEventPublisher eventPublisher,
+			@Value("${project.partitions.months-ahead:3}") int monthsAhead,
+			@Value("${project.retention.months:0}") int retentionMonths) {
+		this.partitionRepository = partitionRepository;
+		this.eventPublisher = eventPublisher;
+		this.monthsAhead = monthsAhead;
+		this.retentionMonths = retentionMonths;
+	}
+
+	/**
+	 * Creates the partitions up front so no import lands in {@code p_future},
+	 * which would have to be split later.
+	 */
+	@PostConstruct
+	public void createPartitions() {
+		long start = System.nanoTime();
+		int created = partitionRepository.createThrough(YearMonth.now().plusMonths(monthsAhead));
+		if (created > 0) {
+			logger.info("Created {} review partitions in {} ms", created, (System.nanoTime() - start) / 1_000_000);
+		}
+	}
+
+	@Scheduled(cron = "${project.partitions.maintenance-cron:0 0 3 * * *}")
+	public void maintain() {
+		createPartitions();
+		if (retentionMonths > 0) {
+			retireBefore(YearMonth.now().minusMonths(retentionMonths - 1));
+		}
+	}
+
+	public List<ReviewPartition> getPartitions() {
+		return partitionRepository.findAll();
+	}
+
+	/**
+	 * Removes every review dated before {@code month}. The current month and
+	 * later cannot be retired.
+	 *
+	 * @return the partitions that were removed
+	 */
+	public List<ReviewPartition> retireBefore(YearMonth month) {
+		if (month.isAfter(YearMonth.now())) {
+			throw new IllegalArgumentException("Cannot retire reviews of the current month or later");
+		}
+		logger.info("Retiring reviews dated before {}", month);
+		List<ReviewPartition> retired = partitionRepository.dropBefore(month);
+		eventPublisher.publishEvent(new ReviewsRetiredEvent(month.atDay(1)));
+		logger.info("Retired {} review partitions: {}", retired.size(),
+				retired.stream().map(ReviewPartition::name).toList());
+		return retired;
+	}
+}
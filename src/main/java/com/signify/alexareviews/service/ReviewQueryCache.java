@@ -0,0 +1,186 @@
+package com.signify.alexareviews.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.model.EncodedResponse;
+import com.signify.alexareviews.model.ReviewFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded cache of {@link ReviewService} read results, and of the encoded
+ * bodies of the hottest responses. Entries are weighed by the rows they hold
+ * (or per KB of body) and expire after a TTL.
+ * <p>
+ * Writes invalidate precisely: a cached review list is dropped only if one of
+ * the stored reviews matches its filter, before or after an update, while the rating aggregates, which
+ * cover every review, are dropped on any write. A load that overlaps a write
+ * is not kept, since it may have read the table before the commit.
+ */
+@Component
+public class ReviewQueryCache implements MeterBinder {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReviewQueryCache.class);
+
+	enum Kind {
+		REVIEWS, MONTHLY_AVERAGE, TOTAL_RATINGS, MONTHLY_AVERAGE_BODY, TOTAL_RATINGS_BODY
+	}
+
+	record Key(Kind kind, ReviewFilter filter) {
+	}
+
+	// The fields a filter can test; a batch collapses to a few distinct ones
+	private record Partition(String reviewSource, int rating, String productName, LocalDate reviewedDate) {
+	}
+
+	private final Cache<Key, Object> cache;
+	private final AtomicLong writes = new AtomicLong();
+	private final AtomicLong invalidations = new AtomicLong();
+
+	public ReviewQueryCache(@Value("${project.cache.max-rows:100000}") long maxRows,
+			@Value("${project.cache.ttl:5m}") Duration ttl) {
+		this.cache = Caffeine.newBuilder().maximumWeight(maxRows).weigher(ReviewQueryCache::weigh)
+				.expireAfterWrite(ttl).recordStats().build();
+	}
+
+	@SuppressWarnings("unchecked")
+	public List<Review> getReviews(ReviewFilter filter, Supplier<List<Review>> loader) {
+		return (List<Review>) get(new Key(Kind.REVIEWS, filter), loader);
+	}
+
+	@SuppressWarnings("unchecked")
+	public List<Map<String, Object>> getMonthlyAverageRatings(Supplier<List<Map<String, Object>>> loader) {
+		return (List<Map<String, Object>>) get(new Key(Kind.MONTHLY_AVERAGE, ReviewFilter.NONE), loader);
+	}
+
+	@SuppressWarnings("unchecked")
+	public List<Map<String, Object>> getTotalRatingsByCategory(Supplier<List<Map<String, Object>>> loader) {
+		return (List<Map<String, Object>>) get(new Key(Kind.TOTAL_RATINGS, ReviewFilter.NONE), loader);
+	}
+
+	public EncodedResponse getMonthlyAverageRatingsBody(Supplier<EncodedResponse> loader) {
+		return (EncodedResponse) get(new Key(Kind.MONTHLY_AVERAGE_BODY, ReviewFilter.NONE), loader);
+	}
+
+	public EncodedResponse getTotalRatingsByCategoryBody(Supplier<EncodedResponse> loader) {
+		return (EncodedResponse) get(new Key(Kind.TOTAL_RATINGS_BODY, ReviewFilter.NONE), loader);
+	}
+
+	private Object get(Key key, Supplier<?> loader) {
+		Object cached = cache.getIfPresent(key);
+		if (cached != null) {
+			return cached;
+		}
+		long writesBefore = writes.get();
+		Object loaded = loader.get();
+		if (loaded instanceof List<?> rows) {
+			loaded = List.copyOf(rows);
+		}
+		cache.put(key, loaded);
+		// A write counts itself before sweeping, so either the sweep sees this entry or we see the count
+		if (writes.get() != writesBefore) {
+			cache.invalidate(key);
+		}
+		return loaded;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onReviewsSaved(ReviewsSavedEvent event) {
+		writes.incrementAndGet();
+		Map<Partition, Review> written = new HashMap<>();
+		// An update can also take a review out of the results it was cached in
+		for (List<Review> reviews : List.of(event.reviews(), event.replaced())) {
+			for (Review review : reviews) {
+				written.putIfAbsent(new Partition(review.getReviewSource(), review.getRating(),
+						review.getProductName(), review.getReviewedDate()), review);
+			}
+		}
+		long removed = 0;
+		for (Key key : cache.asMap().keySet()) {
+			if (key.kind() != Kind.REVIEWS || written.values().stream().anyMatch(key.filter()::matches)) {
+				if (cache.asMap().remove(key) != null) {
+					removed++;
+				}
+			}
+		}
+		invalidations.addAndGet(removed);
+		logger.debug("Invalidated {} cached results after {} reviews were saved", removed, event.reviews().size());
+	}
+
+	// Retired months can be part of any cached result
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onReviewsRetired(ReviewsRetiredEvent event) {
+		writes.incrementAndGet();
+		long removed = cache.asMap().size();
+		cache.invalidateAll();
+		invalidations.addAndGet(removed);
+		logger.debug("Invalidated {} cached results after reviews before {} were retired", removed, event.before());
+	}
+
+	/**
+	 * Drops the rating aggregates and their bodies, e.g. after the rollups were
+	 * rebuilt.
+	 */
+	public void invalidateAggregates() {
+		writes.incrementAndGet();
+		for (Key key : cache.asMap().keySet()) {
+			if (key.kind() != Kind.REVIEWS && cache.asMap().remove(key) != null) {
+				invalidations.incrementAndGet();
+			}
+		}
+	}
+
+	private static int weigh(Key key, Object value) {
+		if (value instanceof List<?> rows) {
+			return rows.size() + 1;
+		} else if (value instanceof EncodedResponse body) {
+			return body.json().length / 1024 + 1;
+		}
+		return 1;
+	}
+
+	public Map<String, Object> getStats() {
+		// Runs pending evictions so size and rows are current
+		cache.cleanUp();
+		CacheStats stats = cache.stats();
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("size", cache.estimatedSize());
+		result.put("rows", cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L));
+		result.put("hitCount", stats.hitCount());
+		result.put("missCount", stats.missCount());
+		result.put("hitRate", stats.hitRate());
+		result.put("evictionCount", stats.evictionCount());
+		result.put("invalidationCount", invalidations.get());
+		return result;
+	}
+
+	/**
+	 * Publishes the Caffeine statistics as {@code cache.*} meters tagged
+	 * {@code cache=reviewQuery}, plus the precise invalidations.
+	 */
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, cache, "reviewQuery");
+		registry.more().counter("cache.invalidations", List.of(Tag.of("cache", "reviewQuery")), invalidations);
+	}
+}
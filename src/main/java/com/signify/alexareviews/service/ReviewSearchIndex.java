@@ -0,0 +1,453 @@
+package com.signify.alexareviews.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.entity.ReviewIds;
+import com.signify.alexareviews.model.ReviewFilter;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Embedded inverted index over review titles and texts. Text is split on
+ * anything that is not a letter or digit and lower-cased; every term keeps a
+ * postings list of documents with the positions it occurs at, so quoted
+ * phrases can be matched. Hits are ranked with BM25.
+ * <p>
+ * Documents are numbered in the order they are added and postings are only
+ * appended, so the index is loaded once and then follows
+ * {@link ReviewsSavedEvent}s. A review that is indexed again leaves a
+ * tombstone on its earlier document, which is skipped like a retired one and
+ * no longer counted in the collection statistics.
+ */
+@Component
+public class ReviewSearchIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReviewSearchIndex.class);
+	private static final double K1 = 1.2;
+	private static final double B = 0.75;
+	// Keeps a phrase from matching across the end of the title and the start of the text
+	private static final int FIELD_GAP = 1;
+
+	/**
+	 * A document of the index with its BM25 score.
+	 */
+	public record Hit(UUID id, double score) {
+	}
+
+	public record Result(int totalHits, List<Hit> hits) {
+	}
+
+	private static final class Postings {
+		int size;
+		int[] docs = new int[4];
+		int[] frequencies = new int[4];
+		int[] positionStarts = new int[4];
+		int positionCount;
+		int[] positions = new int[8];
+
+		void add(int doc, int[] docPositions, int count) {
+			if (size == docs.length) {
+				docs = Arrays.copyOf(docs, size * 2);
+				frequencies = Arrays.copyOf(frequencies, size * 2);
+				positionStarts = Arrays.copyOf(positionStarts, size * 2);
+			}
+			if (positionCount + count > positions.length) {
+				positions = Arrays.copyOf(positions, Math.max(positions.length * 2, positionCount + count));
+			}
+			docs[size] = doc;
+			frequencies[size] = count;
+			positionStarts[size] = positionCount;
+			System.arraycopy(docPositions, 0, positions, positionCount, count);
+			positionCount += count;
+			size++;
+		}
+	}
+
+	/**
+	 * Scores of the documents a query matched, in an open-addressing table sized
+	 * to the postings of the query rather than to the whole index, so a query
+	 * allocates in proportion to what it can match.
+	 */
+	private static final class Scores {
+		final int[] docs;
+		final double[] values;
+		// Slots in the order their documents were first matched
+		final int[] slots;
+		int size;
+		private final int shift;
+
+		Scores(int expected) {
+			// At most half full, a power of two so the hash can be shifted into range
+			int capacity = Integer.highestOneBit(Math.max(1, expected - 1)) << 2;
+			docs = new int[capacity];
+			Arrays.fill(docs, -1);
+			values = new double[capacity];
+			slots = new int[Math.max(1, expected)];
+			shift = Integer.numberOfLeadingZeros(capacity) + 1;
+		}
+
+		void add(int doc, double score) {
+			int mask = docs.length - 1;
+			int slot = (doc * 0x9E3779B9) >>> shift;
+			while (docs[slot] != doc) {
+				if (docs[slot] == -1) {
+					docs[slot] = doc;
+					slots[size++] = slot;
+					break;
+				}
+				slot = (slot + 1) & mask;
+			}
+			values[slot] += score;
+		}
+	}
+
+	private final JdbcTemplate jdbcTemplate;
+	private final int fetchSize;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	// Guarded by lock
+	private final Map<String, Postings> terms = new HashMap<>();
+	private final List<UUID> ids = new ArrayList<>();
+	private final Map<UUID, Integer> docsById = new HashMap<>();
+	private boolean[] tombstones = new boolean[1024];
+	private int tombstoneCount;
+	private int[] lengths = new int[1024];
+	private int[] epochDays = new int[1024];
+	private byte[] ratings = new byte[1024];
+	private String[] sources = new String[1024];
+	private String[] products = new String[1024];
+	private long totalLength;
+	// Documents dated before this day were retired and are no longer returned
+	private long retiredBeforeDay = Long.MIN_VALUE;
+
+	public ReviewSearchIndex(JdbcTemplate jdbcTemplate,
+			@Value("${project.query.stream-fetch-size:500}") int fetchSize) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.fetchSize = fetchSize;
+	}
+
+	/**
+	 * Indexes every stored review. Runs before the web server accepts requests,
+	 * so no write can slip in between the load and the first event.
+	 */
+	@PostConstruct
+	public void load() {
+		long start = System.nanoTime();
+		JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+		streaming.setFetchSize(fetchSize);
+		List<Review> chunk = new ArrayList<>(fetchSize);
+		streaming.query(
+				"SELECT id, review, title, review_source, rating, product_name, reviewed_date FROM reviews", rs -> {
+					chunk.add(new Review(ReviewIds.fromBytes(rs.getBytes(1)), rs.getString(2), null, rs.getString(4),
+							rs.getInt(5), rs.getString(3), rs.getString(6), rs.getDate(7).toLocalDate()));
+					if (chunk.size() == fetchSize) {
+						add(chunk);
+						chunk.clear();
+					}
+				});
+		add(chunk);
+		logger.info("Indexed {} reviews for search in {} ms", size(), (System.nanoTime() - start) / 1_000_000);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onReviewsSaved(ReviewsSavedEvent event) {
+		add(event.reviews());
+	}
+
+	/**
+	 * Stops returning reviews dated before {@code date}. Their postings stay in
+	 * place until the next load, as removing them would mean renumbering every
+	 * document.
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onReviewsRetired(ReviewsRetiredEvent event) {
+		lock.writeLock().lock();
+		try {
+			retiredBeforeDay = Math.max(retiredBeforeDay, event.before().toEpochDay());
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void add(List<Review> reviews) {
+		// Tokenize before taking the lock, searches only wait for the postings to be appended
+		List<Map<String, int[]>> tokenized = new ArrayList<>(reviews.size());
+		int[] docLengths = new int[reviews.size()];
+		for (int i = 0; i < reviews.size(); i++) {
+			Review review = reviews.get(i);
+			Map<String, int[]> positions = new LinkedHashMap<>();
+			int position = addTokens(review.getTitle(), 0, positions);
+			position = addTokens(review.getReview(), position + FIELD_GAP, positions);
+			tokenized.add(positions);
+			docLengths[i] = position;
+		}
+
+		lock.writeLock().lock();
+		try {
+			for (int i = 0; i < reviews.size(); i++) {
+				Review review = reviews.get(i);
+				int doc = ids.size();
+				ensureCapacity(doc + 1);
+				ids.add(review.getId());
+				Integer earlier = docsById.put(review.getId(), doc);
+				if (earlier != null && !tombstones[earlier]) {
+					tombstones[earlier] = true;
+					tombstoneCount++;
+					totalLength -= lengths[earlier];
+				}
+				lengths[doc] = docLengths[i];
+				epochDays[doc] = (int) review.getReviewedDate().toEpochDay();
+				ratings[doc] = (byte) review.getRating();
+				sources[doc] = review.getReviewSource();
+				products[doc] = review.getProductName();
+				totalLength += docLengths[i];
+				for (Map.Entry<String, int[]> term : tokenized.get(i).entrySet()) {
+					int[] termPositions = term.getValue();
+					// The last slot holds the number of positions used
+					terms.computeIfAbsent(term.getKey(), key -> new Postings()).add(doc, termPositions,
+							termPositions[termPositions.length - 1]);
+				}
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Finds reviews containing any of the words or quoted phrases of
+	 * {@code query} that also match {@code filter}, best first.
+	 */
+	public Result search(String query, ReviewFilter filter, int limit) {
+		List<String[]> clauses = parse(query);
+		lock.readLock().lock();
+		try {
+			int docCount = ids.size() - tombstoneCount;
+			if (clauses.isEmpty() || docCount == 0) {
+				return new Result(0, List.of());
+			}
+			double averageLength = Math.max(1.0, (double) totalLength / docCount);
+			List<Postings> firsts = new ArrayList<>(clauses.size());
+			long postingCount = 0;
+			for (String[] clause : clauses) {
+				Postings first = terms.get(clause[0]);
+				firsts.add(first);
+				postingCount += first == null ? 0 : first.size;
+			}
+			Scores scores = new Scores((int) Math.min(postingCount, docCount));
+
+			for (int c = 0; c < clauses.size(); c++) {
+				String[] clause = clauses.get(c);
+				Postings first = firsts.get(c);
+				if (first == null) {
+					continue;
+				}
+				int[] frequencies = clause.length == 1 ? null : phraseFrequencies(clause, first);
+				int documentFrequency = 0;
+				for (int i = 0; i < first.size; i++) {
+					if (!tombstones[first.docs[i]] && frequencyAt(first, frequencies, i) > 0) {
+						documentFrequency++;
+					}
+				}
+				double idf = Math.log(1 + (docCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+				for (int i = 0; i < first.size; i++) {
+					int frequency = frequencyAt(first, frequencies, i);
+					int doc = first.docs[i];
+					if (frequency == 0 || !matches(doc, filter)) {
+						continue;
+					}
+					double norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+					scores.add(doc, idf * frequency * (K1 + 1) / (frequency + norm));
+				}
+			}
+
+			PriorityQueue<Hit> top = new PriorityQueue<>(Math.max(1, limit),
+					(a, b) -> Double.compare(a.score(), b.score()));
+			for (int i = 0; i < scores.size; i++) {
+				int slot = scores.slots[i];
+				top.offer(new Hit(ids.get(scores.docs[slot]), scores.values[slot]));
+				if (top.size() > limit) {
+					top.poll();
+				}
+			}
+			List<Hit> hits = new ArrayList<>(top);
+			hits.sort((a, b) -> Double.compare(b.score(), a.score()));
+			return new Result(scores.size, hits);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return ids.size() - tombstoneCount;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private static int frequencyAt(Postings postings, int[] phraseFrequencies, int index) {
+		return phraseFrequencies == null ? postings.frequencies[index] : phraseFrequencies[index];
+	}
+
+	/**
+	 * Counts, for every document of the phrase's first term, how often the
+	 * following terms appear at the following positions.
+	 */
+	private int[] phraseFrequencies(String[] phrase, Postings first) {
+		Postings[] rest = new Postings[phrase.length - 1];
+		for (int t = 1; t < phrase.length; t++) {
+			rest[t - 1] = terms.get(phrase[t]);
+			if (rest[t - 1] == null) {
+				return new int[first.size];
+			}
+		}
+		int[] cursors = new int[rest.length];
+		int[] frequencies = new int[first.size];
+		for (int i = 0; i < first.size; i++) {
+			int doc = first.docs[i];
+			int[] entries = new int[rest.length];
+			boolean inAll = true;
+			for (int t = 0; t < rest.length && inAll; t++) {
+				Postings postings = rest[t];
+				while (cursors[t] < postings.size && postings.docs[cursors[t]] < doc) {
+					cursors[t]++;
+				}
+				entries[t] = cursors[t];
+				inAll = cursors[t] < postings.size && postings.docs[cursors[t]] == doc;
+			}
+			if (!inAll) {
+				continue;
+			}
+			int start = first.positionStarts[i];
+			for (int p = start; p < start + first.frequencies[i]; p++) {
+				int position = first.positions[p];
+				boolean phraseHere = true;
+				for (int t = 0; t < rest.length && phraseHere; t++) {
+					phraseHere = containsPosition(rest[t], entries[t], position + t + 1);
+				}
+				if (phraseHere) {
+					frequencies[i]++;
+				}
+			}
+		}
+		return frequencies;
+	}
+
+	private static boolean containsPosition(Postings postings, int entry, int position) {
+		int start = postings.positionStarts[entry];
+		return Arrays.binarySearch(postings.positions, start, start + postings.frequencies[entry], position) >= 0;
+	}
+
+	private boolean matches(int doc, ReviewFilter filter) {
+		return !tombstones[doc] && epochDays[doc] >= retiredBeforeDay
+				&& (filter.startDate() == null || epochDays[doc] >= filter.startDate().toEpochDay())
+				&& (filter.endDate() == null || epochDays[doc] <= filter.endDate().toEpochDay())
+				&& (filter.reviewSource() == null || filter.reviewSource().equals(sources[doc]))
+				&& (filter.rating() == null || filter.rating() == ratings[doc])
+				&& (filter.productName() == null || filter.productName().equals(products[doc]));
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > lengths.length) {
+			int grown = Math.max(capacity, lengths.length + (lengths.length >> 1));
+			lengths = Arrays.copyOf(lengths, grown);
+			epochDays = Arrays.copyOf(epochDays, grown);
+			ratings = Arrays.copyOf(ratings, grown);
+			sources = Arrays.copyOf(sources, grown);
+			products = Arrays.copyOf(products, grown);
+			tombstones = Arrays.copyOf(tombstones, grown);
+		}
+	}
+
+	/**
+	 * Splits a query into clauses: each word is a clause of one term and each
+	 * quoted phrase a clause of its terms in order.
+	 */
+	static List<String[]> parse(String query) {
+		List<String[]> clauses = new ArrayList<>();
+		if (query == null) {
+			return clauses;
+		}
+		String[] parts = query.split("\"", -1);
+		for (int i = 0; i < parts.length; i++) {
+			List<String> tokens = tokenize(parts[i]);
+			if (i % 2 == 1 && tokens.size() > 1) {
+				clauses.add(tokens.toArray(new String[0]));
+			} else {
+				tokens.forEach(token -> clauses.add(new String[] { token }));
+			}
+		}
+		return clauses;
+	}
+
+	static List<String> tokenize(String text) {
+		List<String> tokens = new ArrayList<>();
+		Map<String, int[]> positions = new LinkedHashMap<>();
+		int count = addTokens(text, 0, positions);
+		String[] ordered = new String[count];
+		positions.forEach((term, termPositions) -> {
+			for (int i = 0; i < termPositions[termPositions.length - 1]; i++) {
+				ordered[termPositions[i]] = term;
+			}
+		});
+		tokens.addAll(Arrays.asList(ordered));
+		return tokens;
+	}
+
+	/**
+	 * Adds the tokens of {@code text} to {@code positions}, numbering them from
+	 * {@code position}. Each array ends with the count of positions stored in it.
+	 *
+	 * @return the position after the last token
+	 */
+	private static int addTokens(String text, int position, Map<String, int[]> positions) {
+		if (text == null) {
+			return position;
+		}
+		int length = text.length();
+		int i = 0;
+		while (i < length) {
+			while (i < length && !Character.isLetterOrDigit(text.codePointAt(i))) {
+				i += Character.charCount(text.codePointAt(i));
+			}
+			int start = i;
+			while (i < length && Character.isLetterOrDigit(text.codePointAt(i))) {
+				i += Character.charCount(text.codePointAt(i));
+			}
+			if (i > start) {
+				String term = text.substring(start, i).toLowerCase(Locale.ROOT);
+				int[] termPositions = positions.get(term);
+				if (termPositions == null) {
+					termPositions = new int[3];
+				} else if (termPositions[termPositions.length - 1] == termPositions.length - 1) {
+					termPositions = Arrays.copyOf(termPositions, termPositions.length * 2);
+					termPositions[termPositions.length - 1] = termPositions[termPositions.length / 2 - 1];
+				}
+				int used = termPositions[termPositions.length - 1];
+				termPositions[used] = position++;
+				termPositions[termPositions.length - 1] = used + 1;
+				positions.put(term, termPositions);
+			}
+		}
+		return position;
+	}
+}
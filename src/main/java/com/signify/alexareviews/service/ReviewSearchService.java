@@ -0,0 +1,77 @@
+package com.signify.alexareviews.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.model.Response;
+import com.signify.alexareviews.model.ResponseCode;
+import com.signify.alexareviews.model.ReviewFilter;
+import com.signify.alexareviews.model.ReviewSearchHit;
+import com.signify.alexareviews.model.ReviewSearchResult;
+import com.signify.alexareviews.repository.ReviewQueryRepository;
+
+/**
+ * Keyword search over review titles and texts. Matching and ranking happen in
+ * the {@link ReviewSearchIndex}; only the reviews of the returned page are read
+ * from the database.
+ */
+@Service
+public class ReviewSearchService {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReviewSearchService.class);
+
+	private final ReviewSearchIndex searchIndex;
+	private final ReviewQueryRepository reviewQueryRepository;
+	private final int defaultLimit;
+	private final int maxLimit;
+
+	public ReviewSearchService(ReviewSearchIndex searchIndex, ReviewQueryRepository reviewQueryRepository,
+			@Value("${project.search.default-limit:20}") int defaultLimit,
+			@Value("${project.search.max-limit:100}") int maxLimit) {
+		this.searchIndex = searchIndex;
+		this.reviewQueryRepository = reviewQueryRepository;
+		this.defaultLimit = defaultLimit;
+		this.maxLimit = maxLimit;
+	}
+
+	/**
+	 * Finds reviews containing any of the words of {@code query}; words in double
+	 * quotes must appear together as a phrase.
+	 */
+	public Response<ReviewSearchResult> search(String query, ReviewFilter filter, Integer limit) {
+		if (ReviewSearchIndex.parse(query).isEmpty()) {
+			throw new IllegalArgumentException("Search query must contain at least one word");
+		}
+		int size = Math.min(limit != null && limit > 0 ? limit : defaultLimit, maxLimit);
+		ReviewFilter normalized = filter.normalized();
+		logger.info("Searching reviews for '{}' - filters: {}, limit: {}", query, normalized, size);
+
+		ReviewSearchIndex.Result result = searchIndex.search(query, normalized, size);
+		Map<UUID, Review> reviews = reviewQueryRepository
+				.findByIds(result.hits().stream().map(ReviewSearchIndex.Hit::id).toList()).stream()
+				.collect(Collectors.toMap(Review::getId, Function.identity()));
+		List<ReviewSearchHit> hits = new ArrayList<>(result.hits().size());
+		for (ReviewSearchIndex.Hit hit : result.hits()) {
+			Review review = reviews.get(hit.id());
+			if (review != null) {
+				hits.add(new ReviewSearchHit(review, hit.score()));
+			}
+		}
+		if (hits.isEmpty()) {
+			return new Response<>(false, ResponseCode.FAILED.toString(), "No reviews match the search",
+					new ReviewSearchResult(0, hits));
+		}
+		return new Response<>(true, "Success", "Search reviews succeeded",
+				new ReviewSearchResult(result.totalHits(), hits));
+	}
+}
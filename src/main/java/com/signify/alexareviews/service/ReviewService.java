@@ -1,153 +1,270 @@
 package com.signify.alexareviews.service;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.time.LocalDate;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.model.EncodedResponse;
 import com.signify.alexareviews.model.Response;
 import com.signify.alexareviews.model.ResponseCode;
+import com.signify.alexareviews.model.ReviewCursor;
+import com.signify.alexareviews.model.ReviewField;
+import com.signify.alexareviews.model.ReviewFilter;
+import com.signify.alexareviews.model.ReviewPage;
+import com.signify.alexareviews.model.ReviewView;
+import com.signify.alexareviews.repository.ReviewQueryRepository;
 import com.signify.alexareviews.repository.ReviewRepository;
+import com.signify.alexareviews.repository.ReviewRollupRepository;
 
 @Service
 public class ReviewService {
 
 	private static final Logger logger = LoggerFactory.getLogger(ReviewService.class);
+	// Below this a gzip body saves too little to be worth sending
+	private static final int GZIP_MIN_BYTES = 1024;
 	private final ReviewRepository reviewRepository;
 	private final ObjectMapper objectMapper;
+	private final ReviewQueryRepository reviewQueryRepository;
+	private final ReviewRollupRepository reviewRollupRepository;
+	private final ApplicationEventPublisher eventPublisher;
+	private final ReviewQueryCache queryCache;
+	private final int defaultPageSize;
+	private final int maxPageSize;
 
-	public ReviewService(ReviewRepository reviewRepository, ObjectMapper objectMapper) {
+	public ReviewService(ReviewRepository reviewRepository, ObjectMapper objectMapper,
+			ReviewQueryRepository reviewQueryRepository, ReviewRollupRepository reviewRollupRepository,
+			ApplicationEventPublisher eventPublisher, ReviewQueryCache queryCache,
+			@Value("${project.query.default-page-size:100}") int defaultPageSize,
+			@Value("${project.query.max-page-size:1000}") int maxPageSize) {
 		this.reviewRepository = reviewRepository;
 		this.objectMapper = objectMapper;
+		this.reviewQueryRepository = reviewQueryRepository;
+		this.reviewRollupRepository = reviewRollupRepository;
+		this.eventPublisher = eventPublisher;
+		this.queryCache = queryCache;
+		this.defaultPageSize = defaultPageSize;
+		this.maxPageSize = maxPageSize;
 	}
 
-	public void importReviewsFromFile(String filePath) throws IOException {
-		Logger logger = LoggerFactory.getLogger(getClass()); // Logger instance
-
-		logger.info("Starting import of reviews from file: {}", filePath);
-
-		try (BufferedReader reader = Files.newBufferedReader(Paths.get(filePath))) {
-			String line;
-			while ((line = reader.readLine()) != null) {
-				try {
-					// Convert each line to a Review object
-					Review review = objectMapper.readValue(line, Review.class);
-					logger.debug("Parsed review: {}", review);
-
-					review.setId(UUID.randomUUID()); // Assign a UUID if not present
-					reviewRepository.save(review);
-
-					logger.info("Successfully saved review with ID: {}", review.getId());
-				} catch (Exception e) {
-					logger.warn("Skipping invalid JSON line: {}", line, e);
-				}
-			}
-		} catch (IOException ex) {
-			logger.error("Failed to read file: {}", filePath, ex);
-			throw ex; // Rethrow to let caller handle it
-		}
-
-		logger.info("Completed import of reviews from file: {}", filePath);
-	}
-
+	@Transactional
 	public Review saveReview(Review review) {
 		Objects.requireNonNull(review, "Review cannot be null");
 		logger.info("Saving review: {}", review);
+		// Read through JDBC so the old values are not the entity that save merges into
+		List<Review> previous = review.getId() != null ? reviewQueryRepository.findByIds(List.of(review.getId()))
+				: List.of();
 		Review savedReview = reviewRepository.save(review);
+		if (previous.isEmpty()) {
+			reviewRollupRepository.add(List.of(savedReview));
+		} else {
+			reviewRollupRepository.replace(previous, List.of(savedReview));
+		}
+		eventPublisher.publishEvent(new ReviewsSavedEvent(List.of(savedReview), previous));
 		logger.info("Review saved successfully with ID: {}", savedReview.getId());
 		return savedReview;
 	}
 
-	public Response<List<Review>> getReviews(LocalDate startDate, LocalDate endDate, String storeType, Integer rating) {
-		logger.info("Fetching reviews with filters - startDate: {}, endDate: {}, storeType: {}, rating: {}", startDate,
-				endDate, storeType, rating);
-
-		if (startDate != null && endDate != null) {
-			return reviewRepository.findByReviewedDateBetween(startDate, endDate).filter(reviews -> !reviews.isEmpty()) // Ensures
-																														// we
-																														// return
-																														// only
-																														// non-empty
-																														// lists
-					.map(reviews -> {
-						logger.info("Successfully fetched {} reviews for date range {} to {}", reviews.size(),
-								startDate, endDate);
-						return new Response<>(true, "Success",
-								"Fetch reviews with start and end date as filter succeeded", reviews);
-					}).orElseGet(() -> {
-						logger.warn("Failed to fetch reviews with start and end date as filter");
-						return new Response<>(false, ResponseCode.FAILED.toString(),
-								"Failed to fetch reviews with start and end date as filter");
-					});
+	public Response<List<Review>> getReviews(ReviewFilter filter) {
+		ReviewFilter normalized = filter.normalized();
+		logger.info("Fetching reviews with filters: {}", normalized);
+
+		List<Review> reviews = queryCache.getReviews(normalized, () -> reviewQueryRepository.findAll(normalized));
+		if (normalized.isEmpty()) {
+			logger.info("Fetched all reviews, total count: {}", reviews.size());
+			return new Response<>(true, "Success", "Fetching all reviews succeeded", reviews);
+		}
+		if (reviews.isEmpty()) {
+			logger.warn("No reviews match filters: {}", normalized);
+			return new Response<>(false, ResponseCode.FAILED.toString(), "No reviews match the given filters");
 		}
+		logger.info("Successfully fetched {} reviews", reviews.size());
+		return new Response<>(true, "Success", "Fetch reviews with filters succeeded", reviews);
+	}
+
+	/**
+	 * Fetches the given fields of the matching reviews. Only the selected
+	 * columns are read, so leaving out {@code review} skips the largest one.
+	 * These results are not cached.
+	 */
+	public Response<List<ReviewView>> getReviews(ReviewFilter filter, Set<ReviewField> fields) {
+		ReviewFilter normalized = filter.normalized();
+		logger.info("Fetching reviews with filters: {}, fields: {}", normalized, fields);
 
-		else if (storeType != null) {
-			return reviewRepository.findByReviewSource(storeType).filter(reviews -> !reviews.isEmpty()) // Ensure only
-																										// non-empty
-																										// lists return
-																										// success
-					.map(reviews -> {
-						logger.info("Successfully fetched {} reviews for storeType: {}", reviews.size(), storeType);
-						return new Response<>(true, "Success", "Fetch reviews with storeType as filter succeeded",
-								reviews);
-					}).orElseGet(() -> {
-						logger.warn("Failed to fetch reviews with storeType: {}", storeType);
-						return new Response<>(false, ResponseCode.FAILED.toString(),
-								"Failed to fetch reviews with storeType as parameter");
-					});
+		List<ReviewView> reviews = reviewQueryRepository.findViews(normalized, fields);
+		if (reviews.isEmpty() && !normalized.isEmpty()) {
+			logger.warn("No reviews match filters: {}", normalized);
+			return new Response<>(false, ResponseCode.FAILED.toString(), "No reviews match the given filters");
 		}
+		logger.info("Successfully fetched {} reviews", reviews.size());
+		return new Response<>(true, "Success", "Fetch reviews with filters succeeded", reviews);
+	}
+
+	/**
+	 * Fetches one page of reviews in {@code (reviewedDate, id)} order, starting
+	 * after the given cursor token.
+	 *
+	 * @throws IllegalArgumentException if the cursor is not valid
+	 */
+	public Response<ReviewPage> getReviewPage(ReviewFilter filter, String cursor, Integer limit) {
+		int pageSize = Math.min(limit != null && limit > 0 ? limit : defaultPageSize, maxPageSize);
+		ReviewCursor after = cursor != null ? ReviewCursor.decode(cursor) : null;
+		logger.info("Fetching review page - filters: {}, after: {}, limit: {}", filter, after, pageSize);
+
+		List<Review> reviews = reviewQueryRepository.findPage(filter, after, pageSize);
+		String nextCursor = reviews.size() == pageSize ? ReviewCursor.after(reviews.get(reviews.size() - 1)).encode()
+				: null;
+		logger.info("Fetched page of {} reviews", reviews.size());
+		return new Response<>(true, "Success", "Fetch review page succeeded", new ReviewPage(reviews, nextCursor));
+	}
+
+	/**
+	 * Writes every matching review to {@code out} as newline delimited JSON while
+	 * reading them off a database cursor, so memory use does not depend on the
+	 * size of the result.
+	 */
+	public void streamReviews(ReviewFilter filter, OutputStream out) throws IOException {
+		logger.info("Streaming reviews - filters: {}", filter);
+		writeNdjson(out, consumer -> reviewQueryRepository.stream(filter, consumer::accept));
+	}
 
-		else if (rating != null) {
-			return reviewRepository.findByRating(rating).filter(ratings -> !ratings.isEmpty()) // Ensure only non-empty
-																								// lists return success
-					.map(ratings -> {
-						logger.info("Successfully fetched {} reviews with rating: {}", ratings.size(), rating);
-						return new Response<>(true, "Success", "Fetch reviews with rating as filter succeeded",
-								ratings);
-					}).orElseGet(() -> {
-						logger.warn("Failed to fetch reviews with rating: {}", rating);
-						return new Response<>(false, ResponseCode.FAILED.toString(),
-								"Failed to fetch reviews with rating as parameter");
-					});
+	/**
+	 * Like {@link #streamReviews(ReviewFilter, OutputStream)} but reads and
+	 * writes only the given fields.
+	 */
+	public void streamReviews(ReviewFilter filter, Set<ReviewField> fields, OutputStream out) throws IOException {
+		logger.info("Streaming reviews - filters: {}, fields: {}", filter, fields);
+		writeNdjson(out, consumer -> reviewQueryRepository.streamViews(filter, fields, consumer::accept));
+	}
+
+	private void writeNdjson(OutputStream out, Consumer<Consumer<Object>> rows) throws IOException {
+		long[] count = { 0 };
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+			generator.setRootValueSeparator(new SerializedString("\n"));
+			rows.accept(row -> {
+				try {
+					objectMapper.writeValue(generator, row);
+					count[0]++;
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+			generator.writeRaw('\n');
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
 		}
+		logger.info("Streamed {} reviews", count[0]);
+	}
 
-		else {
-			List<Review> allReviews = reviewRepository.findAll();
-			logger.info("Fetched all reviews, total count: {}", allReviews.size());
-			return new Response<>(true, "Success", "Fetching all reviews succeeded", allReviews);
+	/**
+	 * Writes every matching review to {@code out} in the binary export format,
+	 * reading them off a database cursor. Returns the number of reviews written.
+	 */
+	public long exportReviews(ReviewFilter filter, OutputStream out) throws IOException {
+		logger.info("Exporting reviews - filters: {}", filter);
+		ReviewBinaryWriter writer = new ReviewBinaryWriter(out);
+		try {
+			reviewQueryRepository.stream(filter, review -> {
+				try {
+					writer.write(review);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+			writer.finish();
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
 		}
+		logger.info("Exported {} reviews", writer.getRows());
+		return writer.getRows();
+	}
+
+	public Response<Map<String, Object>> getCacheStats() {
+		return new Response<>(true, "Success", "Fetch cache statistics succeeded", queryCache.getStats());
 	}
 
 	public Response<List<Map<String, Object>>> getMonthlyAverageRatings() {
 		logger.info("Fetching Monthly Average Ratings");
-		return reviewRepository.getMonthlyAverageRatings().map(ratings -> {
-			logger.info("Successfully fetched Monthly Average Ratings");
-			return new Response<>(true, "Success", "Succeeded in getting Monthly Average Ratings", ratings);
-		}).orElseGet(() -> {
+		List<Map<String, Object>> ratings = queryCache
+				.getMonthlyAverageRatings(reviewRollupRepository::getMonthlyAverageRatings);
+		if (ratings.isEmpty()) {
 			logger.warn("Failed to fetch Monthly Average Ratings");
 			return new Response<>(false, ResponseCode.FAILED.toString(), "Failed to fetch Monthly Average Ratings");
-		});
+		}
+		logger.info("Successfully fetched Monthly Average Ratings");
+		return new Response<>(true, "Success", "Succeeded in getting Monthly Average Ratings", ratings);
 	}
 
 	public Response<List<Map<String, Object>>> getTotalRatingsByCategory() {
 		logger.info("Fetching Total Ratings by Category");
-		return reviewRepository.getTotalRatingsByCategory().map(ratings -> {
-			logger.info("Successfully fetched Total Ratings by Category");
-			return new Response<>(true, "Success", "Succeeded in getting Total Ratings By Category", ratings);
-		}).orElseGet(() -> {
+		List<Map<String, Object>> ratings = queryCache
+				.getTotalRatingsByCategory(reviewRollupRepository::getTotalRatingsByCategory);
+		if (ratings.isEmpty()) {
 			logger.warn("Failed to fetch Total Ratings by Category");
 			return new Response<>(false, ResponseCode.FAILED.toString(), "Failed to fetch Total Ratings By Category");
-		});
+		}
+		logger.info("Successfully fetched Total Ratings by Category");
+		return new Response<>(true, "Success", "Succeeded in getting Total Ratings By Category", ratings);
+	}
+
+	/**
+	 * The monthly average ratings response, already serialized. It is encoded
+	 * once per change to the reviews rather than on every request.
+	 */
+	public EncodedResponse getMonthlyAverageRatingsBody() {
+		return queryCache.getMonthlyAverageRatingsBody(() -> encode(getMonthlyAverageRatings()));
+	}
+
+	public EncodedResponse getTotalRatingsByCategoryBody() {
+		return queryCache.getTotalRatingsByCategoryBody(() -> encode(getTotalRatingsByCategory()));
+	}
+
+	private EncodedResponse encode(Response<?> response) {
+		try {
+			byte[] json = objectMapper.writeValueAsBytes(response);
+			byte[] gzip = null;
+			if (json.length >= GZIP_MIN_BYTES) {
+				ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4);
+				try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+					out.write(json);
+				}
+				gzip = compressed.toByteArray();
+			}
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+			String etag = "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+			return new EncodedResponse(json, gzip, etag);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	public Response<Integer> rebuildRatingRollups() {
+		logger.info("Rebuilding rating rollups");
+		int rows = reviewRollupRepository.rebuild();
+		queryCache.invalidateAggregates();
+		logger.info("Rebuilt {} rating rollup rows", rows);
+		return new Response<>(true, "Success", "Rebuilt rating rollups", rows);
 	}
 }
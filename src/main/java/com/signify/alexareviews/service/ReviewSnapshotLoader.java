@@ -0,0 +1,143 @@
+package com.signify.alexareviews.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.repository.ReviewBatchRepository;
+import com.signify.alexareviews.repository.ReviewRollupRepository;
+
+/**
+ * Restores the reviews table and the rating rollups from a snapshot written by
+ * {@link ReviewSnapshotService}, replacing what the migrations seeded. Meant to
+ * run right after the migrations and before anything reads the tables, so the
+ * in-memory indexes then load the restored rows. The file is memory-mapped and
+ * decoded front to back, and rows go in as plain JDBC batches.
+ * <p>
+ * Only in-memory databases are restored; a persistent database already has its
+ * data.
+ */
+public class ReviewSnapshotLoader {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReviewSnapshotLoader.class);
+	private static final long REGION_SIZE = 64 * 1024 * 1024;
+
+	private final DataSource dataSource;
+	private final Path path;
+	private final int batchSize;
+
+	public ReviewSnapshotLoader(DataSource dataSource, Path path, int batchSize) {
+		this.dataSource = dataSource;
+		this.path = path;
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * A snapshot that cannot be read is moved aside to {@code <name>.corrupt},
+	 * so the next snapshot does not overwrite it, and the tables are left empty.
+	 *
+	 * @return the number of reviews restored
+	 */
+	public long restore() throws IOException {
+		if (!Files.exists(path)) {
+			logger.info("No review snapshot at {}, starting from the migrated database", path);
+			return 0;
+		}
+		if (!EmbeddedDatabaseConnection.isEmbedded(dataSource)) {
+			logger.warn("Not restoring review snapshot {} into a database that is not in-memory", path);
+			return 0;
+		}
+		long start = System.nanoTime();
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		ReviewBatchRepository batchRepository = new ReviewBatchRepository(jdbcTemplate);
+		clear(jdbcTemplate);
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+				ReviewBinaryReader reader = new ReviewBinaryReader(new MappedInputStream(channel))) {
+			List<Review> batch = new ArrayList<>(batchSize);
+			Review review;
+			while ((review = reader.read()) != null) {
+				batch.add(review);
+				if (batch.size() == batchSize) {
+					batchRepository.insertAll(batch);
+					batch.clear();
+				}
+			}
+			batchRepository.insertAll(batch);
+			new ReviewRollupRepository(jdbcTemplate).insertAll(reader.getRollups());
+			logger.info("Restored {} reviews and {} rating rollups from {} in {} ms", reader.getRows(),
+					reader.getRollups().size(), path, (System.nanoTime() - start) / 1_000_000);
+			return reader.getRows();
+		} catch (IOException | DataAccessException e) {
+			Path corrupt = path.resolveSibling(path.getFileName() + ".corrupt");
+			logger.error("Could not restore review snapshot {}, moved it to {} and starting empty", path, corrupt, e);
+			clear(jdbcTemplate);
+			Files.move(path, corrupt, StandardCopyOption.REPLACE_EXISTING);
+			return 0;
+		}
+	}
+
+	private static void clear(JdbcTemplate jdbcTemplate) {
+		jdbcTemplate.update("DELETE FROM reviews");
+		jdbcTemplate.update("DELETE FROM review_rating_rollups");
+	}
+
+	// Reads the file through successive read-only mappings, so files past 2 GB work
+	private static final class MappedInputStream extends InputStream {
+
+		private final FileChannel channel;
+		private final long size;
+		private long position;
+		private MappedByteBuffer region;
+
+		MappedInputStream(FileChannel channel) throws IOException {
+			this.channel = channel;
+			this.size = channel.size();
+		}
+
+		@Override
+		public int read() throws IOException {
+			return nextRegion() ? region.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) throws IOException {
+			if (length == 0) {
+				return 0;
+			}
+			if (!nextRegion()) {
+				return -1;
+			}
+			int count = Math.min(length, region.remaining());
+			region.get(bytes, offset, count);
+			return count;
+		}
+
+		private boolean nextRegion() throws IOException {
+			if (region != null && region.hasRemaining()) {
+				return true;
+			}
+			if (position >= size) {
+				return false;
+			}
+			region = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(REGION_SIZE, size - position));
+			position += region.limit();
+			return true;
+		}
+	}
+}
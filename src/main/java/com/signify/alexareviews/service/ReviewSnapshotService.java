@@ -0,0 +1,140 @@
+package com.signify.alexareviews.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.signify.alexareviews.model.RatingRollup;
+import com.signify.alexareviews.model.ReviewFilter;
+import com.signify.alexareviews.repository.ReviewQueryRepository;
+import com.signify.alexareviews.repository.ReviewRollupRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Writes the reviews table and the rating rollups to a local snapshot file,
+ * enabled with {@code project.snapshot.path}, so an in-memory database comes
+ * back from a restart without importing again (see
+ * {@link ReviewSnapshotLoader}). The snapshot is rewritten every
+ * {@code project.snapshot.interval} and on shutdown, but only if reviews were
+ * saved or retired since the last one. It uses the binary export format, read
+ * in one repeatable-read transaction so rows and rollups agree, and replaces
+ * the previous file atomically.
+ */
+@Service
+@ConditionalOnProperty("project.snapshot.path")
+public class ReviewSnapshotService {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReviewSnapshotService.class);
+	private final ReviewQueryRepository reviewQueryRepository;
+	private final ReviewRollupRepository rollupRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final ObjectProvider<ReviewWriteBuffer> writeBuffer;
+	private final Path path;
+	private final AtomicBoolean changed = new AtomicBoolean();
+
+	public ReviewSnapshotService(ReviewQueryRepository reviewQueryRepository, ReviewRollupRepository rollupRepository,
+			PlatformTransactionManager transactionManager, ObjectProvider<ReviewWriteBuffer> writeBuffer,
+			@Value("${project.snapshot.path}") Path path) {
+		this.reviewQueryRepository = reviewQueryRepository;
+		this.rollupRepository = rollupRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setReadOnly(true);
+		this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+		this.writeBuffer = writeBuffer;
+		this.path = path;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onReviewsSaved(ReviewsSavedEvent event) {
+		changed.set(true);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onReviewsRetired(ReviewsRetiredEvent event) {
+		changed.set(true);
+	}
+
+	@Scheduled(fixedDelayString = "${project.snapshot.interval:PT10M}", initialDelayString = "${project.snapshot.interval:PT10M}")
+	public void writeIfChanged() throws IOException {
+		if (!changed.getAndSet(false)) {
+			return;
+		}
+		try {
+			write();
+		} catch (IOException | RuntimeException e) {
+			changed.set(true);
+			throw e;
+		}
+	}
+
+	/**
+	 * Drains the write-behind buffer first, if there is one, so the reviews it
+	 * acknowledged are in the last snapshot.
+	 */
+	@PreDestroy
+	public void shutdown() throws IOException, InterruptedException {
+		ReviewWriteBuffer buffer = writeBuffer.getIfAvailable();
+		if (buffer != null) {
+			buffer.stop();
+		}
+		writeIfChanged();
+	}
+
+	/**
+	 * @return the number of reviews written
+	 */
+	public long write() throws IOException {
+		long start = System.nanoTime();
+		Path partial = path.resolveSibling(path.getFileName() + ".part");
+		Files.createDirectories(path.toAbsolutePath().getParent());
+		long rows;
+		try (OutputStream out = Files.newOutputStream(partial);
+				ReviewBinaryWriter writer = new ReviewBinaryWriter(out, ReviewBinaryWriter.SNAPSHOT_VERSION)) {
+			transactionTemplate.executeWithoutResult(status -> {
+				try {
+					for (RatingRollup rollup : rollupRepository.findAll()) {
+						writer.writeRollup(rollup);
+					}
+					reviewQueryRepository.stream(ReviewFilter.NONE, review -> {
+						try {
+							writer.write(review);
+						} catch (IOException e) {
+							throw new UncheckedIOException(e);
+						}
+					});
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+			writer.finish();
+			rows = writer.getRows();
+		} catch (UncheckedIOException e) {
+			Files.deleteIfExists(partial);
+			throw e.getCause();
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(partial);
+			throw e;
+		}
+		Files.move(partial, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		logger.info("Wrote snapshot of {} reviews to {} ({} bytes) in {} ms", rows, path, Files.size(path),
+				(System.nanoTime() - start) / 1_000_000);
+		return rows;
+	}
+}
@@ -0,0 +1,318 @@
+package com.signify.alexareviews.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.entity.ReviewIds;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind buffer for single review writes, enabled with
+ * {@code project.ingest.write-behind.enabled=true}. A submitted review is
+ * acknowledged once it is in a bounded in-memory queue (and the journal); one
+ * flusher thread then stores the queue in group commits through
+ * {@link ReviewBatchWriter}, one transaction per {@code batch-size} reviews or
+ * per {@code max-delay}, whichever comes first.
+ * <p>
+ * How much an acknowledged review survives depends on {@link Durability}. A
+ * batch that fails for any reason other than a review being invalid is retried
+ * until it is stored, and journal entries are only released once their reviews
+ * are stored or kept as rejected (see {@link ReviewJournal#reject}). The
+ * journal is replayed on startup; the batch writer skips ids already stored,
+ * so replaying entries that were committed before the crash is harmless.
+ */
+@Component
+@ConditionalOnProperty(name = "project.ingest.write-behind.enabled", havingValue = "true")
+public class ReviewWriteBuffer implements MeterBinder {
+
+	public enum Durability {
+		/** Kept in memory only, lost if the process dies before the flush. */
+		NONE,
+		/** Appended to the journal, survives the process but not the machine crashing. */
+		JOURNAL,
+		/** Appended to the journal and forced to disk before acknowledging. */
+		FSYNC
+	}
+
+	private record Pending(Review review, ReviewJournal.Segment segment) {
+	}
+
+	private static final Logger logger = LoggerFactory.getLogger(ReviewWriteBuffer.class);
+	private static final long POLL_MILLIS = 100;
+	private static final long RETRY_MILLIS = 1000;
+	private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
+	private final ReviewBatchWriter batchWriter;
+	private final int capacity;
+	private final int batchSize;
+	private final long maxDelayNanos;
+	private final ReviewJournal journal;
+	private final Semaphore permits;
+	private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+	private final Thread flusher;
+	private volatile boolean running = true;
+	// Read by the flusher, which is started after it is set
+	private List<Review> replayed = List.of();
+
+	public ReviewWriteBuffer(ReviewBatchWriter batchWriter, ObjectMapper objectMapper,
+			@Value("${project.ingest.write-behind.capacity:10000}") int capacity,
+			@Value("${project.ingest.write-behind.batch-size:500}") int batchSize,
+			@Value("${project.ingest.write-behind.max-delay:50ms}") Duration maxDelay,
+			@Value("${project.ingest.write-behind.durability:JOURNAL}") Durability durability,
+			@Value("${project.ingest.write-behind.journal-dir:data/journal}") Path journalDir,
+			@Value("${project.ingest.write-behind.journal-segment-size:64MB}") DataSize segmentSize)
+			throws IOException {
+		if (capacity < 1 || batchSize < 1) {
+			throw new IllegalArgumentException("Write buffer capacity and batch size must be positive");
+		}
+		this.batchWriter = batchWriter;
+		this.capacity = capacity;
+		this.batchSize = batchSize;
+		this.maxDelayNanos = maxDelay.toNanos();
+		this.journal = durability == Durability.NONE ? null
+				: new ReviewJournal(journalDir, segmentSize.toBytes(), durability == Durability.FSYNC, objectMapper);
+		this.permits = new Semaphore(capacity);
+		this.flusher = new Thread(this::run, "review-write-behind");
+		this.flusher.setDaemon(true);
+		logger.info("Buffering review writes: capacity {}, batches of {}, max delay {}, durability {}", capacity,
+				batchSize, maxDelay, durability);
+	}
+
+	/**
+	 * Starts flushing, beginning with what the journal of the previous run still
+	 * holds. Runs once event listeners are registered, so the replayed reviews
+	 * reach the in-memory indexes like any other write.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() throws IOException {
+		if (journal != null) {
+			replayed = journal.replay();
+		}
+		flusher.start();
+	}
+
+	/**
+	 * Queues a new review and assigns it an id. A review that already has an id
+	 * is refused: the group commit only inserts, so it could not update a stored
+	 * review the way a synchronous save does.
+	 *
+	 * @throws IllegalArgumentException   if a required field is missing or the
+	 *                                    review has an id
+	 * @throws RejectedExecutionException if the buffer is full or shut down
+	 */
+	public Review submit(Review review) throws IOException {
+		if (!ReviewImportService.isComplete(review)) {
+			throw new IllegalArgumentException("Review is missing required fields or has a rating outside 1 to 5");
+		}
+		if (review.getId() != null) {
+			throw new IllegalArgumentException("Review ids are assigned by the server");
+		}
+		if (!running) {
+			throw new RejectedExecutionException("Write buffer is shut down");
+		}
+		if (!permits.tryAcquire()) {
+			throw new RejectedExecutionException("Write buffer is full");
+		}
+		try {
+			review.setId(ReviewIds.timeOrdered());
+			queue.add(new Pending(review, journal != null ? journal.append(review) : null));
+			return review;
+		} catch (IOException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Reviews accepted but not stored yet.
+	 */
+	public int size() {
+		return capacity - permits.availablePermits();
+	}
+
+	/**
+	 * Flushes what is queued and closes the journal. Reviews that cannot be
+	 * stored now stay in the journal for the next start.
+	 */
+	@PreDestroy
+	public void stop() throws IOException, InterruptedException {
+		running = false;
+		if (flusher.isAlive()) {
+			flusher.join(SHUTDOWN_TIMEOUT.toMillis());
+		}
+		if (!queue.isEmpty()) {
+			logger.warn("{} buffered reviews were not stored before shutdown{}", queue.size(),
+					journal != null ? ", they will be replayed from the journal" : " and are lost");
+		}
+		if (journal != null) {
+			journal.close();
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("reviews.write.buffer.size", this, ReviewWriteBuffer::size)
+				.description("Reviews accepted by the write-behind buffer but not stored yet").register(registry);
+	}
+
+	private void run() {
+		List<Pending> batch = new ArrayList<>(batchSize);
+		try {
+			if (!replay()) {
+				return;
+			}
+			while (running || !queue.isEmpty()) {
+				Pending first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				// Waits at most max-delay for a batch to fill, a burst fills it right away
+				long deadline = System.nanoTime() + maxDelayNanos;
+				while (batch.size() < batchSize) {
+					queue.drainTo(batch, batchSize - batch.size());
+					long remaining = deadline - System.nanoTime();
+					if (batch.size() == batchSize || remaining <= 0) {
+						break;
+					}
+					Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+				if (!flush(batch)) {
+					return;
+				}
+				batch.clear();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	// The journal segments of the previous run are deleted once all of their
+	// reviews are stored or kept as rejected
+	private boolean replay() throws InterruptedException {
+		if (replayed.isEmpty()) {
+			deleteReplayed();
+			return true;
+		}
+		boolean kept = true;
+		for (int from = 0; from < replayed.size(); from += batchSize) {
+			List<Review> rejected = store(replayed.subList(from, Math.min(replayed.size(), from + batchSize)));
+			if (rejected == null) {
+				return false;
+			}
+			kept &= rejected.isEmpty() || keepRejected(rejected);
+		}
+		logger.info("Replayed {} journaled reviews", replayed.size());
+		if (kept) {
+			deleteReplayed();
+		}
+		return true;
+	}
+
+	private boolean flush(List<Pending> batch) throws InterruptedException {
+		List<Review> rejected = store(batch.stream().map(Pending::review).toList());
+		if (rejected == null) {
+			queue.addAll(batch);
+			return false;
+		}
+		Set<Review> unreleased = Collections.newSetFromMap(new IdentityHashMap<>());
+		if (!rejected.isEmpty() && !keepRejected(rejected)) {
+			unreleased.addAll(rejected);
+		}
+		permits.release(batch.size());
+		if (journal != null) {
+			Map<ReviewJournal.Segment, Integer> counts = new IdentityHashMap<>();
+			for (Pending pending : batch) {
+				if (!unreleased.contains(pending.review())) {
+					counts.merge(pending.segment(), 1, Integer::sum);
+				}
+			}
+			for (Map.Entry<ReviewJournal.Segment, Integer> entry : counts.entrySet()) {
+				try {
+					journal.committed(entry.getKey(), entry.getValue());
+				} catch (IOException e) {
+					logger.warn("Could not release journal segment {}", entry.getKey().path, e);
+				}
+			}
+		}
+		return true;
+	}
+
+	// Retries until the reviews are stored, e.g. while the database is unreachable
+	// or a deadlock keeps rolling the batch back. Returns the reviews the database
+	// refused as invalid, or null if shutting down first, leaving them to the journal
+	private List<Review> store(List<Review> reviews) throws InterruptedException {
+		while (true) {
+			try {
+				return batchWriter.writeAcknowledged(reviews);
+			} catch (RuntimeException e) {
+				if (!running) {
+					logger.error("Could not store {} buffered reviews before shutdown", reviews.size(), e);
+					return null;
+				}
+				logger.warn("Storing {} buffered reviews failed, retrying in {} ms", reviews.size(), RETRY_MILLIS, e);
+				Thread.sleep(RETRY_MILLIS);
+			}
+		}
+	}
+
+	// Moves reviews the database refused to the journal's rejected file. If that
+	// fails their entries stay in the journal and are tried again on the next start
+	private boolean keepRejected(List<Review> rejected) {
+		if (journal == null) {
+			logger.error("{} buffered reviews were refused by the database and are lost", rejected.size());
+			return true;
+		}
+		try {
+			journal.reject(rejected);
+			logger.error("{} buffered reviews were refused by the database, kept in the journal's rejected file",
+					rejected.size());
+			return true;
+		} catch (IOException e) {
+			logger.error("Could not keep {} refused reviews, leaving them in the journal", rejected.size(), e);
+			return false;
+		}
+	}
+
+	private void deleteReplayed() {
+		if (journal == null) {
+			return;
+		}
+		try {
+			journal.deleteReplayed();
+		} catch (IOException e) {
+			logger.warn("Could not delete replayed journal segments", e);
+		}
+	}
+}
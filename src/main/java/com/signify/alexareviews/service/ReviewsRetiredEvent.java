@@ -0,0 +1,12 @@
+package com.signify.alexareviews.service;
+
+import java.time.LocalDate;
+
+/**
+ * Published once every review dated before {@code before} has been removed,
+ * e.g. by dropping old partitions. Listeners holding reviews in memory drop
+ * them too, using {@code @TransactionalEventListener(fallbackExecution = true)}
+ * like for {@link ReviewsSavedEvent}.
+ */
+public record ReviewsRetiredEvent(LocalDate before) {
+}
@@ -0,0 +1,21 @@
+package com.signify.alexareviews.service;
+
+import java.util.List;
+
+import com.signify.alexareviews.entity.Review;
+
+/**
+ * Published by every write path with the reviews it stored. Listeners that
+ * keep derived state in memory should use
+ * {@code @TransactionalEventListener(fallbackExecution = true)} so they only
+ * see reviews once they are committed.
+ * <p>
+ * {@code replaced} holds the values the updated reviews had before; a review
+ * whose id is not among them was inserted.
+ */
+public record ReviewsSavedEvent(List<Review> reviews, List<Review> replaced) {
+
+	public ReviewsSavedEvent(List<Review> reviews) {
+		this(reviews, List.of());
+	}
+}
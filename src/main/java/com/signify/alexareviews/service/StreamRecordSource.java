@@ -0,0 +1,91 @@
+package com.signify.alexareviews.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a stream of newline delimited JSON into records as it arrives, e.g. an
+ * upload still being received. Records are slices of the block they were read
+ * into, and every refill starts a fresh block carrying over only the partial
+ * record at the end, so slices handed out earlier stay valid while memory is
+ * bounded by the blocks still queued in the pipeline.
+ */
+public class StreamRecordSource implements ReviewImportPipeline.RecordSource<ByteBuffer> {
+
+	static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+	private final InputStream in;
+	private final int blockSize;
+	private byte[] block;
+	private int start;
+	private int end;
+	private boolean eof;
+	private boolean shared;
+
+	public StreamRecordSource(InputStream in) {
+		this(in, DEFAULT_BLOCK_SIZE);
+	}
+
+	StreamRecordSource(InputStream in, int blockSize) {
+		this.in = in;
+		this.blockSize = blockSize;
+		this.block = new byte[0];
+	}
+
+	@Override
+	public List<ByteBuffer> read(int max) throws IOException {
+		List<ByteBuffer> records = new ArrayList<>(max);
+		while (records.size() < max) {
+			int newline = MappedRecordSource.indexOfNewline(ByteBuffer.wrap(block), start, end);
+			if (newline >= 0) {
+				add(records, start, newline);
+				start = newline + 1;
+			} else if (eof) {
+				add(records, start, end);
+				start = end;
+				break;
+			} else {
+				refill();
+			}
+		}
+		return records;
+	}
+
+	private void add(List<ByteBuffer> records, int from, int to) {
+		if (to > from && block[to - 1] == '\r') {
+			to--;
+		}
+		if (to > from) {
+			records.add(ByteBuffer.wrap(block, from, to - from).slice());
+			shared = true;
+		}
+	}
+
+	private void refill() throws IOException {
+		if (shared || end == block.length) {
+			// Slices of the current block may still be queued, so never write into it again
+			int pending = end - start;
+			byte[] next = new byte[Math.max(blockSize, pending * 2)];
+			System.arraycopy(block, start, next, 0, pending);
+			block = next;
+			start = 0;
+			end = pending;
+			shared = false;
+		}
+		while (end < block.length) {
+			int read = in.read(block, end, block.length - end);
+			if (read < 0) {
+				eof = true;
+				return;
+			}
+			end += read;
+			if (read == 0 || in.available() == 0) {
+				// Hand over what has arrived rather than waiting for a full block
+				return;
+			}
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package com.signify.alexareviews.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ResponseSizeFilterTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final ResponseSizeFilter filter = new ResponseSizeFilter(registry);
+
+	@Test
+	void testCountsBytesWrittenToTheOutputStream() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(new MockHttpServletRequest("GET", "/v1/api/reviews"), response,
+				(req, res) -> res.getOutputStream().write(new byte[1234]));
+
+		assertThat(summary().totalAmount()).isEqualTo(1234);
+	}
+
+	@Test
+	void testCountsEncodedBytesWrittenToTheWriter() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(new MockHttpServletRequest("GET", "/error"), response, (req, res) -> {
+			res.setCharacterEncoding("UTF-8");
+			res.getWriter().print("h\u00e9llo \u20ac \ud83d\ude00");
+			res.getWriter().flush();
+		});
+
+		assertThat(response.getContentAsByteArray()).hasSize(15);
+		assertThat(response.getContentAsString(StandardCharsets.UTF_8)).isEqualTo("h\u00e9llo \u20ac \ud83d\ude00");
+		assertThat(summary().totalAmount()).isEqualTo(15);
+	}
+
+	private DistributionSummary summary() {
+		return registry.get("http.server.response.size").tag("status", "200").summary();
+	}
+}
@@ -0,0 +1,24 @@
+package com.signify.alexareviews.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+public class VirtualThreadsTest {
+
+	@Test
+	void testExecutorRunsTasksOnNamedVirtualThreads() throws Exception {
+		AtomicReference<Thread> thread = new AtomicReference<>();
+
+		ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("test-virtual-");
+		executor.submit(() -> thread.set(Thread.currentThread())).get(5, TimeUnit.SECONDS);
+		executor.shutdown();
+
+		assertThat(thread.get().getName()).isEqualTo("test-virtual-0");
+		assertThat(thread.get().isVirtual()).isTrue();
+	}
+}
@@ -0,0 +1,68 @@
+package com.signify.alexareviews.controller;
+
+import com.signify.alexareviews.model.RatingPeriod;
+import com.signify.alexareviews.model.RatingSummary;
+import com.signify.alexareviews.model.ReviewFilter;
+import com.signify.alexareviews.service.ReviewAnalyticsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReviewAnalyticsController.class)
+class ReviewAnalyticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReviewAnalyticsService analyticsService;
+
+    @Test
+    void getRatingSummary_ShouldReturnSummary() throws Exception {
+        ReviewFilter filter = new ReviewFilter(null, null, "iTunes", null, null);
+        given(analyticsService.summarize(filter, List.of(90)))
+                .willReturn(new RatingSummary(3, 4.0, new long[] { 0, 0, 1, 1, 1 }, Map.of("p90", 5)));
+
+        mockMvc.perform(get("/v1/api/reviews/analytics/summary")
+                .param("storeType", "iTunes")
+                .param("percentiles", "90"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.count", is(3)))
+                .andExpect(jsonPath("$.data.histogram[4]", is(1)))
+                .andExpect(jsonPath("$.data.percentiles.p90", is(5)));
+    }
+
+    @Test
+    void getRatingSummary_InvalidPercentile_ShouldReturnBadRequest() throws Exception {
+        given(analyticsService.summarize(any(), eq(List.of(101))))
+                .willThrow(new IllegalArgumentException("Percentiles must be between 1 and 100, got 101"));
+
+        mockMvc.perform(get("/v1/api/reviews/analytics/summary").param("percentiles", "101"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code", is("BAD_REQUEST")));
+    }
+
+    @Test
+    void getWeeklyHistograms_ShouldReturnWeeks() throws Exception {
+        given(analyticsService.weeklyHistograms(any())).willReturn(
+                List.of(new RatingPeriod(LocalDate.of(2024, 2, 5), 2, 4.5, new long[] { 0, 0, 0, 1, 1 })));
+
+        mockMvc.perform(get("/v1/api/reviews/analytics/weekly"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].start", is("2024-02-05")))
+                .andExpect(jsonPath("$.data[0].averageRating", is(4.5)));
+    }
+}
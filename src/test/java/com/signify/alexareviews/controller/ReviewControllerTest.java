@@ -2,7 +2,16 @@ package com.signify.alexareviews.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.model.EncodedResponse;
+import com.signify.alexareviews.model.ImportJob;
+import com.signify.alexareviews.model.ImportProgress;
 import com.signify.alexareviews.model.Response;
+import com.signify.alexareviews.model.ReviewField;
+import com.signify.alexareviews.model.ReviewFilter;
+import com.signify.alexareviews.model.ReviewPage;
+import com.signify.alexareviews.model.ReviewView;
+import com.signify.alexareviews.service.ImportJobService;
+import com.signify.alexareviews.service.ReviewImportService;
 import com.signify.alexareviews.service.ReviewService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,17 +20,27 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -34,6 +53,12 @@ class ReviewControllerTest {
     @MockBean
     private ReviewService reviewService;
 
+    @MockBean
+    private ImportJobService importJobService;
+
+    @MockBean
+    private ReviewImportService reviewImportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -61,7 +86,7 @@ class ReviewControllerTest {
     @Test
     void getReviews_ShouldReturnListOfReviews() throws Exception {
         Response<List<Review>> responseObj = new Response<>(true, "200", "Success", Collections.singletonList(review));
-        given(reviewService.getReviews(any(), any(), any(), any())).willReturn(responseObj);
+        given(reviewService.getReviews(any())).willReturn(responseObj);
 
         ResultActions response = mockMvc.perform(get("/v1/api/reviews"));
 
@@ -75,14 +100,258 @@ class ReviewControllerTest {
     @Test
     void getMonthlyAverageRatings_ShouldReturnData() throws Exception {
         Response<List<Map<String, Object>>> responseObj = new Response<>(true, "200", "Success", Collections.emptyList());
-        given(reviewService.getMonthlyAverageRatings()).willReturn(responseObj);
+        given(reviewService.getMonthlyAverageRatingsBody())
+                .willReturn(new EncodedResponse(objectMapper.writeValueAsBytes(responseObj), null, "\"abc\""));
 
         ResultActions response = mockMvc.perform(get("/v1/api/reviews/monthly-average"));
 
         response.andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"abc\""))
                 .andExpect(jsonPath("$.success", is(true)))
                 .andExpect(jsonPath("$.code", is("200")))
                 .andExpect(jsonPath("$.message", is("Success")))
                 .andExpect(jsonPath("$.data").isArray());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getMonthlyAverageRatings_MatchingEtag_ShouldReturnNotModified() throws Exception {
+        given(reviewService.getMonthlyAverageRatingsBody())
+                .willReturn(new EncodedResponse("{}".getBytes(StandardCharsets.UTF_8), null, "\"abc\""));
+
+        mockMvc.perform(get("/v1/api/reviews/monthly-average").header("If-None-Match", "\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void getTotalRatingsByCategory_AcceptsGzip_ShouldReturnCompressedBody() throws Exception {
+        byte[] gzip = { 31, -117, 8, 0 };
+        given(reviewService.getTotalRatingsByCategoryBody())
+                .willReturn(new EncodedResponse("{}".getBytes(StandardCharsets.UTF_8), gzip, "\"abc\""));
+
+        mockMvc.perform(get("/v1/api/reviews/total-ratings").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", "\"abc-gzip\""))
+                .andExpect(content().bytes(gzip));
+    }
+
+    @Test
+    void getTotalRatingsByCategory_RefusesGzip_ShouldReturnPlainBody() throws Exception {
+        byte[] json = "{}".getBytes(StandardCharsets.UTF_8);
+        given(reviewService.getTotalRatingsByCategoryBody())
+                .willReturn(new EncodedResponse(json, new byte[] { 31, -117, 8, 0 }, "\"abc\""));
+
+        mockMvc.perform(get("/v1/api/reviews/total-ratings").header("Accept-Encoding", "gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("ETag", "\"abc\""))
+                .andExpect(content().bytes(json));
+    }
+
+    @Test
+    void acceptsGzip_ShouldHonourQualityValues() {
+        assertThat(ReviewController.acceptsGzip("gzip, deflate")).isTrue();
+        assertThat(ReviewController.acceptsGzip("deflate;q=1.0, GZIP;q=0.5")).isTrue();
+        assertThat(ReviewController.acceptsGzip("*")).isTrue();
+        assertThat(ReviewController.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(ReviewController.acceptsGzip("gzip; q=0.000, *")).isFalse();
+        assertThat(ReviewController.acceptsGzip("*;q=0")).isFalse();
+        assertThat(ReviewController.acceptsGzip("br, nogzip")).isFalse();
+        assertThat(ReviewController.acceptsGzip(null)).isFalse();
+    }
+
+    @Test
+    void importReviews_ShouldQueueJob() throws Exception {
+        ImportJob job = new ImportJob("src/main/resources/alexa.json", 500);
+        given(importJobService.submit(isNull(), eq(500))).willReturn(job);
+
+        ResultActions response = mockMvc.perform(post("/v1/api/reviews/import").param("batchSize", "500"));
+
+        response.andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/v1/api/reviews/import/" + job.getId()))
+                .andExpect(jsonPath("$.data.id", is(job.getId().toString())))
+                .andExpect(jsonPath("$.data.status", is("QUEUED")));
+    }
+
+    @Test
+    void importReviews_InvalidBatchSize_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/v1/api/reviews/import").param("batchSize", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success", is(false)));
+    }
+
+    @Test
+    void importReviews_PathOutsideImportDirectory_ShouldReturnBadRequest() throws Exception {
+        given(importJobService.submit(eq("../secrets.json"), any()))
+                .willThrow(new IllegalArgumentException("File is outside the import directory: ../secrets.json"));
+
+        mockMvc.perform(post("/v1/api/reviews/import").param("filePath", "../secrets.json"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success", is(false)))
+                .andExpect(jsonPath("$.message", is("File is outside the import directory: ../secrets.json")));
+    }
+
+    @Test
+    void importReviews_QueueFull_ShouldReturnTooManyRequests() throws Exception {
+        given(importJobService.submit(any(), any())).willThrow(new RejectedExecutionException());
+
+        mockMvc.perform(post("/v1/api/reviews/import"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void getImportJob_UnknownId_ShouldReturnNotFound() throws Exception {
+        given(importJobService.getJob(any())).willReturn(Optional.empty());
+
+        mockMvc.perform(get("/v1/api/reviews/import/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void cancelImportJob_ShouldReturnJob() throws Exception {
+        ImportJob job = new ImportJob("src/main/resources/alexa.json", 1000);
+        job.requestCancel();
+        given(importJobService.cancel(job.getId())).willReturn(Optional.of(job));
+
+        mockMvc.perform(delete("/v1/api/reviews/import/" + job.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status", is("CANCELLED")));
+    }
+
+    @Test
+    void bulkAddReviews_ShouldReturnCounts() throws Exception {
+        ImportProgress progress = new ImportProgress();
+        progress.addParsed(2);
+        progress.addSaved(2);
+        given(reviewImportService.importReviews(any())).willReturn(progress);
+
+        mockMvc.perform(post("/v1/api/reviews/bulk")
+                .contentType("application/x-ndjson")
+                .content("{}\n{}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.rowsSaved", is(2)));
+    }
+
+    @Test
+    void bulkAddReviews_TooManyRunning_ShouldReturnTooManyRequests() throws Exception {
+        given(reviewImportService.importReviews(any())).willThrow(new RejectedExecutionException("busy"));
+
+        mockMvc.perform(post("/v1/api/reviews/bulk")
+                .contentType("application/x-ndjson")
+                .content("{}\n"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.success", is(false)));
+    }
+
+    @Test
+    void getReviewPage_ShouldReturnItemsAndCursor() throws Exception {
+        ReviewPage page = new ReviewPage(List.of(review), "abc");
+        given(reviewService.getReviewPage(eq(ReviewFilter.NONE), isNull(), eq(1)))
+                .willReturn(new Response<>(true, "Success", "Fetch review page succeeded", page));
+
+        mockMvc.perform(get("/v1/api/reviews/page").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.items.length()", is(1)))
+                .andExpect(jsonPath("$.data.nextCursor", is("abc")));
+    }
+
+    @Test
+    void getReviewPage_InvalidCursor_ShouldReturnBadRequest() throws Exception {
+        given(reviewService.getReviewPage(any(), eq("bad"), any()))
+                .willThrow(new IllegalArgumentException("Invalid cursor: bad"));
+
+        mockMvc.perform(get("/v1/api/reviews/page").param("cursor", "bad"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code", is("BAD_REQUEST")));
+    }
+
+    @Test
+    void streamReviews_ShouldWriteNdjson() throws Exception {
+        willAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("{\"review\":\"Great app!\"}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).given(reviewService).streamReviews(any(), any());
+
+        MvcResult result = mockMvc.perform(get("/v1/api/reviews/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"review\":\"Great app!\"}\n"));
+    }
+
+    @Test
+    void getReviews_ShouldCombineAllFilters() throws Exception {
+        ReviewFilter filter = new ReviewFilter(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31), "iTunes", 1,
+                "Amazon Alexa");
+        given(reviewService.getReviews(filter))
+                .willReturn(new Response<>(true, "Success", "Fetch reviews with filters succeeded", List.of(review)));
+
+        mockMvc.perform(get("/v1/api/reviews")
+                .param("startDate", "2024-03-01")
+                .param("endDate", "2024-03-31")
+                .param("storeType", "iTunes")
+                .param("rating", "1")
+                .param("productName", "Amazon Alexa"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()", is(1)));
+    }
+
+    @Test
+    void getReviews_WithFields_ShouldReturnOnlyThoseFields() throws Exception {
+        ReviewView view = new ReviewView(null, null, null, null, 4, null, null, LocalDate.of(2024, 3, 2));
+        given(reviewService.getReviews(ReviewFilter.NONE, EnumSet.of(ReviewField.RATING, ReviewField.REVIEWED_DATE)))
+                .willReturn(new Response<>(true, "Success", "Fetch reviews with filters succeeded", List.of(view)));
+
+        mockMvc.perform(get("/v1/api/reviews").param("fields", "rating,reviewed_date"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].rating", is(4)))
+                .andExpect(jsonPath("$.data[0].reviewed_date", is("2024-03-02")))
+                .andExpect(jsonPath("$.data[0].review").doesNotExist());
+    }
+
+    @Test
+    void getReviews_UnknownField_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/v1/api/reviews").param("fields", "rating,stars"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Unknown review field: stars")));
+    }
+
+    @Test
+    void streamReviews_UnknownField_ShouldReturnBadRequest() throws Exception {
+        MvcResult result = mockMvc.perform(get("/v1/api/reviews/stream").param("fields", "rating,stars"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.success", is(false)))
+                .andExpect(jsonPath("$.code", is("BAD_REQUEST")))
+                .andExpect(jsonPath("$.message", is("Unknown review field: stars")));
+    }
+
+    @Test
+    void rebuildRatingRollups_ShouldReturnRowCount() throws Exception {
+        given(reviewService.rebuildRatingRollups()).willReturn(new Response<>(true, "Success", "Rebuilt rating rollups", 7));
+
+        mockMvc.perform(post("/v1/api/reviews/rollups/rebuild"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", is(7)));
+    }
+
+    @Test
+    void getCacheStats_ShouldReturnCounters() throws Exception {
+        given(reviewService.getCacheStats()).willReturn(
+                new Response<>(true, "Success", "Fetch cache statistics succeeded", Map.of("hitCount", 3)));
+
+        mockMvc.perform(get("/v1/api/reviews/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.hitCount", is(3)));
+    }
+}
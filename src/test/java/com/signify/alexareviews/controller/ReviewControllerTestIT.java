@@ -2,21 +2,34 @@ package com.signify.alexareviews.controller;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
 import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.service.ReviewBinaryReader;
+import com.signify.alexareviews.service.ReviewBinaryWriter;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "project.reactive.url=r2dbc:h2:mem:///alexareviewss")
+@AutoConfigureObservability
 class ReviewControllerTestIT {
 
     @LocalServerPort
@@ -30,10 +43,186 @@ class ReviewControllerTestIT {
     }
 
     @Test
-    void testImportReviews() {
-        ResponseEntity<String> response = restTemplate.postForEntity(getBaseUrl() + "/import", null, String.class);
+    void testImportReviews() throws InterruptedException {
+        ResponseEntity<Map> response = restTemplate.postForEntity(getBaseUrl() + "/import", null, Map.class);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        String jobUrl = response.getHeaders().getLocation().toString();
+
+        Map<String, Object> job = null;
+        for (int attempt = 0; attempt < 600; attempt++) {
+            job = (Map<String, Object>) restTemplate.getForEntity("http://localhost:" + port + jobUrl, Map.class)
+                    .getBody().get("data");
+            if ("COMPLETED".equals(job.get("status")) || "FAILED".equals(job.get("status"))) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+        assertThat(job.get("status")).isEqualTo("COMPLETED");
+        assertThat(((Number) ((Map<String, Object>) job.get("progress")).get("rowsSaved")).longValue()).isPositive();
+    }
+
+    @Test
+    void testBulkAddReviews() {
+        String body = "{\"review\":\"Bulk one\",\"author\":\"A\",\"review_source\":\"iTunes\",\"rating\":4,\"title\":\"T\",\"product_name\":\"Amazon Alexa\",\"reviewed_date\":\"2018-01-12T02:27:03.000Z\"}\n"
+                + "not json\n"
+                + "{\"review\":\"Bulk two\",\"author\":\"B\",\"review_source\":\"Google Play Store\",\"rating\":2,\"title\":\"T\",\"product_name\":\"Amazon Alexa\",\"reviewed_date\":\"2018-01-13T02:27:03.000Z\"}\n";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/x-ndjson"));
+
+        ResponseEntity<Map> response = restTemplate.postForEntity(getBaseUrl() + "/bulk",
+                new HttpEntity<>(body, headers), Map.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Map<String, Object> progress = (Map<String, Object>) response.getBody().get("data");
+        assertThat(progress.get("rowsSaved")).isEqualTo(2);
+        assertThat(progress.get("rowsSkipped")).isEqualTo(1);
+    }
+
+    @Test
+    void testBulkAddSkipsReviewsAlreadyStored() {
+        String line = "{\"review\":\"Imported once\",\"author\":\"Dedup\",\"review_source\":\"iTunes\",\"rating\":5,\"title\":\"T\",\"product_name\":\"Amazon Alexa\",\"reviewed_date\":\"2004-04-04T02:27:03.000Z\"}\n";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/x-ndjson"));
+
+        Map<String, Object> first = (Map<String, Object>) restTemplate
+                .postForEntity(getBaseUrl() + "/bulk", new HttpEntity<>(line + line, headers), Map.class).getBody()
+                .get("data");
+        Map<String, Object> second = (Map<String, Object>) restTemplate
+                .postForEntity(getBaseUrl() + "/bulk", new HttpEntity<>(line, headers), Map.class).getBody()
+                .get("data");
+
+        assertThat(first.get("rowsSaved")).isEqualTo(1);
+        assertThat(first.get("rowsSkipped")).isEqualTo(1);
+        assertThat(second.get("rowsSaved")).isEqualTo(0);
+        assertThat(second.get("rowsSkipped")).isEqualTo(1);
+        Map<String, Object> stored = restTemplate
+                .getForEntity(getBaseUrl() + "?startDate=2004-04-01&endDate=2004-04-30", Map.class).getBody();
+        assertThat((List<?>) stored.get("data")).hasSize(1);
+    }
+
+    @Test
+    void testGetReviewPages() {
+        for (int day = 1; day <= 3; day++) {
+            restTemplate.postForEntity(getBaseUrl(), new Review(null, "Paged " + day, "Pager", "iTunes", 3, "Page",
+                    "Amazon Alexa", LocalDate.of(2001, 1, day)), Review.class);
+        }
+        String url = getBaseUrl() + "/page?startDate=2001-01-01&endDate=2001-01-31&limit=2";
+
+        Map<String, Object> first = (Map<String, Object>) restTemplate.getForEntity(url, Map.class).getBody().get("data");
+        assertThat((List<?>) first.get("items")).hasSize(2);
+        assertThat(first.get("nextCursor")).isNotNull();
+
+        Map<String, Object> second = (Map<String, Object>) restTemplate
+                .getForEntity(url + "&cursor=" + first.get("nextCursor"), Map.class).getBody().get("data");
+        assertThat((List<Map<String, Object>>) second.get("items")).extracting(item -> item.get("review"))
+                .containsExactly("Paged 3");
+        assertThat(second.get("nextCursor")).isNull();
+
+        ResponseEntity<String> stream = restTemplate
+                .getForEntity(getBaseUrl() + "/stream?startDate=2001-01-01&endDate=2001-01-31", String.class);
+        assertThat(stream.getHeaders().getContentType().toString()).startsWith("application/x-ndjson");
+        assertThat(stream.getBody().split("\n")).hasSize(3);
+
+        ResponseEntity<String> ratings = restTemplate.getForEntity(
+                getBaseUrl() + "/stream?startDate=2001-01-01&endDate=2001-01-31&fields=rating,reviewed_date",
+                String.class);
+        assertThat(ratings.getBody().split("\n")).hasSize(3)
+                .allMatch(line -> line.startsWith("{\"rating\":3,\"reviewed_date\":\"2001-01-0"));
+
+        Map<String, Object> projected = restTemplate.getForEntity(
+                getBaseUrl() + "?startDate=2001-01-01&endDate=2001-01-31&fields=id,rating", Map.class).getBody();
+        assertThat((List<Map<String, Object>>) projected.get("data")).hasSize(3)
+                .allSatisfy(item -> assertThat(item).containsOnlyKeys("id", "rating"));
+    }
+
+    @Test
+    void testReactiveStream() {
+        for (int day = 3; day >= 1; day--) {
+            restTemplate.postForEntity(getBaseUrl(), new Review(null, "Reactive " + day, "Streamer", "iTunes", 4,
+                    "Reactive", "Amazon Alexa", LocalDate.of(2002, 2, day)), Review.class);
+        }
+        String url = getBaseUrl() + "/reactive?startDate=2002-02-01&endDate=2002-02-28";
+
+        HttpHeaders ndjson = new HttpHeaders();
+        ndjson.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        ResponseEntity<String> lines = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(ndjson),
+                String.class);
+        assertThat(lines.getHeaders().getContentType().toString()).startsWith("application/x-ndjson");
+        assertThat(lines.getBody().split("\n")).hasSize(3);
+        assertThat(lines.getBody().indexOf("Reactive 1")).isLessThan(lines.getBody().indexOf("Reactive 3"));
+
+        HttpHeaders sse = new HttpHeaders();
+        sse.setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+        ResponseEntity<String> events = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(sse),
+                String.class);
+        assertThat(events.getHeaders().getContentType().toString()).startsWith("text/event-stream");
+        assertThat(events.getBody().split("\n")).filteredOn(line -> line.startsWith("data:")).hasSize(3);
+    }
+
+    @Test
+    void testExportReviews() throws IOException {
+        for (int day = 1; day <= 3; day++) {
+            restTemplate.postForEntity(getBaseUrl(), new Review(null, "Exported " + day, "Exporter", "iTunes", day,
+                    day == 2 ? null : "Export", "Amazon Alexa", LocalDate.of(2003, 3, day)), Review.class);
+        }
+
+        ResponseEntity<byte[]> export = restTemplate
+                .getForEntity(getBaseUrl() + "/export?startDate=2003-03-01&endDate=2003-03-31", byte[].class);
+
+        assertThat(export.getHeaders().getContentType().toString()).isEqualTo(ReviewBinaryWriter.MEDIA_TYPE);
+        List<Review> reviews = new ArrayList<>();
+        try (ReviewBinaryReader reader = new ReviewBinaryReader(new ByteArrayInputStream(export.getBody()))) {
+            Review review;
+            while ((review = reader.read()) != null) {
+                reviews.add(review);
+            }
+        }
+        assertThat(reviews).extracting(Review::getReview).containsExactly("Exported 1", "Exported 2", "Exported 3");
+        assertThat(reviews.get(1).getTitle()).isNull();
+    }
+
+    @Test
+    void testAnalyticsSeeNewReviews() {
+        String url = getBaseUrl() + "/analytics/summary?startDate=1999-03-01&endDate=1999-03-31";
+        restTemplate.postForEntity(getBaseUrl(), new Review(null, "Analytics", "Analyst", "iTunes", 2, "Stats",
+                "Amazon Alexa", LocalDate.of(1999, 3, 3)), Review.class);
+
+        Map<String, Object> summary = (Map<String, Object>) restTemplate.getForEntity(url, Map.class).getBody()
+                .get("data");
+
+        assertThat(summary.get("count")).isEqualTo(1);
+        assertThat(summary.get("histogram")).isEqualTo(List.of(0, 1, 0, 0, 0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSearchSeesNewReviews() {
+        restTemplate.postForEntity(getBaseUrl(), new Review(null, "Echo lost its zigbeepairing twice", "Searcher",
+                "iTunes", 1, "Pairing", "Amazon Alexa", LocalDate.of(1999, 4, 4)), Review.class);
+
+        Map<String, Object> result = (Map<String, Object>) restTemplate
+                .getForEntity(getBaseUrl() + "/search?q=zigbeepairing&storeType=iTunes", Map.class).getBody()
+                .get("data");
+
+        assertThat(result.get("totalHits")).isEqualTo(1);
+        List<Map<String, Object>> hits = (List<Map<String, Object>>) result.get("hits");
+        assertThat(((Map<String, Object>) hits.get(0).get("review")).get("title")).isEqualTo("Pairing");
+    }
+
+    @Test
+    void testPrometheusMetrics() {
+        restTemplate.getForEntity(getBaseUrl() + "/page?limit=1", Map.class);
+
+        ResponseEntity<String> response = restTemplate.getForEntity("http://localhost:" + port + "/actuator/prometheus",
+                String.class);
+
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-        assertThat(response.getBody()).contains("Reviews imported successfully");
+        assertThat(response.getBody())
+                .contains("reviews_repository_seconds_bucket{")
+                .contains("method=\"findPage\"")
+                .contains("http_server_response_size_bytes_count{")
+                .contains("hikaricp_connections_acquire_seconds_bucket{")
+                .contains("cache_gets_total{");
     }
 
     @Test
@@ -0,0 +1,65 @@
+package com.signify.alexareviews.controller;
+
+import com.signify.alexareviews.model.ReviewPartition;
+import com.signify.alexareviews.service.ReviewPartitionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReviewPartitionController.class)
+class ReviewPartitionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReviewPartitionService partitionService;
+
+    @Test
+    void getPartitions_ShouldReturnMonths() throws Exception {
+        given(partitionService.getPartitions()).willReturn(List.of(
+                new ReviewPartition("p201801", LocalDate.of(2018, 1, 1), LocalDate.of(2018, 2, 1), 12),
+                new ReviewPartition("p_future", LocalDate.of(2018, 2, 1), null, 0)));
+
+        mockMvc.perform(get("/v1/api/reviews/partitions"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.data[0].name", is("p201801")))
+                .andExpect(jsonPath("$.data[0].to", is("2018-02-01")))
+                .andExpect(jsonPath("$.data[0].reviews", is(12)));
+    }
+
+    @Test
+    void retirePartitions_ShouldReturnRetiredMonths() throws Exception {
+        given(partitionService.retireBefore(YearMonth.of(2018, 2))).willReturn(List.of(
+                new ReviewPartition("p201801", LocalDate.of(2018, 1, 1), LocalDate.of(2018, 2, 1), 12)));
+
+        mockMvc.perform(delete("/v1/api/reviews/partitions").param("before", "2018-02"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].name", is("p201801")));
+    }
+
+    @Test
+    void retirePartitions_FutureMonth_ShouldReturnBadRequest() throws Exception {
+        given(partitionService.retireBefore(any()))
+                .willThrow(new IllegalArgumentException("Cannot retire reviews of the current month or later"));
+
+        mockMvc.perform(delete("/v1/api/reviews/partitions").param("before", "2999-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code", is("BAD_REQUEST")));
+    }
+}
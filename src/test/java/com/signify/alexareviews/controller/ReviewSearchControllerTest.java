@@ -0,0 +1,64 @@
+package com.signify.alexareviews.controller;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.model.Response;
+import com.signify.alexareviews.model.ReviewFilter;
+import com.signify.alexareviews.model.ReviewSearchHit;
+import com.signify.alexareviews.model.ReviewSearchResult;
+import com.signify.alexareviews.service.ReviewSearchService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReviewSearchController.class)
+class ReviewSearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReviewSearchService searchService;
+
+    @Test
+    void searchReviews_ShouldReturnHits() throws Exception {
+        Review review = new Review(UUID.randomUUID(), "Wifi keeps dropping", "Author", "iTunes", 2, "Wifi",
+                "Amazon Alexa", LocalDate.of(2024, 2, 1));
+        ReviewFilter filter = new ReviewFilter(LocalDate.of(2024, 1, 1), null, "iTunes", 2, null);
+        given(searchService.search("wifi", filter, 5)).willReturn(new Response<>(true, "Success",
+                "Search reviews succeeded", new ReviewSearchResult(1, List.of(new ReviewSearchHit(review, 1.5)))));
+
+        mockMvc.perform(get("/v1/api/reviews/search")
+                .param("q", "wifi")
+                .param("startDate", "2024-01-01")
+                .param("storeType", "iTunes")
+                .param("rating", "2")
+                .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalHits", is(1)))
+                .andExpect(jsonPath("$.data.hits[0].review.title", is("Wifi")))
+                .andExpect(jsonPath("$.data.hits[0].score", is(1.5)));
+    }
+
+    @Test
+    void searchReviews_EmptyQuery_ShouldReturnBadRequest() throws Exception {
+        given(searchService.search(eq("?!"), any(), any()))
+                .willThrow(new IllegalArgumentException("Search query must contain at least one word"));
+
+        mockMvc.perform(get("/v1/api/reviews/search").param("q", "?!"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code", is("BAD_REQUEST")));
+    }
+}
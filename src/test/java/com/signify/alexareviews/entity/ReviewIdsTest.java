@@ -0,0 +1,65 @@
+package com.signify.alexareviews.entity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+public class ReviewIdsTest {
+
+	@Test
+	void timeOrdered_IncreasesStrictly() {
+		List<UUID> ids = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			ids.add(ReviewIds.timeOrdered());
+		}
+
+		assertThat(ids).allSatisfy(id -> {
+			assertThat(id.version()).isEqualTo(7);
+			assertThat(id.variant()).isEqualTo(2);
+		});
+		// Compared as the database compares them: by the string, i.e. unsigned bytes
+		for (int i = 1; i < ids.size(); i++) {
+			assertThat(ids.get(i).toString()).isGreaterThan(ids.get(i - 1).toString());
+		}
+	}
+
+	@Test
+	void timeOrdered_StartsWithTheCurrentTime() {
+		long before = System.currentTimeMillis();
+		UUID id = ReviewIds.timeOrdered();
+
+		assertThat(id.getMostSignificantBits() >>> 16).isGreaterThanOrEqualTo(before)
+				.isLessThan(System.currentTimeMillis() + 1000);
+	}
+
+	@Test
+	void contentId_IsStableAndOrderedByReviewedDate() {
+		Review review = review("Works fine", LocalDate.of(2018, 1, 12));
+
+		UUID id = ReviewIds.contentId(review);
+
+		assertThat(ReviewIds.contentId(review("Works fine", LocalDate.of(2018, 1, 12)))).isEqualTo(id);
+		assertThat(ReviewIds.contentId(review("Works fine!", LocalDate.of(2018, 1, 12)))).isNotEqualTo(id);
+		assertThat(ReviewIds.contentId(review("Works fine", LocalDate.of(2018, 1, 13))).toString())
+				.isGreaterThan(id.toString());
+		assertThat(id.version()).isEqualTo(7);
+		assertThat(id.getMostSignificantBits() >>> 16).isEqualTo(LocalDate.of(2018, 1, 12).toEpochDay() * 86_400_000L);
+	}
+
+	@Test
+	void bytes_RoundTrip() {
+		UUID id = ReviewIds.timeOrdered();
+
+		assertThat(ReviewIds.toBytes(id)).hasSize(16);
+		assertThat(ReviewIds.fromBytes(ReviewIds.toBytes(id))).isEqualTo(id);
+	}
+
+	private static Review review(String text, LocalDate date) {
+		return new Review(null, text, "Ana", "iTunes", 5, null, "Amazon Alexa", date);
+	}
+}
@@ -0,0 +1,95 @@
+package com.signify.alexareviews.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.signify.alexareviews.entity.Review;
+
+@DataJpaTest
+@Import(ReviewBatchRepository.class)
+public class ReviewBatchRepositoryTest {
+
+	@Autowired
+	private ReviewBatchRepository batchRepository;
+
+	@Autowired
+	private ReviewRepository reviewRepository;
+
+	@Test
+	void testInsertAll() {
+		Review review1 = new Review(UUID.randomUUID(), "Excellent product", "John Doe", "Google", 5, "Great!", "Alexa",
+				LocalDate.of(2024, 2, 1));
+		Review review2 = new Review(UUID.randomUUID(), "Average experience", "Jane Doe", "Apple", 3, null, "Alexa",
+				LocalDate.of(2024, 2, 2));
+
+		int inserted = batchRepository.insertAll(List.of(review1, review2));
+
+		assertThat(inserted).isEqualTo(2);
+		assertThat(reviewRepository.findById(review1.getId())).isPresent();
+		assertThat(reviewRepository.findById(review2.getId()).get().getTitle()).isNull();
+	}
+
+	@Test
+	void testInsertAll_Empty() {
+		assertThat(batchRepository.insertAll(List.of())).isZero();
+	}
+
+	@Test
+	void testInsertAll_DuplicateId() {
+		Review review = new Review(UUID.randomUUID(), "Good", "Alice", "Google", 4, "Nice", "Alexa",
+				LocalDate.of(2024, 2, 3));
+		batchRepository.insertAll(List.of(review));
+
+		assertThatThrownBy(() -> batchRepository.insertAll(List.of(review)))
+				.isInstanceOf(DataIntegrityViolationException.class);
+	}
+
+	@Test
+	void testInsertAllIfAbsent_SkipsStoredIds() {
+		Review stored = new Review(UUID.randomUUID(), "Stored", "Alice", "Google", 4, "Nice", "Alexa",
+				LocalDate.of(2024, 2, 4));
+		Review fresh = new Review(UUID.randomUUID(), "Fresh", "Bob", "Apple", 2, null, "Alexa",
+				LocalDate.of(2024, 2, 5));
+		batchRepository.insertAll(List.of(stored));
+
+		List<Review> inserted = batchRepository.insertAllIfAbsent(List.of(stored, fresh));
+
+		assertThat(inserted).containsExactly(fresh);
+		assertThat(batchRepository.insertAllIfAbsent(List.of(stored, fresh))).isEmpty();
+		assertThat(reviewRepository.findById(fresh.getId())).isPresent();
+	}
+
+	@Test
+	void testInsertAllIfAbsent_SkipsStoredIdWithAnotherDate() {
+		Review stored = new Review(UUID.randomUUID(), "Stored", "Alice", "Google", 4, "Nice", "Alexa",
+				LocalDate.of(2024, 2, 4));
+		batchRepository.insertAll(List.of(stored));
+		Review moved = new Review(stored.getId(), "Stored", "Alice", "Google", 4, "Nice", "Alexa",
+				LocalDate.of(2024, 5, 1));
+
+		assertThat(batchRepository.insertAllIfAbsent(List.of(moved))).isEmpty();
+		assertThat(reviewRepository.findById(stored.getId())).get().extracting(Review::getReviewedDate)
+				.isEqualTo(LocalDate.of(2024, 2, 4));
+	}
+
+	@Test
+	void testFindExistingIds() {
+		Review stored = new Review(UUID.randomUUID(), "Stored", "Alice", "Google", 4, "Nice", "Alexa",
+				LocalDate.of(2024, 2, 6));
+		batchRepository.insertAll(List.of(stored));
+
+		assertThat(batchRepository.findExistingIds(List.of(stored.getId(), UUID.randomUUID())))
+				.containsExactly(stored.getId());
+		assertThat(batchRepository.findExistingIds(List.of())).isEmpty();
+	}
+}
@@ -0,0 +1,85 @@
+package com.signify.alexareviews.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.model.ReviewPartition;
+
+@DataJpaTest
+@Import({ ReviewPartitionRepository.class, ReviewRollupRepository.class, ReviewBatchRepository.class })
+public class ReviewPartitionRepositoryTest {
+
+	@Autowired
+	private ReviewPartitionRepository partitionRepository;
+
+	@Autowired
+	private ReviewRollupRepository rollupRepository;
+
+	@Autowired
+	private ReviewBatchRepository batchRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate.update("DELETE FROM reviews");
+		jdbcTemplate.update("DELETE FROM review_rating_rollups");
+		store(review("Google", 5, LocalDate.of(2024, 1, 3)), review("iTunes", 4, LocalDate.of(2024, 1, 31)),
+				review("Google", 2, LocalDate.of(2024, 2, 1)), review("Google", 3, LocalDate.of(2024, 4, 9)));
+	}
+
+	@Test
+	void testFindAll_MonthsFromRollups() {
+		assertThat(partitionRepository.isPartitioned()).isFalse();
+		assertThat(partitionRepository.findAll()).containsExactly(
+				new ReviewPartition("p202401", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1), 2),
+				new ReviewPartition("p202402", LocalDate.of(2024, 2, 1), LocalDate.of(2024, 3, 1), 1),
+				new ReviewPartition("p202404", LocalDate.of(2024, 4, 1), LocalDate.of(2024, 5, 1), 1));
+	}
+
+	@Test
+	void testCreateThrough_NothingToCreateWithoutPartitioning() {
+		assertThat(partitionRepository.createThrough(YearMonth.of(2030, 1))).isZero();
+	}
+
+	@Test
+	void testDropBefore_RemovesReviewsAndRollups() {
+		List<ReviewPartition> dropped = partitionRepository.dropBefore(YearMonth.of(2024, 3));
+
+		assertThat(dropped).extracting(ReviewPartition::name).containsExactly("p202401", "p202402");
+		assertThat(jdbcTemplate.queryForList("SELECT reviewed_date FROM reviews", LocalDate.class))
+				.containsExactly(LocalDate.of(2024, 4, 9));
+		assertThat(rollupRepository.getMonthlyAverageRatings())
+				.containsExactly(Map.of("store", "Google", "year", 2024, "month", 4, "avgRating", 3.0));
+		assertThat(partitionRepository.findAll()).extracting(ReviewPartition::name).containsExactly("p202404");
+	}
+
+	@Test
+	void testDropBefore_NothingOlder() {
+		assertThat(partitionRepository.dropBefore(YearMonth.of(2023, 12))).isEmpty();
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reviews", Integer.class)).isEqualTo(4);
+	}
+
+	private void store(Review... reviews) {
+		batchRepository.insertAll(List.of(reviews));
+		rollupRepository.add(List.of(reviews));
+	}
+
+	private static Review review(String source, int rating, LocalDate date) {
+		return new Review(UUID.randomUUID(), "Review", "Author", source, rating, "Title", "Alexa", date);
+	}
+}
@@ -0,0 +1,146 @@
+package com.signify.alexareviews.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.model.ReviewCursor;
+import com.signify.alexareviews.model.ReviewField;
+import com.signify.alexareviews.model.ReviewFilter;
+import com.signify.alexareviews.model.ReviewView;
+
+@DataJpaTest
+@Import({ ReviewQueryRepository.class, ReviewBatchRepository.class })
+public class ReviewQueryRepositoryTest {
+
+	@Autowired
+	private ReviewQueryRepository queryRepository;
+
+	@Autowired
+	private ReviewBatchRepository batchRepository;
+
+	// Bounds queries to the test rows, the migration seeds a review of its own
+	private static final ReviewFilter FEBRUARY = ReviewFilter.dateRange(LocalDate.of(2024, 2, 1),
+			LocalDate.of(2024, 2, 3));
+
+	private final List<Review> reviews = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		for (int i = 0; i < 5; i++) {
+			// Two reviews per day so pages have to break ties on id
+			reviews.add(new Review(UUID.randomUUID(), "Review " + i, "Author", i % 2 == 0 ? "Google" : "iTunes",
+					1 + i, "Title", i < 4 ? "Alexa" : "Echo", LocalDate.of(2024, 2, 1 + i / 2)));
+		}
+		batchRepository.insertAll(reviews);
+		reviews.sort((a, b) -> a.getReviewedDate().equals(b.getReviewedDate())
+				? a.getId().toString().compareTo(b.getId().toString())
+				: a.getReviewedDate().compareTo(b.getReviewedDate()));
+	}
+
+	@Test
+	void testFindPage_WalksAllPagesInOrder() {
+		List<UUID> seen = new ArrayList<>();
+		ReviewCursor cursor = null;
+		List<Review> page;
+		do {
+			page = queryRepository.findPage(FEBRUARY, cursor, 2);
+			page.forEach(review -> seen.add(review.getId()));
+			cursor = page.isEmpty() ? null : ReviewCursor.after(page.get(page.size() - 1));
+		} while (page.size() == 2);
+
+		assertThat(seen).containsExactlyElementsOf(reviews.stream().map(Review::getId).toList());
+	}
+
+	@Test
+	void testFindPage_DateRange() {
+		List<Review> page = queryRepository.findPage(ReviewFilter.dateRange(LocalDate.of(2024, 2, 2), LocalDate.of(2024, 2, 2)), null,
+				10);
+
+		assertThat(page).extracting(Review::getReviewedDate).containsOnly(LocalDate.of(2024, 2, 2));
+		assertThat(page).hasSize(2);
+	}
+
+	@Test
+	void testStream() {
+		List<Review> streamed = new ArrayList<>();
+
+		queryRepository.stream(ReviewFilter.dateRange(LocalDate.of(2024, 2, 2), null), streamed::add);
+
+		assertThat(streamed).extracting(Review::getId)
+				.containsExactlyElementsOf(reviews.subList(2, 5).stream().map(Review::getId).toList());
+		assertThat(streamed.get(0).getProductName()).isEqualTo("Alexa");
+	}
+
+	@Test
+	void testFindAll_CombinesFilters() {
+		List<Review> found = queryRepository
+				.findAll(new ReviewFilter(FEBRUARY.startDate(), FEBRUARY.endDate(), "Google", 3, "Alexa"));
+
+		assertThat(found).extracting(Review::getId).containsExactly(reviewNumbered(2).getId());
+	}
+
+	@Test
+	void testFindAll_EachPlan() {
+		assertThat(queryRepository.findAll(new ReviewFilter(FEBRUARY.startDate(), null, "iTunes", null, null)))
+				.extracting(Review::getReview).containsExactlyInAnyOrder("Review 1", "Review 3");
+		assertThat(queryRepository.findAll(new ReviewFilter(FEBRUARY.startDate(), null, null, 5, null)))
+				.extracting(Review::getReview).containsExactly("Review 4");
+		assertThat(queryRepository.findAll(new ReviewFilter(null, FEBRUARY.endDate(), null, null, "Echo")))
+				.extracting(Review::getReview).containsExactly("Review 4");
+		assertThat(queryRepository.findAll(FEBRUARY)).hasSize(5);
+	}
+
+	@Test
+	void testChoosePlan() {
+		assertThat(ReviewQueryPlan.choose(new ReviewFilter(null, null, "iTunes", 1, "Alexa")))
+				.isEqualTo(ReviewQueryPlan.SOURCE_RATING_DATE);
+		assertThat(ReviewQueryPlan.choose(new ReviewFilter(null, null, "iTunes", null, "Alexa")))
+				.isEqualTo(ReviewQueryPlan.SOURCE_DATE);
+		assertThat(ReviewQueryPlan.choose(new ReviewFilter(null, null, null, 1, "Alexa")))
+				.isEqualTo(ReviewQueryPlan.RATING_DATE);
+		assertThat(ReviewQueryPlan.choose(new ReviewFilter(null, null, null, null, "Alexa")))
+				.isEqualTo(ReviewQueryPlan.PRODUCT_DATE);
+		assertThat(ReviewQueryPlan.choose(FEBRUARY)).isEqualTo(ReviewQueryPlan.DATE);
+		assertThat(ReviewQueryPlan.choose(ReviewFilter.NONE)).isEqualTo(ReviewQueryPlan.FULL_SCAN);
+	}
+
+	private Review reviewNumbered(int number) {
+		return reviews.stream().filter(review -> review.getReview().equals("Review " + number)).findFirst()
+				.orElseThrow();
+	}
+
+	@Test
+	void testFindViews_ReadsOnlySelectedFields() {
+		List<ReviewView> views = queryRepository.findViews(FEBRUARY,
+				EnumSet.of(ReviewField.RATING, ReviewField.REVIEWED_DATE));
+
+		assertThat(views).hasSize(5);
+		assertThat(views).allSatisfy(view -> {
+			assertThat(view.rating()).isNotNull();
+			assertThat(view.reviewedDate()).isNotNull();
+			assertThat(view.id()).isNull();
+			assertThat(view.review()).isNull();
+			assertThat(view.author()).isNull();
+		});
+	}
+
+	@Test
+	void testStreamViews_KeepsOrder() {
+		List<UUID> seen = new ArrayList<>();
+		queryRepository.streamViews(FEBRUARY, EnumSet.of(ReviewField.ID), view -> seen.add(view.id()));
+
+		assertThat(seen).containsExactlyElementsOf(reviews.stream().map(Review::getId).toList());
+	}
+}
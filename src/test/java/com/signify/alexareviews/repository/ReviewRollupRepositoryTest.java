@@ -0,0 +1,118 @@
+package com.signify.alexareviews.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.signify.alexareviews.entity.Review;
+
+@DataJpaTest
+@Import({ ReviewRollupRepository.class, ReviewBatchRepository.class })
+public class ReviewRollupRepositoryTest {
+
+	@Autowired
+	private ReviewRollupRepository rollupRepository;
+
+	@Autowired
+	private ReviewBatchRepository batchRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		// Start from an empty store, the migration seeds a review of its own
+		jdbcTemplate.update("DELETE FROM reviews");
+		jdbcTemplate.update("DELETE FROM review_rating_rollups");
+	}
+
+	@Test
+	void testAdd_AggregatesByStoreMonthAndRating() {
+		store(review("Google", 5, LocalDate.of(2024, 2, 1)), review("Google", 4, LocalDate.of(2024, 2, 20)),
+				review("Google", 5, LocalDate.of(2024, 2, 3)), review("iTunes", 1, LocalDate.of(2024, 3, 1)));
+		store(review("Google", 3, LocalDate.of(2024, 2, 9)));
+
+		assertThat(rollupRepository.getMonthlyAverageRatings()).containsExactly(
+				Map.of("store", "Google", "year", 2024, "month", 2, "avgRating", 4.25),
+				Map.of("store", "iTunes", "year", 2024, "month", 3, "avgRating", 1.0));
+		assertThat(rollupRepository.getTotalRatingsByCategory()).containsExactly(Map.of("rating", 1, "count", 1L),
+				Map.of("rating", 3, "count", 1L), Map.of("rating", 4, "count", 1L), Map.of("rating", 5, "count", 2L));
+	}
+
+	@Test
+	void testRebuild_RepairsDrift() {
+		store(review("Google", 5, LocalDate.of(2024, 2, 1)), review("iTunes", 2, LocalDate.of(2024, 2, 2)));
+		// Rows written without going through the rollups
+		batchRepository.insertAll(List.of(review("iTunes", 2, LocalDate.of(2024, 2, 5))));
+		jdbcTemplate.update("UPDATE review_rating_rollups SET review_count = 40 WHERE rating = 5");
+
+		int rows = rollupRepository.rebuild();
+
+		assertThat(rows).isEqualTo(2);
+		assertThat(rollupRepository.getTotalRatingsByCategory()).containsExactly(Map.of("rating", 2, "count", 2L),
+				Map.of("rating", 5, "count", 1L));
+	}
+
+	@Test
+	void testAdd_UpdatesRowsInKeyOrder() {
+		JdbcTemplate jdbc = mock(JdbcTemplate.class);
+		when(jdbc.update(anyString(), any(Object[].class))).thenReturn(1);
+
+		new ReviewRollupRepository(jdbc).add(List.of(review("iTunes", 5, LocalDate.of(2024, 3, 1)),
+				review("Google", 5, LocalDate.of(2024, 3, 1)), review("Google", 1, LocalDate.of(2024, 3, 1)),
+				review("iTunes", 2, LocalDate.of(2023, 12, 1))));
+
+		InOrder order = inOrder(jdbc);
+		order.verify(jdbc).update(anyString(), eq(1L), eq("iTunes"), eq(2023), eq(12), eq(2));
+		order.verify(jdbc).update(anyString(), eq(1L), eq("Google"), eq(2024), eq(3), eq(1));
+		order.verify(jdbc).update(anyString(), eq(1L), eq("Google"), eq(2024), eq(3), eq(5));
+		order.verify(jdbc).update(anyString(), eq(1L), eq("iTunes"), eq(2024), eq(3), eq(5));
+	}
+
+	@Test
+	void testReplace_MovesReviewsToTheRowsOfTheirNewValues() {
+		Review first = review("Google", 1, LocalDate.of(2024, 2, 1));
+		store(first, review("Google", 5, LocalDate.of(2024, 2, 3)));
+		Review updated = new Review(first.getId(), "Review", "Author", "Google", 5, "Title", "Alexa",
+				LocalDate.of(2024, 2, 1));
+
+		rollupRepository.replace(List.of(first), List.of(updated));
+
+		assertThat(rollupRepository.getTotalRatingsByCategory()).containsExactly(Map.of("rating", 5, "count", 2L));
+		assertThat(rollupRepository.getMonthlyAverageRatings())
+				.containsExactly(Map.of("store", "Google", "year", 2024, "month", 2, "avgRating", 5.0));
+		assertThat(rollupRepository.findAll()).hasSize(1);
+	}
+
+	@Test
+	void testEmpty() {
+		assertThat(rollupRepository.getMonthlyAverageRatings()).isEmpty();
+		assertThat(rollupRepository.getTotalRatingsByCategory()).isEmpty();
+	}
+
+	private void store(Review... reviews) {
+		batchRepository.insertAll(List.of(reviews));
+		rollupRepository.add(List.of(reviews));
+	}
+
+	private static Review review(String source, int rating, LocalDate date) {
+		return new Review(UUID.randomUUID(), "Review", "Author", source, rating, "Title", "Alexa", date);
+	}
+}
@@ -0,0 +1,170 @@
+package com.signify.alexareviews.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.signify.alexareviews.model.ImportJob;
+import com.signify.alexareviews.model.ImportJobStatus;
+import com.signify.alexareviews.model.ImportProgress;
+
+@ExtendWith(MockitoExtension.class)
+public class ImportJobServiceTest {
+
+	@Mock
+	private ReviewImportService importService;
+
+	@TempDir
+	Path tempDir;
+
+	private Path file;
+	private ImportJobService jobService;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		file = Files.writeString(tempDir.resolve("reviews.json"), "{}\n");
+		lenient().when(importService.getBatchSize()).thenReturn(1000);
+		jobService = new ImportJobService(importService, file.toString(), tempDir, 1, 1, 100, false);
+	}
+
+	@AfterEach
+	void tearDown() {
+		jobService.shutdown();
+	}
+
+	@Test
+	void submit_RunsImportInBackground() throws Exception {
+		when(importService.importReviewsFromFile(eq(file.toString()), eq(250), any(ImportProgress.class), any()))
+				.thenAnswer(invocation -> {
+					ImportProgress progress = invocation.getArgument(2);
+					progress.addParsed(5);
+					progress.addSaved(5);
+					return progress;
+				});
+
+		ImportJob job = jobService.submit(null, 250);
+
+		waitUntil(() -> job.getStatus() == ImportJobStatus.COMPLETED);
+		assertThat(job.getProgress().getRowsSaved()).isEqualTo(5);
+		assertThat(jobService.getJob(job.getId())).contains(job);
+	}
+
+	@Test
+	void submit_MissingFile_ThrowsException() {
+		assertThatThrownBy(() -> jobService.submit(tempDir.resolve("missing.json").toString(), null))
+				.isInstanceOf(NoSuchFileException.class);
+	}
+
+	@Test
+	void submit_ResolvesPathInImportDirectory() throws Exception {
+		when(importService.importReviewsFromFile(eq(file.toString()), eq(1000), any(ImportProgress.class), any()))
+				.thenAnswer(invocation -> invocation.getArgument(2));
+
+		ImportJob job = jobService.submit("reviews.json", null);
+
+		waitUntil(() -> job.getStatus() == ImportJobStatus.COMPLETED);
+		assertThat(job.getSource()).isEqualTo("reviews.json");
+	}
+
+	@Test
+	void submit_PathOutsideImportDirectory_ThrowsException() throws IOException {
+		Path outside = Files.writeString(tempDir.resolveSibling(tempDir.getFileName() + "-outside.json"), "{}\n");
+		try {
+			assertThatThrownBy(() -> jobService.submit("../" + outside.getFileName(), null))
+					.isInstanceOf(IllegalArgumentException.class);
+			assertThatThrownBy(() -> jobService.submit(outside.toString(), null))
+					.isInstanceOf(IllegalArgumentException.class);
+			assertThatThrownBy(() -> jobService.submit("/etc/passwd", null))
+					.isInstanceOf(IllegalArgumentException.class);
+		} finally {
+			Files.deleteIfExists(outside);
+		}
+	}
+
+	@Test
+	void submit_ImportFailure_MarksJobFailed() throws Exception {
+		when(importService.importReviewsFromFile(anyString(), anyInt(), any(), any()))
+				.thenThrow(new IOException("disk gone"));
+
+		ImportJob job = jobService.submit(null, null);
+
+		waitUntil(() -> job.getStatus() == ImportJobStatus.FAILED);
+		assertThat(job.getError()).isEqualTo("disk gone");
+		assertThat(job.getBatchSize()).isEqualTo(1000);
+	}
+
+	@Test
+	void cancel_StopsRunningJobAndQueuedJob() throws Exception {
+		CountDownLatch running = new CountDownLatch(1);
+		when(importService.importReviewsFromFile(anyString(), anyInt(), any(), any())).thenAnswer(invocation -> {
+			BooleanSupplier cancelled = invocation.getArgument(3);
+			running.countDown();
+			while (!cancelled.getAsBoolean()) {
+				Thread.sleep(10);
+			}
+			throw new CancellationException("Import cancelled");
+		});
+
+		ImportJob first = jobService.submit(null, null);
+		assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+		ImportJob second = jobService.submit(null, null);
+		assertThatThrownBy(() -> jobService.submit(null, null)).isInstanceOf(RejectedExecutionException.class);
+
+		jobService.cancel(second.getId());
+		assertThat(second.getStatus()).isEqualTo(ImportJobStatus.CANCELLED);
+		jobService.cancel(first.getId());
+		waitUntil(() -> first.getStatus() == ImportJobStatus.CANCELLED);
+	}
+
+	@Test
+	void submitUpload_DeletesSpooledFileWhenDone() throws Exception {
+		Path[] spooled = new Path[1];
+		when(importService.importReviewsFromFile(anyString(), anyInt(), any(), any())).thenAnswer(invocation -> {
+			spooled[0] = Paths.get(invocation.<String>getArgument(0));
+			assertThat(Files.readString(spooled[0])).isEqualTo("{\"a\":1}");
+			return invocation.getArgument(2);
+		});
+
+		ImportJob job = jobService.submitUpload(
+				new ByteArrayInputStream("{\"a\":1}".getBytes(StandardCharsets.UTF_8)), "reviews.json", null);
+
+		waitUntil(() -> job.getStatus().isFinished());
+		assertThat(job.getStatus()).isEqualTo(ImportJobStatus.COMPLETED);
+		assertThat(job.getSource()).isEqualTo("upload:reviews.json");
+		assertThat(spooled[0]).doesNotExist();
+	}
+
+	private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package com.signify.alexareviews.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MappedRecordSourceTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void read_SplitsOnNewlines() throws IOException {
+		List<String> records = readAll("{\"a\":1}\n{\"b\":2}\r\n\n{\"c\":3}", MappedRecordSource.DEFAULT_REGION_SIZE);
+
+		assertThat(records).containsExactly("{\"a\":1}", "{\"b\":2}", "{\"c\":3}");
+	}
+
+	@Test
+	void read_HandlesRecordsAcrossRegionBoundaries() throws IOException {
+		StringBuilder content = new StringBuilder();
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			String record = "record-" + i + "-" + "x".repeat(i % 40);
+			expected.add(record);
+			content.append(record).append('\n');
+		}
+		// A region smaller than some records forces both remapping and region growth
+		List<String> records = readAll(content.toString(), 16);
+
+		assertThat(records).isEqualTo(expected);
+	}
+
+	@Test
+	void read_HonoursMaxPerChunk() throws IOException {
+		Path file = Files.writeString(tempDir.resolve("reviews.json"), "1\n2\n3\n4\n5\n");
+		try (MappedRecordSource source = new MappedRecordSource(file)) {
+			assertThat(source.read(2)).hasSize(2);
+			assertThat(source.read(2)).hasSize(2);
+			assertThat(source.read(2)).hasSize(1);
+			assertThat(source.read(2)).isEmpty();
+		}
+	}
+
+	@Test
+	void read_EmptyFile() throws IOException {
+		assertThat(readAll("", 16)).isEmpty();
+	}
+
+	@Test
+	void indexOfNewline_FindsFirstNewlineInEveryPosition() {
+		for (int position = 0; position < 20; position++) {
+			byte[] bytes = "ab\u000bcdefghijklmnopqrstuvwxyz".getBytes(StandardCharsets.US_ASCII);
+			bytes[position] = '\n';
+			bytes[position + 3] = '\n';
+			assertThat(MappedRecordSource.indexOfNewline(ByteBuffer.wrap(bytes), 0, bytes.length)).isEqualTo(position);
+		}
+		byte[] none = "no newline in here at all".getBytes(StandardCharsets.US_ASCII);
+		assertThat(MappedRecordSource.indexOfNewline(ByteBuffer.wrap(none), 0, none.length)).isEqualTo(-1);
+	}
+
+	private List<String> readAll(String content, int regionSize) throws IOException {
+		Path file = Files.writeString(tempDir.resolve("reviews.json"), content);
+		List<String> records = new ArrayList<>();
+		try (MappedRecordSource source = new MappedRecordSource(file, regionSize)) {
+			List<ByteBuffer> chunk;
+			while (!(chunk = source.read(7)).isEmpty()) {
+				for (ByteBuffer record : chunk) {
+					byte[] bytes = new byte[record.remaining()];
+					record.get(bytes);
+					records.add(new String(bytes, StandardCharsets.UTF_8));
+				}
+			}
+		}
+		return records;
+	}
+}
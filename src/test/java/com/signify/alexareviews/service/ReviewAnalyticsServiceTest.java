@@ -0,0 +1,183 @@
+package com.signify.alexareviews.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.model.ProductTrend;
+import com.signify.alexareviews.model.RatingPeriod;
+import com.signify.alexareviews.model.RatingSummary;
+import com.signify.alexareviews.model.ReviewFilter;
+
+public class ReviewAnalyticsServiceTest {
+
+	private ReviewColumnStore store;
+	private ReviewAnalyticsService analyticsService;
+
+	@BeforeEach
+	void setUp() {
+		store = new ReviewColumnStore(null, 500);
+		analyticsService = new ReviewAnalyticsService(store);
+	}
+
+	@Test
+	void testSummarize() {
+		store.append(List.of(review("Google", "Alexa", 5, LocalDate.of(2024, 2, 5)),
+				review("Google", "Alexa", 4, LocalDate.of(2024, 2, 6)),
+				review("iTunes", "Alexa", 1, LocalDate.of(2024, 2, 7)),
+				review("iTunes", "Echo", 5, LocalDate.of(2024, 3, 1))));
+
+		RatingSummary summary = analyticsService.summarize(ReviewFilter.NONE, List.of(25, 50, 100));
+
+		assertThat(summary.count()).isEqualTo(4);
+		assertThat(summary.averageRating()).isEqualTo(3.75);
+		assertThat(summary.histogram()).containsExactly(1, 0, 0, 1, 2);
+		assertThat(summary.percentiles()).isEqualTo(Map.of("p25", 1, "p50", 4, "p100", 5));
+
+		RatingSummary filtered = analyticsService.summarize(
+				new ReviewFilter(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29), "iTunes", null, "Alexa"),
+				List.of(50));
+		assertThat(filtered.count()).isEqualTo(1);
+		assertThat(filtered.histogram()).containsExactly(1, 0, 0, 0, 0);
+	}
+
+	@Test
+	void testSummarize_NoMatches() {
+		store.append(List.of(review("Google", "Alexa", 5, LocalDate.of(2024, 2, 5))));
+
+		RatingSummary summary = analyticsService.summarize(new ReviewFilter(null, null, "Unknown", null, null),
+				List.of(50));
+
+		assertThat(summary.count()).isZero();
+		assertThat(summary.averageRating()).isZero();
+		assertThat(summary.percentiles()).isEqualTo(Map.of("p50", 0));
+	}
+
+	@Test
+	void testSummarize_AfterRetiringMonths() {
+		store.append(List.of(review("Google", "Alexa", 1, LocalDate.of(2024, 1, 31)),
+				review("Google", "Alexa", 5, LocalDate.of(2024, 2, 1))));
+		ReviewColumnStore.Snapshot before = store.snapshot();
+
+		store.retireBefore(LocalDate.of(2024, 2, 1));
+		store.append(List.of(review("iTunes", "Echo", 3, LocalDate.of(2024, 3, 1))));
+
+		RatingSummary summary = analyticsService.summarize(ReviewFilter.NONE, List.of(50));
+		assertThat(summary.count()).isEqualTo(2);
+		assertThat(summary.histogram()).containsExactly(0, 0, 1, 0, 1);
+		// Snapshots taken before still see the retired rows
+		assertThat(before.size).isEqualTo(2);
+		assertThat(before.ratings[0]).isEqualTo((byte) 1);
+	}
+
+	@Test
+	void testSummarize_SameReviewSavedTwice() {
+		Review first = review("Google", "Alexa", 1, LocalDate.of(2024, 2, 5));
+		store.onReviewsSaved(
+				new ReviewsSavedEvent(List.of(first, review("Google", "Alexa", 4, LocalDate.of(2024, 2, 6)))));
+		ReviewColumnStore.Snapshot before = store.snapshot();
+		Review updated = new Review(first.getId(), "Updated", "Author", "iTunes", 5, "Title", "Alexa",
+				LocalDate.of(2024, 3, 1));
+
+		store.onReviewsSaved(new ReviewsSavedEvent(List.of(updated), List.of(first)));
+
+		RatingSummary summary = analyticsService.summarize(ReviewFilter.NONE, List.of(50));
+		assertThat(summary.count()).isEqualTo(2);
+		assertThat(summary.histogram()).containsExactly(0, 0, 0, 1, 1);
+		assertThat(analyticsService.summarize(new ReviewFilter(null, null, "Google", null, null), List.of(50)).count())
+				.isEqualTo(1);
+		assertThat(before.size).isEqualTo(2);
+		assertThat(before.ratings[0]).isEqualTo((byte) 1);
+	}
+
+	@Test
+	void testSummarize_InvalidPercentile() {
+		assertThatThrownBy(() -> analyticsService.summarize(ReviewFilter.NONE, List.of(0)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void testWeeklyHistograms() {
+		// 2024-02-05 is a Monday
+		store.append(List.of(review("Google", "Alexa", 5, LocalDate.of(2024, 2, 5)),
+				review("Google", "Alexa", 3, LocalDate.of(2024, 2, 11)),
+				review("Google", "Alexa", 2, LocalDate.of(2024, 2, 12)),
+				review("Google", "Alexa", 2, LocalDate.of(2024, 2, 28))));
+
+		List<RatingPeriod> weeks = analyticsService.weeklyHistograms(ReviewFilter.NONE);
+
+		assertThat(weeks).extracting(RatingPeriod::start).containsExactly(LocalDate.of(2024, 2, 5),
+				LocalDate.of(2024, 2, 12), LocalDate.of(2024, 2, 26));
+		assertThat(weeks.get(0).count()).isEqualTo(2);
+		assertThat(weeks.get(0).averageRating()).isEqualTo(4.0);
+		assertThat(weeks.get(0).histogram()).containsExactly(0, 0, 1, 0, 1);
+	}
+
+	@Test
+	void testProductTrends() {
+		store.append(List.of(review("Google", "Alexa", 5, LocalDate.of(2024, 1, 31)),
+				review("Google", "Echo", 1, LocalDate.of(2024, 2, 1)),
+				review("Google", "Alexa", 3, LocalDate.of(2024, 3, 15)),
+				review("iTunes", "Alexa", 4, LocalDate.of(2024, 3, 16))));
+
+		List<ProductTrend> trends = analyticsService.productTrends(ReviewFilter.NONE);
+
+		assertThat(trends).extracting(ProductTrend::productName).containsExactly("Alexa", "Echo");
+		assertThat(trends.get(0).months()).extracting(RatingPeriod::start)
+				.containsExactly(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 1));
+		assertThat(trends.get(0).months().get(1).averageRating()).isEqualTo(3.5);
+		assertThat(trends.get(1).months()).hasSize(1);
+	}
+
+	@Test
+	void testSummarize_ManyChunksMatchesNaiveCount() {
+		Random random = new Random(42);
+		List<Review> reviews = new ArrayList<>();
+		long[] expected = new long[5];
+		for (int i = 0; i < 200_000; i++) {
+			Review review = review(random.nextBoolean() ? "Google" : "iTunes", "Alexa", 1 + random.nextInt(5),
+					LocalDate.of(2020, 1, 1).plusDays(random.nextInt(1500)));
+			reviews.add(review);
+			if (review.getReviewSource().equals("iTunes") && review.getReviewedDate().getYear() == 2021) {
+				expected[review.getRating() - 1]++;
+			}
+		}
+		store.append(reviews);
+
+		RatingSummary summary = analyticsService.summarize(
+				new ReviewFilter(LocalDate.of(2021, 1, 1), LocalDate.of(2021, 12, 31), "iTunes", null, null),
+				List.of(50));
+
+		assertThat(summary.histogram()).containsExactly(expected);
+	}
+
+	@Test
+	void testSnapshotIsUnaffectedByLaterAppends() {
+		store.append(List.of(review("Google", "Alexa", 5, LocalDate.of(2024, 2, 5))));
+		ReviewColumnStore.Snapshot snapshot = store.snapshot();
+
+		List<Review> more = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			more.add(review("iTunes", "Echo", 1, LocalDate.of(2024, 2, 6)));
+		}
+		store.append(more);
+
+		assertThat(snapshot.size).isEqualTo(1);
+		assertThat(snapshot.productNames).containsExactly("Alexa");
+		assertThat(store.snapshot().size).isEqualTo(5001);
+	}
+
+	private static Review review(String source, String product, int rating, LocalDate date) {
+		return new Review(UUID.randomUUID(), "Review", "Author", source, rating, "Title", product, date);
+	}
+}
@@ -0,0 +1,101 @@
+package com.signify.alexareviews.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.repository.ReviewBatchRepository;
+import com.signify.alexareviews.repository.ReviewRollupRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class ReviewBatchWriterTest {
+
+	@Mock
+	private ReviewBatchRepository batchRepository;
+
+	@Mock
+	private ReviewRollupRepository rollupRepository;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@Mock
+	private ReviewIdFilter idFilter;
+
+	private ReviewBatchWriter batchWriter;
+	private final Review first = review("First");
+	private final Review second = review("Second");
+
+	@BeforeEach
+	void setUp() {
+		when(transactionTemplate.execute(any())).thenAnswer(
+				invocation -> invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null));
+		batchWriter = new ReviewBatchWriter(batchRepository, rollupRepository, transactionTemplate, eventPublisher,
+				idFilter, new ReviewMetrics(new SimpleMeterRegistry()));
+	}
+
+	@Test
+	void write_SkipsRowsThatCannotBeStored() {
+		when(batchRepository.insertAllIfAbsent(anyList())).thenThrow(new CannotAcquireLockException("deadlock"))
+				.thenReturn(List.of(first)).thenThrow(new CannotAcquireLockException("deadlock"));
+
+		assertThat(batchWriter.write(List.of(first, second))).isEqualTo(1);
+	}
+
+	@Test
+	void writeAcknowledged_ReturnsRowsRefusedAsInvalid() {
+		when(batchRepository.insertAllIfAbsent(anyList())).thenThrow(new DataIntegrityViolationException("too long"))
+				.thenReturn(List.of(first)).thenThrow(new DataIntegrityViolationException("too long"));
+
+		assertThat(batchWriter.writeAcknowledged(List.of(first, second))).containsExactly(second);
+		verify(rollupRepository).add(List.of(first));
+	}
+
+	@Test
+	void writeAcknowledged_ThrowsOnTransientRowFailure() {
+		when(batchRepository.insertAllIfAbsent(anyList())).thenThrow(new DataIntegrityViolationException("too long"))
+				.thenReturn(List.of(first)).thenThrow(new CannotAcquireLockException("deadlock"));
+
+		assertThatThrownBy(() -> batchWriter.writeAcknowledged(List.of(first, second)))
+				.isInstanceOf(CannotAcquireLockException.class);
+	}
+
+	@Test
+	void writeAcknowledged_ThrowsOnTransientBatchFailureWithoutRetryingRows() {
+		when(batchRepository.insertAllIfAbsent(anyList())).thenThrow(new CannotAcquireLockException("deadlock"));
+
+		assertThatThrownBy(() -> batchWriter.writeAcknowledged(List.of(first, second)))
+				.isInstanceOf(CannotAcquireLockException.class);
+		verify(batchRepository, times(1)).insertAllIfAbsent(anyList());
+	}
+
+	private static Review review(String text) {
+		return new Review(UUID.randomUUID(), text, "Author", "Google Play", 4, "Title", "Amazon Alexa",
+				LocalDate.of(2024, 1, 1));
+	}
+}
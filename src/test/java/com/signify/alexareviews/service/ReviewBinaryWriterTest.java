@@ -0,0 +1,156 @@
+package com.signify.alexareviews.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.model.RatingRollup;
+
+public class ReviewBinaryWriterTest {
+
+	@Test
+	void readsBackWhatWasWritten() throws IOException {
+		List<Review> reviews = List.of(
+				new Review(UUID.randomUUID(), "Funciona muy bien \u00f1", "Ana", "iTunes", 5, "Genial", "Amazon Alexa",
+						LocalDate.of(2018, 1, 12)),
+				new Review(UUID.randomUUID(), "No title here", "Bob", "Google Play Store", 1, null, "Echo Dot",
+						LocalDate.of(1965, 6, 30)),
+				new Review(UUID.randomUUID(), "", "Cy", "iTunes", 3, "", "Amazon Alexa", LocalDate.of(2024, 2, 29)));
+
+		List<Review> read = readAll(write(reviews));
+
+		assertThat(read).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(reviews);
+	}
+
+	@Test
+	void readsBackRollupsBetweenRows() throws IOException {
+		Review review = new Review(UUID.randomUUID(), "Text", "Ana", "iTunes", 5, null, "Amazon Alexa",
+				LocalDate.of(2018, 1, 12));
+		List<RatingRollup> rollups = List.of(new RatingRollup("iTunes", 2018, 1, 5, 1),
+				new RatingRollup("Google Play Store", 1965, 12, 2, 40_000_000_000L));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ReviewBinaryWriter writer = new ReviewBinaryWriter(out, ReviewBinaryWriter.SNAPSHOT_VERSION)) {
+			writer.writeRollup(rollups.get(0));
+			writer.write(review);
+			writer.writeRollup(rollups.get(1));
+		}
+
+		try (ReviewBinaryReader reader = new ReviewBinaryReader(new ByteArrayInputStream(out.toByteArray()))) {
+			assertThat(reader.read()).usingRecursiveComparison().isEqualTo(review);
+			assertThat(reader.read()).isNull();
+			assertThat(reader.getRollups()).containsExactlyElementsOf(rollups);
+		}
+	}
+
+	@Test
+	void writesVersionOneUnlessRollupsAreWritten() throws IOException {
+		ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+		new ReviewBinaryWriter(snapshot, ReviewBinaryWriter.SNAPSHOT_VERSION).close();
+
+		assertThat(gunzipped(write(List.of()))[ReviewBinaryWriter.MAGIC.length]).isEqualTo((byte) 1);
+		assertThat(gunzipped(snapshot.toByteArray())[ReviewBinaryWriter.MAGIC.length]).isEqualTo((byte) 2);
+	}
+
+	@Test
+	void refusesRollupsInAnExport() throws IOException {
+		try (ReviewBinaryWriter writer = new ReviewBinaryWriter(new ByteArrayOutputStream())) {
+			assertThatThrownBy(() -> writer.writeRollup(new RatingRollup("iTunes", 2018, 1, 5, 1)))
+					.isInstanceOf(IllegalStateException.class);
+		}
+	}
+
+	@Test
+	void writesEmptyExport() throws IOException {
+		assertThat(readAll(write(List.of()))).isEmpty();
+	}
+
+	@Test
+	void isSeveralTimesSmallerThanJson() throws IOException {
+		List<Review> reviews = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			reviews.add(new Review(UUID.randomUUID(), "Review number " + i + " about the speaker", "Author " + i,
+					i % 2 == 0 ? "iTunes" : "Google Play Store", 1 + i % 5, "Title " + i % 7,
+					"Amazon Alexa", LocalDate.of(2018, 1, 1).plusDays(i % 365)));
+		}
+		ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+		int json = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(reviews).length;
+
+		assertThat(write(reviews).length * 3).isLessThan(json);
+	}
+
+	@Test
+	void rejectsTruncatedExport() throws IOException {
+		List<Review> reviews = List.of(new Review(UUID.randomUUID(), "Cut short", "Ana", "iTunes", 4, "T",
+				"Amazon Alexa", LocalDate.of(2018, 1, 12)));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ReviewBinaryWriter writer = new ReviewBinaryWriter(out);
+		writer.write(reviews.get(0));
+		writer.write(reviews.get(0));
+		writer.finish();
+		byte[] plain = gunzipped(out.toByteArray());
+		byte[] truncated = gzip(Arrays.copyOf(plain, plain.length - 10));
+
+		try (ReviewBinaryReader reader = new ReviewBinaryReader(new ByteArrayInputStream(truncated))) {
+			assertThat(reader.read()).isNotNull();
+			assertThatThrownBy(reader::read).isInstanceOf(EOFException.class);
+		}
+	}
+
+	@Test
+	void rejectsOtherContent() throws IOException {
+		byte[] other = gzip("{\"review\":\"json\"}".getBytes());
+
+		assertThatThrownBy(() -> new ReviewBinaryReader(new ByteArrayInputStream(other)))
+				.isInstanceOf(IOException.class).hasMessage("Not a review export");
+	}
+
+	private static byte[] write(List<Review> reviews) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (ReviewBinaryWriter writer = new ReviewBinaryWriter(out)) {
+			for (Review review : reviews) {
+				writer.write(review);
+			}
+		}
+		return out.toByteArray();
+	}
+
+	private static List<Review> readAll(byte[] export) throws IOException {
+		List<Review> reviews = new ArrayList<>();
+		try (ReviewBinaryReader reader = new ReviewBinaryReader(new ByteArrayInputStream(export))) {
+			Review review;
+			while ((review = reader.read()) != null) {
+				reviews.add(review);
+			}
+		}
+		return reviews;
+	}
+
+	private static byte[] gzip(byte[] bytes) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(bytes);
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] gunzipped(byte[] bytes) throws IOException {
+		return new GZIPInputStream(new ByteArrayInputStream(bytes)).readAllBytes();
+	}
+}
@@ -0,0 +1,67 @@
+package com.signify.alexareviews.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.entity.ReviewIds;
+
+public class ReviewIdFilterTest {
+
+	@Test
+	void mightContain_NeverMissesAddedIds() {
+		ReviewIdFilter filter = new ReviewIdFilter(null, 500, 10_000, 0.01);
+		List<UUID> ids = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			UUID id = ReviewIds.timeOrdered();
+			ids.add(id);
+			filter.add(id);
+		}
+
+		assertThat(ids).allMatch(filter::mightContain);
+	}
+
+	@Test
+	void mightContain_KeepsFalsePositivesNearTheConfiguredRate() {
+		// Time ordered ids share most of their upper half, the filter must not rely on it
+		ReviewIdFilter filter = new ReviewIdFilter(null, 500, 10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.add(ReviewIds.timeOrdered());
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain(ReviewIds.timeOrdered())) {
+				falsePositives++;
+			}
+		}
+
+		assertThat(falsePositives).isLessThan(2_000);
+	}
+
+	@Test
+	void mightContain_WorksWithContentIds() {
+		ReviewIdFilter filter = new ReviewIdFilter(null, 500, 1_000, 0.01);
+		Review review = new Review(null, "Works fine", "Ana", "iTunes", 5, null, "Amazon Alexa",
+				LocalDate.of(2018, 1, 12));
+		UUID id = ReviewIds.contentId(review);
+
+		assertThat(filter.mightContain(id)).isFalse();
+		filter.onReviewsSaved(new ReviewsSavedEvent(List.of(new Review(id, "Works fine", "Ana", "iTunes", 5, null,
+				"Amazon Alexa", LocalDate.of(2018, 1, 12)))));
+		assertThat(filter.mightContain(id)).isTrue();
+	}
+
+	@Test
+	void rejectsInvalidSizing() {
+		assertThatThrownBy(() -> new ReviewIdFilter(null, 500, 0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new ReviewIdFilter(null, 500, 100, 1.0)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,100 @@
+package com.signify.alexareviews.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.model.ImportProgress;
+import com.signify.alexareviews.model.StageStats;
+
+@ExtendWith(MockitoExtension.class)
+public class ReviewImportPipelineTest {
+
+	@Mock
+	private ReviewBatchWriter batchWriter;
+
+	@Test
+	void run_ParsesOnAllWorkersAndWritesEveryRecord() throws IOException {
+		List<Review> written = Collections.synchronizedList(new ArrayList<>());
+		when(batchWriter.write(anyList())).thenAnswer(invocation -> {
+			List<Review> batch = invocation.getArgument(0);
+			assertThat(batch.size()).isLessThanOrEqualTo(100);
+			written.addAll(batch);
+			return batch.size();
+		});
+		ReviewImportPipeline pipeline = new ReviewImportPipeline(batchWriter, 100, 4, 2);
+
+		ImportProgress progress = pipeline.run(counter(10_000), this::review);
+
+		assertThat(written).hasSize(10_000);
+		assertThat(progress.getRowsParsed()).isEqualTo(10_000);
+		assertThat(progress.getRowsSaved()).isEqualTo(10_000);
+		assertThat(progress.getStages()).extracting(StageStats::getRows).containsOnly(10_000L);
+		assertThat(progress.getStages().get(1).getThreads()).isEqualTo(4);
+	}
+
+	@Test
+	void run_SkipsRecordsTheDecoderRejects() throws IOException {
+		when(batchWriter.write(anyList())).thenAnswer(invocation -> invocation.<List<Review>>getArgument(0).size());
+		ReviewImportPipeline pipeline = new ReviewImportPipeline(batchWriter, 10, 2, 2);
+
+		ImportProgress progress = pipeline.run(counter(100), n -> {
+			if (n % 10 == 0) {
+				throw new IllegalArgumentException("bad record " + n);
+			}
+			return n % 2 == 0 ? null : review(n);
+		});
+
+		assertThat(progress.getRowsParsed()).isEqualTo(50);
+		assertThat(progress.getRowsSaved()).isEqualTo(50);
+		assertThat(progress.getRowsSkipped()).isEqualTo(50);
+	}
+
+	@Test
+	void run_PropagatesReaderFailure() {
+		ReviewImportPipeline pipeline = new ReviewImportPipeline(batchWriter, 10, 2, 2);
+
+		assertThatThrownBy(() -> pipeline.run(max -> {
+			throw new IOException("disk gone");
+		}, this::review)).isInstanceOf(IOException.class).hasMessage("disk gone");
+	}
+
+	@Test
+	void run_PropagatesWriterFailureWithoutDeadlock() {
+		when(batchWriter.write(anyList())).thenThrow(new IllegalStateException("writer down"));
+		ReviewImportPipeline pipeline = new ReviewImportPipeline(batchWriter, 10, 2, 1);
+
+		assertThatThrownBy(() -> pipeline.run(counter(100_000), this::review))
+				.isInstanceOf(IllegalStateException.class).hasMessage("writer down");
+	}
+
+	private static ReviewImportPipeline.RecordSource<Integer> counter(int total) {
+		int[] next = { 0 };
+		return max -> {
+			List<Integer> chunk = new ArrayList<>(max);
+			while (chunk.size() < max && next[0] < total) {
+				chunk.add(next[0]++);
+			}
+			return chunk;
+		};
+	}
+
+	private Review review(int n) {
+		return new Review(UUID.randomUUID(), "Review " + n, "Author", "iTunes", n % 5 + 1, "Title", "Amazon Alexa",
+				LocalDate.of(2018, 1, 1));
+	}
+}
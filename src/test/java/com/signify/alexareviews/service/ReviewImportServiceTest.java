@@ -0,0 +1,200 @@
+package com.signify.alexareviews.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.entity.ReviewIds;
+import com.signify.alexareviews.model.ImportProgress;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+public class ReviewImportServiceTest {
+
+	private static final String VALID_LINE = "{\"review\":\"Great app!\",\"author\":\"John Doe\",\"review_source\":\"Google Play\",\"rating\":5,\"title\":\"Awesome\",\"product_name\":\"Alexa\",\"reviewed_date\":\"2018-01-12T02:27:03.000Z\"}";
+
+	@Mock
+	private ReviewBatchWriter batchWriter;
+
+	@TempDir
+	Path tempDir;
+
+	private SimpleMeterRegistry registry;
+	private ReviewImportService importService;
+
+	@BeforeEach
+	void setUp() {
+		registry = new SimpleMeterRegistry();
+		importService = new ReviewImportService(new ReviewJsonDecoder(new ObjectMapper()), batchWriter, 2, 1, 2, 1,
+				new ReviewMetrics(registry));
+	}
+
+	@Test
+	void importReviewsFromFile_WritesInChunks() throws IOException {
+		Path file = Files.write(tempDir.resolve("reviews.json"), List.of(VALID_LINE, VALID_LINE, VALID_LINE));
+		List<List<Review>> chunks = new ArrayList<>();
+		when(batchWriter.write(anyList())).thenAnswer(invocation -> {
+			List<Review> chunk = invocation.getArgument(0);
+			chunks.add(chunk);
+			return chunk.size();
+		});
+
+		ImportProgress progress = importService.importReviewsFromFile(file.toString());
+
+		assertThat(chunks).hasSize(2);
+		assertThat(chunks.get(0)).hasSize(2);
+		assertThat(chunks.get(1)).hasSize(1);
+		assertThat(chunks.get(0).get(0).getId()).isNotNull();
+		assertThat(progress.getRowsParsed()).isEqualTo(3);
+		assertThat(progress.getRowsSaved()).isEqualTo(3);
+		assertThat(progress.getRowsSkipped()).isZero();
+		assertThat(progress.getStages()).extracting("name").containsExactly("reader", "parser", "writer");
+	}
+
+	@Test
+	void importReviewsFromFile_SkipsInvalidLines() throws IOException {
+		Path file = Files.write(tempDir.resolve("reviews.json"),
+				List.of(VALID_LINE, "{\"invalid\":\"bad json\"}", "not json at all", ""));
+		when(batchWriter.write(anyList())).thenReturn(1);
+
+		ImportProgress progress = importService.importReviewsFromFile(file.toString());
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<Review>> captor = ArgumentCaptor.forClass(List.class);
+		verify(batchWriter, times(1)).write(captor.capture());
+		assertThat(captor.getValue()).hasSize(1);
+		assertThat(progress.getRowsSaved()).isEqualTo(1);
+		// Blank lines are not records, only the two malformed lines count as skipped
+		assertThat(progress.getRowsSkipped()).isEqualTo(2);
+		assertThat(registry.get("reviews.import.rows").tag("outcome", "parsed").counter().count()).isEqualTo(1);
+		assertThat(registry.get("reviews.import.rows").tag("outcome", "invalid").counter().count()).isEqualTo(1);
+		assertThat(registry.get("reviews.import.rows").tag("outcome", "malformed").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void importReviewsFromFile_CountsRowsRejectedByWriter() throws IOException {
+		Path file = Files.write(tempDir.resolve("reviews.json"), List.of(VALID_LINE, VALID_LINE));
+		when(batchWriter.write(anyList())).thenReturn(1);
+
+		ImportProgress progress = importService.importReviewsFromFile(file.toString());
+
+		assertThat(progress.getRowsSaved()).isEqualTo(1);
+		assertThat(progress.getRowsSkipped()).isEqualTo(1);
+	}
+
+	@Test
+	void importReviews_StreamsRecordsFromInputStream() throws IOException {
+		byte[] body = String.join("\n", VALID_LINE, "{broken", VALID_LINE).getBytes(StandardCharsets.UTF_8);
+		when(batchWriter.write(anyList())).thenAnswer(invocation -> invocation.<List<Review>>getArgument(0).size());
+
+		ImportProgress progress = importService.importReviews(new ByteArrayInputStream(body));
+
+		assertThat(progress.getRowsSaved()).isEqualTo(2);
+		assertThat(progress.getRowsSkipped()).isEqualTo(1);
+	}
+
+	@Test
+	void importReviews_RejectsBulkImportBeyondLimit() throws Exception {
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(batchWriter.write(anyList())).thenAnswer(invocation -> {
+			writing.countDown();
+			release.await();
+			return invocation.<List<Review>>getArgument(0).size();
+		});
+		byte[] body = VALID_LINE.getBytes(StandardCharsets.UTF_8);
+		CompletableFuture<ImportProgress> running = CompletableFuture.supplyAsync(() -> {
+			try {
+				return importService.importReviews(new ByteArrayInputStream(body));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+
+		assertThatThrownBy(() -> importService.importReviews(new ByteArrayInputStream(body)))
+				.isInstanceOf(RejectedExecutionException.class);
+
+		release.countDown();
+		assertThat(running.get(5, TimeUnit.SECONDS).getRowsSaved()).isEqualTo(1);
+		assertThat(importService.importReviews(new ByteArrayInputStream(body)).getRowsSaved()).isEqualTo(1);
+	}
+
+	@Test
+	void importReviews_DerivesIdsFromContent() throws IOException {
+		String otherText = VALID_LINE.replace("Great app!", "Great app");
+		String otherRating = VALID_LINE.replace("\"rating\":5", "\"rating\":4");
+		byte[] body = String.join("\n", VALID_LINE, otherText, VALID_LINE, otherRating).getBytes(StandardCharsets.UTF_8);
+		List<Review> written = new ArrayList<>();
+		when(batchWriter.write(anyList())).thenAnswer(invocation -> {
+			written.addAll(invocation.getArgument(0));
+			return invocation.<List<Review>>getArgument(0).size();
+		});
+
+		importService.importReviews(new ByteArrayInputStream(body));
+
+		assertThat(written).hasSize(4);
+		Review first = written.stream().filter(review -> review.getReview().equals("Great app!")
+				&& review.getRating() == 5).findFirst().orElseThrow();
+		assertThat(written).filteredOn(review -> review.getId().equals(first.getId())).hasSize(3);
+		assertThat(written).filteredOn(review -> review.getReview().equals("Great app")).first()
+				.extracting(Review::getId).isNotEqualTo(first.getId());
+		assertThat(first.getId()).isEqualTo(ReviewIds.contentId(first));
+	}
+
+	@Test
+	void importReviewsFromFile_ReimportGivesTheSameIds() throws IOException {
+		Path file = Files.write(tempDir.resolve("reviews.json"), List.of(VALID_LINE, "{\"invalid\":\"bad json\"}"));
+		List<Review> written = new ArrayList<>();
+		when(batchWriter.write(anyList())).thenAnswer(invocation -> {
+			written.addAll(invocation.getArgument(0));
+			return invocation.<List<Review>>getArgument(0).size();
+		});
+
+		importService.importReviewsFromFile(file.toString());
+		importService.importReviewsFromFile(file.toString());
+
+		// The batch writer skips ids already stored, so the second run adds nothing
+		assertThat(written).hasSize(2);
+		assertThat(written.get(1).getId()).isEqualTo(written.get(0).getId());
+	}
+
+	@Test
+	void importReviewsFromFile_InvalidBatchSize_ThrowsException() {
+		assertThatThrownBy(() -> importService.importReviewsFromFile("any.json", 0))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void importReviewsFromFile_FileNotFound_ThrowsException() {
+		assertThatThrownBy(() -> importService.importReviewsFromFile("invalid-path.json"))
+				.isInstanceOf(IOException.class);
+	}
+}
@@ -0,0 +1,84 @@
+package com.signify.alexareviews.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.signify.alexareviews.entity.Review;
+
+public class ReviewJsonDecoderTest {
+
+	private final ReviewJsonDecoder decoder = new ReviewJsonDecoder(new ObjectMapper());
+
+	@Test
+	void decode_MatchesDatabindForBundledReviews() throws IOException {
+		ObjectMapper databind = new ObjectMapper().registerModule(new JavaTimeModule())
+				.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+		List<String> lines = Files.readAllLines(Paths.get("src/main/resources/alexa.json"));
+		Review reused = new Review();
+
+		for (String line : lines) {
+			Review expected = databind.readValue(line, Review.class);
+			byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+			Review actual = decoder.decode(bytes, 0, bytes.length, reused);
+
+			assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+		}
+	}
+
+	@Test
+	void decode_ReusesTargetAndClearsPreviousValues() throws IOException {
+		Review target = new Review();
+		decode("{\"review\":\"Great\",\"author\":\"A\",\"review_source\":\"iTunes\",\"rating\":5,\"title\":\"T\","
+				+ "\"product_name\":\"Amazon Alexa\",\"reviewed_date\":\"2018-01-12T02:27:03.000Z\"}", target);
+
+		Review result = decode("{\"author\":\"B\",\"rating\":\"3\",\"reviewed_date\":\"2017-12-06\"}", target);
+
+		assertThat(result).isSameAs(target);
+		assertThat(result.getAuthor()).isEqualTo("B");
+		assertThat(result.getRating()).isEqualTo(3);
+		assertThat(result.getReviewedDate()).isEqualTo(LocalDate.of(2017, 12, 6));
+		assertThat(result.getReview()).isNull();
+		assertThat(result.getTitle()).isNull();
+	}
+
+	@Test
+	void decode_SkipsUnknownFields() throws IOException {
+		Review review = decode("{\"extra\":{\"nested\":[1,2,{\"a\":null}]},\"author\":\"A\",\"title\":null}",
+				new Review());
+
+		assertThat(review.getAuthor()).isEqualTo("A");
+		assertThat(review.getTitle()).isNull();
+	}
+
+	@Test
+	void decode_RejectsInvalidDates() {
+		assertThatThrownBy(() -> decode("{\"reviewed_date\":\"2018-13-01T00:00:00Z\"}", new Review()))
+				.isInstanceOf(JsonProcessingException.class);
+		assertThatThrownBy(() -> decode("{\"reviewed_date\":\"12/01/2018\"}", new Review()))
+				.isInstanceOf(JsonProcessingException.class);
+	}
+
+	@Test
+	void decode_RejectsNonObjects() {
+		assertThatThrownBy(() -> decode("[1,2,3]", new Review())).isInstanceOf(JsonProcessingException.class);
+		assertThatThrownBy(() -> decode("{\"author\":\"A\"", new Review())).isInstanceOf(IOException.class);
+	}
+
+	private Review decode(String json, Review target) throws IOException {
+		byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+		return decoder.decode(bytes, 0, bytes.length, target);
+	}
+}
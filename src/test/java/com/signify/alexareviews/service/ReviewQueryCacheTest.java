@@ -0,0 +1,131 @@
+package com.signify.alexareviews.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.model.ReviewFilter;
+
+public class ReviewQueryCacheTest {
+
+	private static final ReviewFilter ITUNES_MARCH = new ReviewFilter(LocalDate.of(2024, 3, 1),
+			LocalDate.of(2024, 3, 31), "iTunes", 1, null);
+	private static final ReviewFilter GOOGLE = new ReviewFilter(null, null, "Google", null, null);
+
+	private ReviewQueryCache cache;
+	private AtomicInteger loads;
+
+	@BeforeEach
+	void setUp() {
+		cache = new ReviewQueryCache(100, Duration.ofMinutes(5));
+		loads = new AtomicInteger();
+	}
+
+	@Test
+	void testRepeatedReadIsCached() {
+		load(ITUNES_MARCH);
+		load(ITUNES_MARCH);
+
+		assertThat(loads).hasValue(1);
+		assertThat(cache.getStats()).containsEntry("hitCount", 1L).containsEntry("missCount", 1L);
+	}
+
+	@Test
+	void testWriteInvalidatesOnlyMatchingFilters() {
+		load(ITUNES_MARCH);
+		load(GOOGLE);
+
+		cache.onReviewsSaved(new ReviewsSavedEvent(List.of(review("iTunes", 1, LocalDate.of(2024, 3, 9)))));
+		load(ITUNES_MARCH);
+		load(GOOGLE);
+
+		assertThat(loads).hasValue(3);
+		assertThat(cache.getStats()).containsEntry("invalidationCount", 1L);
+	}
+
+	@Test
+	void testWriteOutsideFilterKeepsEntry() {
+		load(ITUNES_MARCH);
+
+		cache.onReviewsSaved(new ReviewsSavedEvent(List.of(review("iTunes", 1, LocalDate.of(2024, 4, 1)),
+				review("iTunes", 2, LocalDate.of(2024, 3, 9)))));
+		load(ITUNES_MARCH);
+
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	void testUpdateInvalidatesFiltersMatchingThePreviousValues() {
+		load(ITUNES_MARCH);
+		Review stored = review("iTunes", 1, LocalDate.of(2024, 3, 9));
+		Review updated = new Review(stored.getId(), "Review", "Author", "iTunes", 5, "Title", "Alexa",
+				stored.getReviewedDate());
+
+		cache.onReviewsSaved(new ReviewsSavedEvent(List.of(updated), List.of(stored)));
+		load(ITUNES_MARCH);
+
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	void testAnyWriteInvalidatesAggregates() {
+		cache.getTotalRatingsByCategory(() -> {
+			loads.incrementAndGet();
+			return List.of(Map.of("rating", 5, "count", 1L));
+		});
+
+		cache.onReviewsSaved(new ReviewsSavedEvent(List.of(review("Google", 5, LocalDate.of(2020, 1, 1)))));
+		cache.getTotalRatingsByCategory(() -> {
+			loads.incrementAndGet();
+			return List.of(Map.of("rating", 5, "count", 2L));
+		});
+
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	void testLoadOverlappingWriteIsNotKept() {
+		cache.getReviews(GOOGLE, () -> {
+			loads.incrementAndGet();
+			// A write commits while this result is being read
+			cache.onReviewsSaved(new ReviewsSavedEvent(List.of(review("iTunes", 3, LocalDate.of(2024, 1, 1)))));
+			return List.of();
+		});
+		load(GOOGLE);
+
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	void testEntriesAreWeighedByRows() {
+		ReviewQueryCache small = new ReviewQueryCache(10, Duration.ofMinutes(5));
+		List<Review> rows = List.of(review("Google", 5, LocalDate.of(2024, 1, 1)),
+				review("Google", 4, LocalDate.of(2024, 1, 2)), review("Google", 3, LocalDate.of(2024, 1, 3)),
+				review("Google", 2, LocalDate.of(2024, 1, 4)));
+		for (int i = 1; i <= 5; i++) {
+			small.getReviews(new ReviewFilter(null, null, null, i, null), () -> rows);
+		}
+
+		assertThat((Long) small.getStats().get("rows")).isLessThanOrEqualTo(10);
+	}
+
+	private List<Review> load(ReviewFilter filter) {
+		return cache.getReviews(filter, () -> {
+			loads.incrementAndGet();
+			return List.of();
+		});
+	}
+
+	private static Review review(String source, int rating, LocalDate date) {
+		return new Review(UUID.randomUUID(), "Review", "Author", source, rating, "Title", "Alexa", date);
+	}
+}
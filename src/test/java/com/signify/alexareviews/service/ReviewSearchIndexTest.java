@@ -0,0 +1,141 @@
+package com.signify.alexareviews.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.model.ReviewFilter;
+
+public class ReviewSearchIndexTest {
+
+	private ReviewSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new ReviewSearchIndex(null, 500);
+	}
+
+	@Test
+	void testTokenize() {
+		assertThat(ReviewSearchIndex.tokenize("Can't log-in to WiFi, \u00dcn\u00efcode 2!"))
+				.containsExactly("can", "t", "log", "in", "to", "wifi", "\u00fcn\u00efcode", "2");
+		assertThat(ReviewSearchIndex.tokenize("  ..  ")).isEmpty();
+		assertThat(ReviewSearchIndex.parse("login \"wifi password\" \"echo\"")).containsExactly(
+				new String[] { "login" }, new String[] { "wifi", "password" }, new String[] { "echo" });
+	}
+
+	@Test
+	void testSearch_AnyWordRankedByRelevance() {
+		Review login = review("Login fails", "Cannot login, login keeps failing", "iTunes", 1, LocalDate.of(2024, 2, 1));
+		Review wifi = review("Setup", "Wifi setup was slow", "Google", 3, LocalDate.of(2024, 2, 2));
+		Review other = review("Great", "Love the music", "Google", 5, LocalDate.of(2024, 2, 3));
+		index.add(List.of(login, wifi, other));
+
+		ReviewSearchIndex.Result result = index.search("LOGIN wifi", ReviewFilter.NONE, 10);
+
+		assertThat(result.totalHits()).isEqualTo(2);
+		assertThat(result.hits()).extracting(ReviewSearchIndex.Hit::id).containsExactly(login.getId(), wifi.getId());
+		assertThat(index.search("missing", ReviewFilter.NONE, 10).hits()).isEmpty();
+	}
+
+	@Test
+	void testSearch_Phrase() {
+		Review phrase = review(null, "Forgot the wifi password again", "Google", 2, LocalDate.of(2024, 2, 1));
+		Review apart = review(null, "The password for my wifi", "Google", 2, LocalDate.of(2024, 2, 1));
+		Review acrossFields = review("Wifi", "Password reset broken", "Google", 2, LocalDate.of(2024, 2, 1));
+		index.add(List.of(phrase, apart, acrossFields));
+
+		ReviewSearchIndex.Result result = index.search("\"wifi password\"", ReviewFilter.NONE, 10);
+
+		assertThat(result.hits()).extracting(ReviewSearchIndex.Hit::id).containsExactly(phrase.getId());
+	}
+
+	@Test
+	void testSearch_Filters() {
+		Review old = review(null, "wifi drops", "Google", 2, LocalDate.of(2024, 1, 1));
+		Review recent = review(null, "wifi drops", "Google", 2, LocalDate.of(2024, 3, 1));
+		Review itunes = review(null, "wifi drops", "iTunes", 2, LocalDate.of(2024, 3, 1));
+		Review fiveStars = review(null, "wifi works", "Google", 5, LocalDate.of(2024, 3, 1));
+		index.add(List.of(old, recent, itunes, fiveStars));
+
+		ReviewSearchIndex.Result result = index.search("wifi",
+				new ReviewFilter(LocalDate.of(2024, 2, 1), null, "Google", 2, null), 10);
+
+		assertThat(result.totalHits()).isEqualTo(1);
+		assertThat(result.hits()).extracting(ReviewSearchIndex.Hit::id).containsExactly(recent.getId());
+	}
+
+	@Test
+	void testSearch_UpdatedReviewReplacesItsEarlierDocument() {
+		Review first = review(null, "wifi drops all the time", "Google", 1, LocalDate.of(2024, 2, 1));
+		Review other = review(null, "wifi works", "Google", 5, LocalDate.of(2024, 2, 1));
+		index.add(List.of(first, other));
+		Review updated = new Review(first.getId(), "wifi fixed after update", "Author", "Google", 4, null,
+				"Amazon Alexa", LocalDate.of(2024, 2, 1));
+
+		index.onReviewsSaved(new ReviewsSavedEvent(List.of(updated), List.of(first)));
+
+		ReviewSearchIndex.Result result = index.search("wifi", ReviewFilter.NONE, 10);
+		assertThat(result.totalHits()).isEqualTo(2);
+		assertThat(result.hits()).extracting(ReviewSearchIndex.Hit::id).containsOnly(first.getId(), other.getId());
+		assertThat(index.search("drops", ReviewFilter.NONE, 10).totalHits()).isZero();
+		assertThat(index.search("fixed", ReviewFilter.NONE, 10).totalHits()).isEqualTo(1);
+		assertThat(index.search("wifi", new ReviewFilter(null, null, null, 1, null), 10).totalHits()).isZero();
+		assertThat(index.size()).isEqualTo(2);
+	}
+
+	@Test
+	void testSearch_Limit() {
+		for (int i = 0; i < 50; i++) {
+			index.add(List.of(review(null, "alexa " + "alexa ".repeat(i % 5), "Google", 4, LocalDate.of(2024, 2, 1))));
+		}
+
+		ReviewSearchIndex.Result result = index.search("alexa", ReviewFilter.NONE, 5);
+
+		assertThat(result.totalHits()).isEqualTo(50);
+		assertThat(result.hits()).hasSize(5);
+		assertThat(result.hits().get(0).score()).isGreaterThanOrEqualTo(result.hits().get(4).score());
+	}
+
+	@Test
+	void testSearch_SkipsRetiredReviews() {
+		Review old = review(null, "wifi drops", "Google", 2, LocalDate.of(2024, 1, 31));
+		Review kept = review(null, "wifi drops", "Google", 2, LocalDate.of(2024, 2, 1));
+		index.add(List.of(old, kept));
+
+		index.onReviewsRetired(new ReviewsRetiredEvent(LocalDate.of(2024, 2, 1)));
+
+		ReviewSearchIndex.Result result = index.search("wifi", ReviewFilter.NONE, 10);
+		assertThat(result.totalHits()).isEqualTo(1);
+		assertThat(result.hits()).extracting(ReviewSearchIndex.Hit::id).containsExactly(kept.getId());
+	}
+
+	@Test
+	void testSearch_ScoresAddUpAcrossClausesForManyDocuments() {
+		List<Review> reviews = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			reviews.add(review(null, i % 7 == 0 ? "echo alexa" : "echo", "Google", 4, LocalDate.of(2024, 2, 1)));
+		}
+		index.add(reviews);
+
+		ReviewSearchIndex.Result result = index.search("echo alexa", ReviewFilter.NONE, 3);
+
+		assertThat(result.totalHits()).isEqualTo(5000);
+		List<UUID> both = reviews.stream().filter(review -> review.getReview().contains("alexa")).map(Review::getId)
+				.toList();
+		assertThat(result.hits()).hasSize(3).extracting(ReviewSearchIndex.Hit::id).isSubsetOf(both);
+		assertThat(result.hits().get(2).score()).isGreaterThan(index.search("echo", ReviewFilter.NONE, 1).hits()
+				.get(0).score());
+	}
+
+	private static Review review(String title, String text, String source, int rating, LocalDate date) {
+		return new Review(UUID.randomUUID(), text, "Author", source, rating, title, "Amazon Alexa", date);
+	}
+}
@@ -5,38 +5,47 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
-import org.junit.jupiter.api.AfterAll;
-import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.model.EncodedResponse;
 import com.signify.alexareviews.model.Response;
+import com.signify.alexareviews.model.ReviewCursor;
+import com.signify.alexareviews.model.ReviewFilter;
+import com.signify.alexareviews.model.ReviewPage;
+import com.signify.alexareviews.repository.ReviewQueryRepository;
 import com.signify.alexareviews.repository.ReviewRepository;
+import com.signify.alexareviews.repository.ReviewRollupRepository;
 
 @ExtendWith(MockitoExtension.class)
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
@@ -48,24 +57,25 @@ public class ReviewServiceTest {
 	@Mock
 	private ObjectMapper objectMapper;
 
-	@InjectMocks
+	@Mock
+	private ReviewQueryRepository reviewQueryRepository;
+
+	@Mock
+	private ReviewRollupRepository reviewRollupRepository;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
 	private ReviewService reviewService;
 
 	private Review review;
 	private Review review1;
 	private Review review2;
-	private static Path tempFile;
-
-	@BeforeAll
-	static void setupTempFile() throws IOException {
-		tempFile = Files.createTempFile("test-reviews", ".json");
-		Files.write(tempFile, List.of(
-				"{\"review\":\"Great app!\",\"author\":\"John Doe\",\"review_source\":\"Google Play\",\"rating\":5,\"title\":\"Awesome\",\"product_name\":\"Alexa\",\"reviewed_date\":\"2024-03-02\"}",
-				"{\"invalid\":\"bad json\"}"));
-	}
 
 	@BeforeEach
 	public void setup() {
+		reviewService = new ReviewService(reviewRepository, objectMapper, reviewQueryRepository, reviewRollupRepository,
+				eventPublisher, new ReviewQueryCache(1000, Duration.ofMinutes(5)), 2, 3);
 		review = new Review(UUID.randomUUID(), "Great app!", "John Doe", "Google Play", 5, "Awesome", "Alexa",
 				LocalDate.now());
 		review1 = new Review(UUID.randomUUID(), "Great Alexa skill!", "John Doe", "Google", 5, "Awesome", "Alexa",
@@ -75,31 +85,31 @@ public class ReviewServiceTest {
 	}
 
 	@Test
-	public void importReviewsFromFile_ValidReview_Success() throws IOException {
-		when(objectMapper.readValue(anyString(), eq(Review.class))).thenReturn(review);
+	public void saveReview_ValidReview_Success() {
 		when(reviewRepository.save(any(Review.class))).thenReturn(review);
 
-		reviewService.importReviewsFromFile(tempFile.toString());
+		Review savedReview = reviewService.saveReview(review);
 
-		verify(reviewRepository, times(2)).save(any(Review.class));
-	}
+		assertThat(savedReview).isNotNull();
+		assertThat(savedReview.getId()).isEqualTo(review.getId());
 
-	@Test
-	public void importReviewsFromFile_FileNotFound_ThrowsException() {
-		assertThatThrownBy(() -> reviewService.importReviewsFromFile("invalid-path.json"))
-				.isInstanceOf(IOException.class);
+		verify(reviewRepository, times(1)).save(review);
+		verify(reviewRollupRepository, times(1)).add(List.of(review));
+		verify(eventPublisher, times(1)).publishEvent(new ReviewsSavedEvent(List.of(review)));
 	}
 
 	@Test
-	public void saveReview_ValidReview_Success() {
+	void saveReview_ExistingId_ReplacesRollupOfPreviousValues() {
+		Review stored = new Review(review.getId(), "Bad app", "John Doe", "Google Play", 1, "Awful", "Alexa",
+				review.getReviewedDate());
+		when(reviewQueryRepository.findByIds(List.of(review.getId()))).thenReturn(List.of(stored));
 		when(reviewRepository.save(any(Review.class))).thenReturn(review);
 
-		Review savedReview = reviewService.saveReview(review);
-
-		assertThat(savedReview).isNotNull();
-		assertThat(savedReview.getId()).isEqualTo(review.getId());
+		reviewService.saveReview(review);
 
-		verify(reviewRepository, times(1)).save(review);
+		verify(reviewRollupRepository).replace(List.of(stored), List.of(review));
+		verify(reviewRollupRepository, never()).add(any());
+		verify(eventPublisher).publishEvent(new ReviewsSavedEvent(List.of(review), List.of(stored)));
 	}
 
 	@Test
@@ -124,106 +134,76 @@ public class ReviewServiceTest {
 
 	@Test
 	void testGetReviews_FilterByDate() {
-		LocalDate startDate = LocalDate.of(2024, 2, 1);
-		LocalDate endDate = LocalDate.of(2024, 2, 2);
-		when(reviewRepository.findByReviewedDateBetween(startDate, endDate))
-				.thenReturn(Optional.of(List.of(review1, review2)));
+		ReviewFilter filter = ReviewFilter.dateRange(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 2));
+		when(reviewQueryRepository.findAll(filter)).thenReturn(List.of(review1, review2));
 
-		Response<List<Review>> response = reviewService.getReviews(startDate, endDate, null, null);
+		Response<List<Review>> response = reviewService.getReviews(filter);
 
 		assertThat(response.isSuccess()).isTrue();
 		assertThat(response.getCode()).contains("Success");
-		assertThat(response.getMessage()).contains("Fetch reviews with start and end date as filter succeeded");
+		assertThat(response.getMessage()).contains("Fetch reviews with filters succeeded");
 		assertThat(response.getData()).hasSize(2);
 	}
 
 	@Test
 	void testGetReviewsByDateRange_NoResults() {
 		// Given: A date range where no reviews exist
-		LocalDate startDate = LocalDate.of(2023, 1, 1);
-		LocalDate endDate = LocalDate.of(2023, 12, 31);
-
-		// Mock repository to return an empty Optional
-		when(reviewRepository.findByReviewedDateBetween(startDate, endDate))
-				.thenReturn(Optional.of(Collections.emptyList()));
+		ReviewFilter filter = ReviewFilter.dateRange(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31));
+		when(reviewQueryRepository.findAll(filter)).thenReturn(Collections.emptyList());
 
 		// When: Service method is called
-		Response<List<Review>> response = reviewService.getReviews(startDate, endDate, null, null);
+		Response<List<Review>> response = reviewService.getReviews(filter);
 
 		// Then: Verify response
 		assertThat(response.isSuccess()).isFalse();
 		assertThat(response.getCode()).contains("FAILED");
-		assertThat(response.getMessage()).isEqualTo("Failed to fetch reviews with start and end date as filter");
+		assertThat(response.getMessage()).isEqualTo("No reviews match the given filters");
 		assertThat(response.getData()).isNull();
 	}
 
 	@Test
 	void testGetReviews_FilterByStoreType() {
-		when(reviewRepository.findByReviewSource("Google")).thenReturn(Optional.of(List.of(review1)));
+		ReviewFilter filter = new ReviewFilter(null, null, "Google", null, null);
+		when(reviewQueryRepository.findAll(filter)).thenReturn(List.of(review1));
 
-		Response<List<Review>> response = reviewService.getReviews(null, null, "Google", null);
+		Response<List<Review>> response = reviewService.getReviews(filter);
 
 		assertThat(response.isSuccess()).isTrue();
 		assertThat(response.getCode()).contains("Success");
-		assertThat(response.getMessage()).contains("Fetch reviews with storeType as filter succeeded");
 		assertThat(response.getData()).hasSize(1);
 		assertThat(response.getData().get(0).getReviewSource()).isEqualTo("Google");
 	}
 
 	@Test
-	void testGetReviewsByStoreType_NoResults() {
-		// Given: A store type that has no reviews
-		String storeType = "NonExistentStore";
+	void testGetReviews_CombinedFilters() {
+		ReviewFilter filter = new ReviewFilter(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29), "Apple", 3,
+				"Alexa");
+		when(reviewQueryRepository.findAll(filter)).thenReturn(List.of(review2));
 
-		// Mock repository to return an Optional containing an empty list
-		when(reviewRepository.findByReviewSource(storeType)).thenReturn(Optional.of(Collections.emptyList()));
-
-		// When: Service method is called
-		Response<List<Review>> response = reviewService.getReviews(null, null, storeType, null);
-
-		// Then: Verify response
-		assertThat(response.isSuccess()).isFalse();
-		assertThat(response.getCode()).contains("FAILED");
-		assertThat(response.getMessage()).isEqualTo("Failed to fetch reviews with storeType as parameter");
-		assertThat(response.getData()).isNull();
-	}
-
-	@Test
-	void testGetReviews_FilterByRating() {
-		when(reviewRepository.findByRating(5)).thenReturn(Optional.of(List.of(review1)));
-
-		Response<List<Review>> response = reviewService.getReviews(null, null, null, 5);
+		Response<List<Review>> response = reviewService.getReviews(filter);
 
 		assertThat(response.isSuccess()).isTrue();
-		assertThat(response.getCode()).contains("Success");
-		assertThat(response.getData()).hasSize(1);
-		assertThat(response.getData().get(0).getRating()).isEqualTo(5);
+		assertThat(response.getData()).containsExactly(review2);
+		verify(reviewQueryRepository, times(1)).findAll(filter);
 	}
 
 	@Test
 	void testGetReviewsByRating_NoResults() {
-		// Given: A rating that has no reviews
-		int rating = 1;
+		ReviewFilter filter = new ReviewFilter(null, null, null, 1, null);
+		when(reviewQueryRepository.findAll(filter)).thenReturn(Collections.emptyList());
 
-		// Mock repository to return an Optional containing an empty list
-		when(reviewRepository.findByRating(rating)).thenReturn(Optional.of(Collections.emptyList()));
+		Response<List<Review>> response = reviewService.getReviews(filter);
 
-		// When: Service method is called
-		Response<List<Review>> response = reviewService.getReviews(null, null, null, rating);
-
-		// Then: Verify response
 		assertThat(response.isSuccess()).isFalse();
 		assertThat(response.getCode()).contains("FAILED");
-		assertThat(response.getMessage()).isEqualTo("Failed to fetch reviews with rating as parameter");
 		assertThat(response.getData()).isNull();
-
 	}
 
 	@Test
 	void testGetReviews_NoFilters_FetchAll() {
-		when(reviewRepository.findAll()).thenReturn(List.of(review1, review2));
+		when(reviewQueryRepository.findAll(ReviewFilter.NONE)).thenReturn(List.of(review1, review2));
 
-		Response<List<Review>> response = reviewService.getReviews(null, null, null, null);
+		Response<List<Review>> response = reviewService.getReviews(ReviewFilter.NONE);
 
 		assertThat(response.isSuccess()).isTrue();
 		assertThat(response.getCode()).contains("Success");
@@ -234,7 +214,7 @@ public class ReviewServiceTest {
 	@Test
 	public void getMonthlyAverageRatings_Success() {
 		List<Map<String, Object>> ratings = List.of(Map.of("month", 3, "avgRating", 4.5));
-		when(reviewRepository.getMonthlyAverageRatings()).thenReturn(Optional.of(ratings));
+		when(reviewRollupRepository.getMonthlyAverageRatings()).thenReturn(ratings);
 
 		Response<List<Map<String, Object>>> response = reviewService.getMonthlyAverageRatings();
 
@@ -244,9 +224,21 @@ public class ReviewServiceTest {
 		assertThat(response.getData()).hasSize(1);
 	}
 
+	@Test
+	void testGetReviews_RepeatedFilterServedFromCache() {
+		ReviewFilter filter = new ReviewFilter(null, null, "Google", null, null);
+		when(reviewQueryRepository.findAll(filter)).thenReturn(List.of(review1));
+
+		reviewService.getReviews(filter);
+		Response<List<Review>> response = reviewService.getReviews(new ReviewFilter(null, null, "Google ", null, ""));
+
+		assertThat(response.getData()).containsExactly(review1);
+		verify(reviewQueryRepository, times(1)).findAll(filter);
+	}
+
 	@Test
 	public void getMonthlyAverageRatings_EmptyResult_Failure() {
-		when(reviewRepository.getMonthlyAverageRatings()).thenReturn(Optional.empty());
+		when(reviewRollupRepository.getMonthlyAverageRatings()).thenReturn(List.of());
 
 		Response<List<Map<String, Object>>> response = reviewService.getMonthlyAverageRatings();
 
@@ -258,7 +250,7 @@ public class ReviewServiceTest {
 	@Test
 	public void getTotalRatingsByCategory_Success() {
 		List<Map<String, Object>> ratings = List.of(Map.of("rating", 5, "count", 10));
-		when(reviewRepository.getTotalRatingsByCategory()).thenReturn(Optional.of(ratings));
+		when(reviewRollupRepository.getTotalRatingsByCategory()).thenReturn(ratings);
 
 		Response<List<Map<String, Object>>> response = reviewService.getTotalRatingsByCategory();
 
@@ -270,7 +262,7 @@ public class ReviewServiceTest {
 
 	@Test
 	public void getTotalRatingsByCategory_EmptyResult_Failure() {
-		when(reviewRepository.getTotalRatingsByCategory()).thenReturn(Optional.empty());
+		when(reviewRollupRepository.getTotalRatingsByCategory()).thenReturn(List.of());
 
 		Response<List<Map<String, Object>>> response = reviewService.getTotalRatingsByCategory();
 
@@ -279,8 +271,90 @@ public class ReviewServiceTest {
 		assertThat(response.getMessage()).contains("Failed to fetch Total Ratings By Category");
 	}
 
-	@AfterAll
-	static void cleanup() throws IOException {
-		Files.deleteIfExists(tempFile);
+	@Test
+	void getReviewPage_FullPage_ReturnsNextCursor() {
+		when(reviewQueryRepository.findPage(ReviewFilter.NONE, null, 2)).thenReturn(List.of(review1, review2));
+
+		Response<ReviewPage> response = reviewService.getReviewPage(ReviewFilter.NONE, null, null);
+
+		assertThat(response.isSuccess()).isTrue();
+		assertThat(response.getData().getItems()).containsExactly(review1, review2);
+		assertThat(ReviewCursor.decode(response.getData().getNextCursor())).isEqualTo(ReviewCursor.after(review2));
+	}
+
+	@Test
+	void getReviewPage_LastPage_NoNextCursor() {
+		ReviewCursor cursor = ReviewCursor.after(review1);
+		when(reviewQueryRepository.findPage(ReviewFilter.NONE, cursor, 3)).thenReturn(List.of(review2));
+
+		Response<ReviewPage> response = reviewService.getReviewPage(ReviewFilter.NONE, cursor.encode(), 50);
+
+		assertThat(response.getData().getItems()).containsExactly(review2);
+		assertThat(response.getData().getNextCursor()).isNull();
+	}
+
+	@Test
+	void getReviewPage_InvalidCursor_ThrowsException() {
+		assertThatThrownBy(() -> reviewService.getReviewPage(ReviewFilter.NONE, "not-a-cursor", null))
+				.isInstanceOf(IllegalArgumentException.class);
+		verify(reviewQueryRepository, never()).findPage(any(), any(), anyInt());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void streamReviews_WritesOneReviewPerLine() throws IOException {
+		ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+		ReviewService streamingService = new ReviewService(reviewRepository, mapper, reviewQueryRepository,
+				reviewRollupRepository, eventPublisher, new ReviewQueryCache(1000, Duration.ofMinutes(5)), 2, 3);
+		doAnswer(invocation -> {
+			Consumer<Review> consumer = invocation.getArgument(1);
+			consumer.accept(review1);
+			consumer.accept(review2);
+			return null;
+		}).when(reviewQueryRepository).stream(eq(ReviewFilter.dateRange(LocalDate.of(2024, 2, 1), null)),
+				any(Consumer.class));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		streamingService.streamReviews(ReviewFilter.dateRange(LocalDate.of(2024, 2, 1), null), out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertThat(lines).hasSize(2);
+		assertThat(mapper.readValue(lines[1], Review.class).getId()).isEqualTo(review2.getId());
+	}
+
+	@Test
+	public void getMonthlyAverageRatingsBody_EncodedOnceUntilWrite() throws IOException {
+		ObjectMapper mapper = new ObjectMapper();
+		ReviewQueryCache cache = new ReviewQueryCache(1000, Duration.ofMinutes(5));
+		ReviewService encodingService = new ReviewService(reviewRepository, mapper, reviewQueryRepository,
+				reviewRollupRepository, eventPublisher, cache, 2, 3);
+		List<Map<String, Object>> ratings = new ArrayList<>();
+		for (int month = 1; month <= 60; month++) {
+			ratings.add(Map.of("store", "iTunes", "year", 2020 + month / 12, "month", month % 12 + 1, "avgRating", 3.5));
+		}
+		when(reviewRollupRepository.getMonthlyAverageRatings()).thenReturn(ratings);
+
+		EncodedResponse first = encodingService.getMonthlyAverageRatingsBody();
+		EncodedResponse second = encodingService.getMonthlyAverageRatingsBody();
+
+		assertThat(second).isSameAs(first);
+		assertThat(mapper.readTree(first.json()).get("data")).hasSize(60);
+		assertThat(mapper.readTree(new GZIPInputStream(new ByteArrayInputStream(first.gzip()))))
+				.isEqualTo(mapper.readTree(first.json()));
+		assertThat(first.etag()).startsWith("\"").endsWith("\"");
+
+		cache.onReviewsSaved(new ReviewsSavedEvent(List.of(review)));
+		assertThat(encodingService.getMonthlyAverageRatingsBody()).isNotSameAs(first);
+		verify(reviewRollupRepository, times(2)).getMonthlyAverageRatings();
+	}
+
+	@Test
+	public void rebuildRatingRollups_ReturnsRowCount() {
+		when(reviewRollupRepository.rebuild()).thenReturn(12);
+
+		Response<Integer> response = reviewService.rebuildRatingRollups();
+
+		assertThat(response.isSuccess()).isTrue();
+		assertThat(response.getData()).isEqualTo(12);
 	}
 }
@@ -0,0 +1,124 @@
+package com.signify.alexareviews.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.model.RatingRollup;
+import com.signify.alexareviews.model.ReviewFilter;
+import com.signify.alexareviews.repository.ReviewBatchRepository;
+import com.signify.alexareviews.repository.ReviewQueryRepository;
+import com.signify.alexareviews.repository.ReviewRollupRepository;
+
+@DataJpaTest
+@Import({ ReviewQueryRepository.class, ReviewRollupRepository.class, ReviewBatchRepository.class })
+public class ReviewSnapshotServiceTest {
+
+	@Autowired
+	private ReviewQueryRepository queryRepository;
+
+	@Autowired
+	private ReviewRollupRepository rollupRepository;
+
+	@Autowired
+	private ReviewBatchRepository batchRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@TempDir
+	private Path directory;
+
+	private Path path;
+	private ReviewSnapshotService snapshotService;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate.update("DELETE FROM reviews");
+		jdbcTemplate.update("DELETE FROM review_rating_rollups");
+		path = directory.resolve("snapshots/reviews.snapshot");
+		snapshotService = new ReviewSnapshotService(queryRepository, rollupRepository, transactionManager,
+				new StaticListableBeanFactory().getBeanProvider(ReviewWriteBuffer.class), path);
+	}
+
+	@Test
+	void testRestore_ReplacesTablesWithSnapshot() throws IOException {
+		List<Review> reviews = List.of(review("Google", 5, "Title", LocalDate.of(2024, 1, 3)),
+				review("iTunes", 2, null, LocalDate.of(2024, 2, 9)), review("Google", 4, "T", LocalDate.of(2024, 2, 1)));
+		batchRepository.insertAll(reviews);
+		rollupRepository.add(reviews);
+		List<RatingRollup> rollups = rollupRepository.findAll();
+
+		assertThat(snapshotService.write()).isEqualTo(3);
+		// Rows changed after the snapshot are not restored
+		batchRepository.insertAll(List.of(review("iTunes", 1, null, LocalDate.of(2024, 3, 1))));
+		jdbcTemplate.update("DELETE FROM review_rating_rollups");
+
+		long restored = new ReviewSnapshotLoader(dataSource, path, 2).restore();
+
+		assertThat(restored).isEqualTo(3);
+		assertThat(queryRepository.findAll(ReviewFilter.NONE)).usingRecursiveFieldByFieldElementComparator()
+				.containsExactlyInAnyOrderElementsOf(reviews);
+		assertThat(rollupRepository.findAll()).containsExactlyInAnyOrderElementsOf(rollups);
+	}
+
+	@Test
+	void testRestore_NoSnapshot() throws IOException {
+		batchRepository.insertAll(List.of(review("Google", 5, "Title", LocalDate.of(2024, 1, 3))));
+
+		assertThat(new ReviewSnapshotLoader(dataSource, path, 2).restore()).isZero();
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reviews", Integer.class)).isEqualTo(1);
+	}
+
+	@Test
+	void testRestore_MovesUnreadableSnapshotAside() throws IOException {
+		batchRepository.insertAll(List.of(review("Google", 5, "Title", LocalDate.of(2024, 1, 3))));
+		Files.createDirectories(path.getParent());
+		Files.write(path, new byte[] { 1, 2, 3 });
+
+		assertThat(new ReviewSnapshotLoader(dataSource, path, 2).restore()).isZero();
+
+		assertThat(path).doesNotExist();
+		assertThat(path.resolveSibling("reviews.snapshot.corrupt")).exists();
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reviews", Integer.class)).isZero();
+	}
+
+	@Test
+	void testWriteIfChanged_OnlyAfterWrites() throws IOException {
+		snapshotService.writeIfChanged();
+		assertThat(path).doesNotExist();
+
+		snapshotService.onReviewsSaved(new ReviewsSavedEvent(List.of()));
+		snapshotService.writeIfChanged();
+		assertThat(path).exists();
+		assertThat(path.resolveSibling("reviews.snapshot.part")).doesNotExist();
+	}
+
+	private static Review review(String source, int rating, String title, LocalDate date) {
+		return new Review(UUID.randomUUID(), "Review", "Author", source, rating, title, "Alexa", date);
+	}
+}
@@ -0,0 +1,180 @@
+package com.signify.alexareviews.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.signify.alexareviews.entity.Review;
+import com.signify.alexareviews.service.ReviewWriteBuffer.Durability;
+
+@ExtendWith(MockitoExtension.class)
+public class ReviewWriteBufferTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+	@Mock
+	private ReviewBatchWriter batchWriter;
+
+	@TempDir
+	private Path journalDir;
+
+	@Test
+	void submit_StoresReviewsInGroupCommits() throws Exception {
+		List<List<Review>> batches = Collections.synchronizedList(new ArrayList<>());
+		when(batchWriter.writeAcknowledged(anyList())).thenAnswer(invocation -> {
+			batches.add(List.copyOf(invocation.<List<Review>>getArgument(0)));
+			return List.of();
+		});
+		ReviewWriteBuffer buffer = buffer(100, 10, Durability.FSYNC);
+
+		List<Review> submitted = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			submitted.add(buffer.submit(review(i)));
+		}
+		assertThat(submitted).allSatisfy(review -> assertThat(review.getId()).isNotNull());
+		assertThat(buffer.size()).isEqualTo(25);
+
+		buffer.start();
+		buffer.stop();
+
+		assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(10));
+		assertThat(batches.stream().flatMap(List::stream)).containsExactlyElementsOf(submitted);
+		assertThat(buffer.size()).isZero();
+		assertThat(journalFiles()).isEmpty();
+	}
+
+	@Test
+	void start_ReplaysReviewsLeftInTheJournal() throws Exception {
+		ReviewWriteBuffer crashed = buffer(100, 10, Durability.JOURNAL);
+		Review first = crashed.submit(review(1));
+		Review second = crashed.submit(review(2));
+		// The process dies before the flusher ran
+		assertThat(journalFiles()).hasSize(1);
+
+		List<Review> written = new ArrayList<>();
+		when(batchWriter.writeAcknowledged(anyList())).thenAnswer(invocation -> {
+			written.addAll(invocation.getArgument(0));
+			return List.of();
+		});
+		ReviewWriteBuffer restarted = buffer(100, 10, Durability.JOURNAL);
+		restarted.start();
+		restarted.stop();
+
+		assertThat(written).extracting(Review::getId).containsExactly(first.getId(), second.getId());
+		assertThat(written.get(1).getReviewedDate()).isEqualTo(second.getReviewedDate());
+		assertThat(journalFiles()).isEmpty();
+	}
+
+	@Test
+	void flush_KeepsJournalUntilTransientFailurePasses() throws Exception {
+		List<Review> written = Collections.synchronizedList(new ArrayList<>());
+		when(batchWriter.writeAcknowledged(anyList())).thenThrow(new CannotAcquireLockException("deadlock"))
+				.thenAnswer(invocation -> {
+					written.addAll(invocation.getArgument(0));
+					return List.of();
+				});
+		ReviewWriteBuffer buffer = buffer(100, 10, Durability.JOURNAL);
+		Review review = buffer.submit(review(1));
+
+		buffer.start();
+		waitUntil(() -> buffer.size() == 0);
+		buffer.stop();
+
+		verify(batchWriter, times(2)).writeAcknowledged(anyList());
+		assertThat(written).containsExactly(review);
+		assertThat(journalFiles()).isEmpty();
+	}
+
+	@Test
+	void flush_MovesRefusedReviewsToRejectedFile() throws Exception {
+		when(batchWriter.writeAcknowledged(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+		ReviewWriteBuffer buffer = buffer(100, 10, Durability.JOURNAL);
+		Review review = buffer.submit(review(1));
+
+		buffer.start();
+		buffer.stop();
+
+		assertThat(journalFiles()).containsExactly(journalDir.resolve("rejected.ndjson"));
+		assertThat(Files.readString(journalDir.resolve("rejected.ndjson"))).contains(review.getId().toString());
+	}
+
+	@Test
+	void submit_RejectsWhenFull() throws Exception {
+		ReviewWriteBuffer buffer = buffer(2, 10, Durability.NONE);
+		buffer.submit(review(1));
+		buffer.submit(review(2));
+
+		assertThatThrownBy(() -> buffer.submit(review(3))).isInstanceOf(RejectedExecutionException.class);
+		assertThat(buffer.size()).isEqualTo(2);
+	}
+
+	@Test
+	void submit_RejectsIncompleteReview() throws Exception {
+		ReviewWriteBuffer buffer = buffer(2, 10, Durability.NONE);
+		Review review = review(1);
+		review.setRating(6);
+
+		assertThatThrownBy(() -> buffer.submit(review)).isInstanceOf(IllegalArgumentException.class);
+		assertThat(buffer.size()).isZero();
+	}
+
+	@Test
+	void submit_RejectsReviewWithId() throws Exception {
+		ReviewWriteBuffer buffer = buffer(2, 10, Durability.NONE);
+		Review review = review(1);
+		review.setId(UUID.randomUUID());
+
+		assertThatThrownBy(() -> buffer.submit(review)).isInstanceOf(IllegalArgumentException.class);
+		assertThat(buffer.size()).isZero();
+	}
+
+	private ReviewWriteBuffer buffer(int capacity, int batchSize, Durability durability) throws IOException {
+		return new ReviewWriteBuffer(batchWriter, objectMapper, capacity, batchSize, Duration.ofMillis(20),
+				durability, journalDir, DataSize.ofKilobytes(1));
+	}
+
+	private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	private List<Path> journalFiles() throws IOException {
+		try (Stream<Path> files = Files.list(journalDir)) {
+			return files.toList();
+		}
+	}
+
+	private static Review review(int n) {
+		return new Review(null, "Review " + n, "Author", "Google Play", 1 + n % 5, "Title", "Amazon Alexa",
+				LocalDate.of(2024, 1, 1).plusDays(n));
+	}
+}
@@ -0,0 +1,75 @@
+package com.signify.alexareviews.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class StreamRecordSourceTest {
+
+	@Test
+	void read_SplitsOnNewlines() throws IOException {
+		List<String> records = readAll(stream("{\"a\":1}\n{\"b\":2}\r\n\n{\"c\":3}"), 8);
+
+		assertThat(records).containsExactly("{\"a\":1}", "{\"b\":2}", "{\"c\":3}");
+	}
+
+	@Test
+	void read_KeepsEarlierRecordsIntactWhileTrickling() throws IOException {
+		StringBuilder content = new StringBuilder();
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			String record = "record-" + i + "-" + "y".repeat(i % 50);
+			expected.add(record);
+			content.append(record).append('\n');
+		}
+		InputStream trickle = new ByteArrayInputStream(content.toString().getBytes(StandardCharsets.UTF_8)) {
+			@Override
+			public synchronized int read(byte[] b, int off, int len) {
+				return super.read(b, off, Math.min(len, 3));
+			}
+		};
+
+		// Collect every slice before looking at any, as the pipeline queues would
+		List<ByteBuffer> slices = new ArrayList<>();
+		StreamRecordSource source = new StreamRecordSource(trickle, 16);
+		List<ByteBuffer> chunk;
+		while (!(chunk = source.read(5)).isEmpty()) {
+			slices.addAll(chunk);
+		}
+
+		assertThat(slices.stream().map(StreamRecordSourceTest::asString).toList()).isEqualTo(expected);
+	}
+
+	@Test
+	void read_EmptyStream() throws IOException {
+		assertThat(readAll(stream(""), 8)).isEmpty();
+	}
+
+	private static List<String> readAll(InputStream in, int blockSize) throws IOException {
+		List<String> records = new ArrayList<>();
+		StreamRecordSource source = new StreamRecordSource(in, blockSize);
+		List<ByteBuffer> chunk;
+		while (!(chunk = source.read(2)).isEmpty()) {
+			chunk.forEach(record -> records.add(asString(record)));
+		}
+		return records;
+	}
+
+	private static InputStream stream(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String asString(ByteBuffer record) {
+		byte[] bytes = new byte[record.remaining()];
+		record.duplicate().get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
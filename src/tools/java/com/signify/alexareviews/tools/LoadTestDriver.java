@@ -0,0 +1,216 @@
+package com.signify.alexareviews.tools;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Replays a mixed read/write workload against a running service and reports
+ * throughput and latency percentiles per operation.
+ *
+ * <pre>
+ * gradle loadTest -PtoolArgs="--url=http://localhost:8080 --concurrency=32 --duration=2m --rate=500"
+ * </pre>
+ *
+ * Without {@code --rate} every worker sends its next request as soon as the
+ * previous one returns (closed loop), which finds the saturation throughput.
+ * With {@code --rate} requests are scheduled at fixed intervals and latency is
+ * measured from the scheduled start, so time spent queueing behind a slow
+ * response is included instead of hidden (coordinated omission). Requests
+ * during {@code --warmup} are sent but not recorded.
+ */
+public class LoadTestDriver {
+
+	enum Operation {
+		LIST, PAGE, STREAM, SEARCH, SUMMARY, MONTHLY, TOTAL, WRITE
+	}
+
+	private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(10);
+	private static final JsonFactory JSON = new JsonFactory();
+
+	private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(10)).build();
+	private final String baseUrl;
+	private final WeightedChoice<String> mix;
+	private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+	private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+
+	LoadTestDriver(String baseUrl, WeightedChoice<String> mix) {
+		this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+		this.mix = mix;
+		for (Operation operation : Operation.values()) {
+			latencies.put(operation, new ConcurrentHistogram(HIGHEST_MICROS, 3));
+			errors.put(operation, new AtomicLong());
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		Set<String> known = new HashSet<>(SyntheticReviews.OPTIONS);
+		known.addAll(Set.of("url", "concurrency", "duration", "warmup", "rate", "mix", "report"));
+		ToolOptions options = new ToolOptions(args, known);
+		WeightedChoice<String> mix = new WeightedChoice<>(
+				options.getWeights("mix", "list:25,page:20,stream:5,search:15,summary:10,monthly:10,total:5,write:10"));
+		LoadTestDriver driver = new LoadTestDriver(options.get("url", "http://localhost:8080"), mix);
+
+		int concurrency = options.getInt("concurrency", 16);
+		Duration warmup = options.getDuration("warmup", Duration.ofSeconds(10));
+		Duration duration = options.getDuration("duration", Duration.ofSeconds(60));
+		int rate = options.getInt("rate", 0);
+		System.out.printf("Running %s against %s with %d workers, %s warmup, %s measured%n",
+				rate > 0 ? rate + " requests/s" : "a closed loop", driver.baseUrl, concurrency, warmup, duration);
+
+		long elapsed = driver.run(options, concurrency, warmup, duration, rate);
+		String report = driver.report(elapsed);
+		System.out.print(report);
+		String reportFile = options.get("report", null);
+		if (reportFile != null) {
+			Files.writeString(Path.of(reportFile), report);
+		}
+	}
+
+	/**
+	 * @return the measured time in nanoseconds
+	 */
+	long run(ToolOptions options, int concurrency, Duration warmup, Duration duration, int rate) throws Exception {
+		long start = System.nanoTime();
+		long measureFrom = start + warmup.toNanos();
+		long end = measureFrom + duration.toNanos();
+		long interval = rate > 0 ? TimeUnit.SECONDS.toNanos(1) / rate : 0;
+		AtomicLong nextSlot = new AtomicLong(start);
+
+		ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+		long seed = options.getLong("seed", 42);
+		for (int i = 0; i < concurrency; i++) {
+			SyntheticReviews reviews = new SyntheticReviews(options, seed + i + 1);
+			workers.submit(() -> {
+				while (true) {
+					long scheduled;
+					if (interval > 0) {
+						scheduled = nextSlot.getAndAdd(interval);
+						long wait = scheduled - System.nanoTime();
+						if (wait > 0) {
+							LockSupport.parkNanos(wait);
+						}
+					} else {
+						scheduled = System.nanoTime();
+					}
+					if (scheduled >= end) {
+						return null;
+					}
+					Operation operation = Operation.valueOf(mix.next(reviews.random()).toUpperCase());
+					boolean ok = send(operation, reviews);
+					long finished = System.nanoTime();
+					if (scheduled >= measureFrom) {
+						Histogram histogram = latencies.get(operation);
+						histogram.recordValue(Math.min(HIGHEST_MICROS, (finished - scheduled) / 1000));
+						if (!ok) {
+							errors.get(operation).incrementAndGet();
+						}
+					}
+				}
+			});
+		}
+		workers.shutdown();
+		workers.awaitTermination(duration.plus(warmup).toSeconds() + 600, TimeUnit.SECONDS);
+		return Math.min(System.nanoTime(), end) - measureFrom;
+	}
+
+	private boolean send(Operation operation, SyntheticReviews reviews) {
+		try {
+			HttpRequest request = request(operation, reviews);
+			HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+			return response.statusCode() < 400;
+		} catch (IOException e) {
+			return false;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private HttpRequest request(Operation operation, SyntheticReviews reviews) throws IOException {
+		LocalDate from = reviews.date();
+		String month = "startDate=" + from.withDayOfMonth(1) + "&endDate=" + from.withDayOfMonth(from.lengthOfMonth());
+		String path = switch (operation) {
+		case LIST -> "/v1/api/reviews?" + month;
+		case PAGE -> "/v1/api/reviews/page?limit=100&" + month;
+		case STREAM -> "/v1/api/reviews/stream?" + month;
+		case SEARCH -> "/v1/api/reviews/search?q=" + URLEncoder.encode(reviews.word(), StandardCharsets.UTF_8);
+		case SUMMARY -> "/v1/api/reviews/analytics/summary?" + month;
+		case MONTHLY -> "/v1/api/reviews/monthly-average";
+		case TOTAL -> "/v1/api/reviews/total-ratings";
+		case WRITE -> "/v1/api/reviews";
+		};
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+				.timeout(Duration.ofSeconds(60));
+		if (operation == Operation.WRITE) {
+			ByteArrayOutputStream body = new ByteArrayOutputStream(512);
+			try (JsonGenerator json = JSON.createGenerator(body, JsonEncoding.UTF8)) {
+				reviews.write(json);
+			}
+			return builder.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray())).build();
+		}
+		return builder.GET().build();
+	}
+
+	String report(long elapsedNanos) {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		PrintStream out = new PrintStream(buffer, true, StandardCharsets.UTF_8);
+		double seconds = elapsedNanos / 1e9;
+		out.printf("%-10s %10s %8s %10s %10s %10s %10s %10s%n", "operation", "requests", "errors", "req/s", "p50 ms",
+				"p99 ms", "p999 ms", "max ms");
+		Histogram total = new Histogram(HIGHEST_MICROS, 3);
+		long totalErrors = 0;
+		List<Operation> operations = new ArrayList<>(latencies.keySet());
+		for (Operation operation : operations) {
+			Histogram histogram = latencies.get(operation);
+			if (histogram.getTotalCount() == 0) {
+				continue;
+			}
+			total.add(histogram);
+			totalErrors += errors.get(operation).get();
+			line(out, operation.name().toLowerCase(), histogram, errors.get(operation).get(), seconds);
+		}
+		line(out, "all", total, totalErrors, seconds);
+		return buffer.toString(StandardCharsets.UTF_8);
+	}
+
+	private static void line(PrintStream out, String name, Histogram histogram, long errors, double seconds) {
+		out.printf("%-10s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n", name, histogram.getTotalCount(), errors,
+				histogram.getTotalCount() / seconds, millis(histogram, 50), millis(histogram, 99),
+				millis(histogram, 99.9), histogram.getMaxValue() / 1000.0);
+	}
+
+	private static double millis(Histogram histogram, double percentile) {
+		return histogram.getValueAtPercentile(percentile) / 1000.0;
+	}
+}
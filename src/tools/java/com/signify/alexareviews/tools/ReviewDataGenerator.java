@@ -0,0 +1,55 @@
+package com.signify.alexareviews.tools;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes synthetic reviews as newline delimited JSON in the {@code alexa.json}
+ * format, ready for the import endpoint or the bulk endpoint.
+ *
+ * <pre>
+ * gradle generateReviews -PtoolArgs="--rows=10000000 --out=build/reviews-10m.json --start-date=2015-01-01 --end-date=2024-12-31"
+ * </pre>
+ *
+ * Options besides {@code --rows} and {@code --out} are listed on
+ * {@link SyntheticReviews}; the same seed always produces the same file.
+ */
+public class ReviewDataGenerator {
+
+	public static void main(String[] args) throws IOException {
+		Set<String> known = new HashSet<>(SyntheticReviews.OPTIONS);
+		known.add("rows");
+		known.add("out");
+		ToolOptions options = new ToolOptions(args, known);
+		long rows = options.getLong("rows", 1_000_000);
+		Path out = Path.of(options.get("out", "build/reviews.json"));
+		SyntheticReviews reviews = new SyntheticReviews(options);
+
+		if (out.getParent() != null) {
+			Files.createDirectories(out.getParent());
+		}
+		long start = System.nanoTime();
+		try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(out), 1 << 16);
+				JsonGenerator json = new JsonFactory().createGenerator(stream, JsonEncoding.UTF8)) {
+			json.setRootValueSeparator(null);
+			for (long row = 0; row < rows; row++) {
+				reviews.write(json);
+				json.writeRaw('\n');
+				if ((row + 1) % 1_000_000 == 0) {
+					System.out.printf("%,d rows written%n", row + 1);
+				}
+			}
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("Wrote %,d reviews (%,d MB) to %s in %.1f s%n", rows, Files.size(out) >> 20, out, seconds);
+	}
+}
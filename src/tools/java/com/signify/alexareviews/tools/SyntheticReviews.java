@@ -0,0 +1,166 @@
+package com.signify.alexareviews.tools;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Produces reviews in the {@code alexa.json} record format. Ratings, sources
+ * and products follow configurable weights; review lengths follow a log-normal
+ * distribution around a median word count; words are drawn from the texts of
+ * an existing dump so their frequencies look like real reviews. The defaults
+ * match the bundled {@code alexa.json}.
+ */
+final class SyntheticReviews {
+
+	static final Set<String> OPTIONS = Set.of("seed", "ratings", "sources", "products", "start-date", "end-date",
+			"median-words", "words-sigma", "max-words", "authors", "vocabulary");
+
+	private static final String[] FALLBACK_WORDS = { "alexa", "app", "the", "to", "and", "I", "it", "is", "my",
+			"not", "work", "works", "can't", "login", "wifi", "device", "devices", "music", "update", "love", "great",
+			"echo", "setup", "connect", "lights", "skill", "routine", "please", "fix", "crashes" };
+
+	private final SplittableRandom random;
+	private final WeightedChoice<String> ratings;
+	private final WeightedChoice<String> sources;
+	private final WeightedChoice<String> products;
+	private final long firstDay;
+	private final int days;
+	private final double logMedianWords;
+	private final double wordsSigma;
+	private final int maxWords;
+	private final int authors;
+	private final String[] words;
+	private final StringBuilder text = new StringBuilder(256);
+
+	SyntheticReviews(ToolOptions options) throws IOException {
+		this(options, options.getLong("seed", 42));
+	}
+
+	/**
+	 * Same distributions with an own random sequence, for use by another thread.
+	 */
+	SyntheticReviews(ToolOptions options, long seed) throws IOException {
+		this.random = new SplittableRandom(seed);
+		this.ratings = new WeightedChoice<>(options.getWeights("ratings", "1:41,2:15,3:12,4:8,5:24"));
+		this.sources = new WeightedChoice<>(options.getWeights("sources", "GooglePlayStore:86,iTunes:14"));
+		this.products = new WeightedChoice<>(options.getWeights("products", "Amazon Alexa:1"));
+		LocalDate start = options.getDate("start-date", LocalDate.of(2017, 5, 23));
+		LocalDate end = options.getDate("end-date", LocalDate.of(2018, 2, 26));
+		if (end.isBefore(start)) {
+			throw new IllegalArgumentException("--end-date is before --start-date");
+		}
+		this.firstDay = start.toEpochDay();
+		this.days = (int) (end.toEpochDay() - firstDay + 1);
+		this.logMedianWords = Math.log(options.getInt("median-words", 17));
+		this.wordsSigma = Double.parseDouble(options.get("words-sigma", "1.0"));
+		this.maxWords = options.getInt("max-words", 800);
+		this.authors = options.getInt("authors", 1_000_000);
+		this.words = vocabulary(Path.of(options.get("vocabulary", "src/main/resources/alexa.json")));
+	}
+
+	/**
+	 * Writes one review object.
+	 */
+	void write(JsonGenerator json) throws IOException {
+		json.writeStartObject();
+		json.writeStringField("review", words(wordCount()));
+		json.writeStringField("author", "reviewer" + random.nextInt(authors));
+		json.writeStringField("review_source", sources.next(random));
+		json.writeNumberField("rating", Integer.parseInt(ratings.next(random)));
+		json.writeStringField("title", words(1 + random.nextInt(6)));
+		json.writeStringField("product_name", products.next(random));
+		json.writeStringField("reviewed_date", timestamp());
+		json.writeEndObject();
+	}
+
+	/**
+	 * A random word of the vocabulary without punctuation, e.g. for search
+	 * queries.
+	 */
+	String word() {
+		while (true) {
+			String word = words[random.nextInt(words.length)].replaceAll("[^\\p{L}\\p{N}]", "");
+			if (!word.isEmpty()) {
+				return word;
+			}
+		}
+	}
+
+	SplittableRandom random() {
+		return random;
+	}
+
+	LocalDate date() {
+		return LocalDate.ofEpochDay(firstDay + random.nextInt(days));
+	}
+
+	private int wordCount() {
+		double count = Math.exp(logMedianWords + wordsSigma * nextGaussian());
+		return (int) Math.max(1, Math.min(maxWords, Math.round(count)));
+	}
+
+	private double nextGaussian() {
+		// Box-Muller, SplittableRandom has no nextGaussian on Java 17
+		double u = 1 - random.nextDouble();
+		return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+	}
+
+	private String words(int count) {
+		text.setLength(0);
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				text.append(' ');
+			}
+			text.append(words[random.nextInt(words.length)]);
+		}
+		return text.toString();
+	}
+
+	private String timestamp() {
+		int second = random.nextInt(24 * 60 * 60);
+		text.setLength(0);
+		text.append(date()).append('T');
+		twoDigits(second / 3600).append(':');
+		twoDigits(second / 60 % 60).append(':');
+		return twoDigits(second % 60).append(".000Z").toString();
+	}
+
+	private StringBuilder twoDigits(int value) {
+		return text.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+	}
+
+	// Every occurrence is kept, so drawing uniformly reproduces the word frequencies of the dump
+	private static String[] vocabulary(Path dump) throws IOException {
+		if (!Files.exists(dump)) {
+			return FALLBACK_WORDS;
+		}
+		List<String> words = new ArrayList<>();
+		JsonFactory factory = new JsonFactory();
+		try (InputStream in = Files.newInputStream(dump); JsonParser parser = factory.createParser(in)) {
+			JsonToken token;
+			while ((token = parser.nextToken()) != null) {
+				if (token == JsonToken.FIELD_NAME && "review".equals(parser.currentName())
+						&& parser.nextToken() == JsonToken.VALUE_STRING) {
+					for (String word : parser.getText().split("\\s+")) {
+						if (!word.isEmpty()) {
+							words.add(word.intern());
+						}
+					}
+				}
+			}
+		}
+		return words.isEmpty() ? FALLBACK_WORDS : words.toArray(new String[0]);
+	}
+}
@@ -0,0 +1,82 @@
+package com.signify.alexareviews.tools;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parses {@code --name=value} command line options, rejecting names a tool
+ * does not know so typos do not silently fall back to defaults.
+ */
+final class ToolOptions {
+
+	private final Map<String, String> values = new LinkedHashMap<>();
+
+	ToolOptions(String[] args, Set<String> known) {
+		for (String arg : args) {
+			if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+				throw new IllegalArgumentException("Expected --name=value but got " + arg);
+			}
+			String name = arg.substring(2, arg.indexOf('='));
+			if (!known.contains(name)) {
+				throw new IllegalArgumentException("Unknown option --" + name + ", expected one of " + known);
+			}
+			values.put(name, arg.substring(arg.indexOf('=') + 1));
+		}
+	}
+
+	String get(String name, String defaultValue) {
+		return values.getOrDefault(name, defaultValue);
+	}
+
+	long getLong(String name, long defaultValue) {
+		String value = values.get(name);
+		return value == null ? defaultValue : Long.parseLong(value.replace("_", ""));
+	}
+
+	int getInt(String name, int defaultValue) {
+		return (int) getLong(name, defaultValue);
+	}
+
+	LocalDate getDate(String name, LocalDate defaultValue) {
+		String value = values.get(name);
+		return value == null ? defaultValue : LocalDate.parse(value);
+	}
+
+	/**
+	 * Durations are written like {@code 30s}, {@code 5m} or {@code 250ms}.
+	 */
+	Duration getDuration(String name, Duration defaultValue) {
+		String value = values.get(name);
+		if (value == null) {
+			return defaultValue;
+		}
+		if (value.endsWith("ms")) {
+			return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+		}
+		long amount = Long.parseLong(value.substring(0, value.length() - 1));
+		return switch (value.charAt(value.length() - 1)) {
+		case 's' -> Duration.ofSeconds(amount);
+		case 'm' -> Duration.ofMinutes(amount);
+		case 'h' -> Duration.ofHours(amount);
+		default -> throw new IllegalArgumentException("Expected a duration like 30s for --" + name + " but got " + value);
+		};
+	}
+
+	/**
+	 * Reads weights written like {@code 1:41,2:15,5:24}. Keys may contain spaces.
+	 */
+	Map<String, Double> getWeights(String name, String defaultValue) {
+		Map<String, Double> weights = new LinkedHashMap<>();
+		for (String entry : get(name, defaultValue).split(",")) {
+			int colon = entry.lastIndexOf(':');
+			if (colon <= 0) {
+				throw new IllegalArgumentException("Expected key:weight in --" + name + " but got " + entry);
+			}
+			weights.put(entry.substring(0, colon).trim(), Double.parseDouble(entry.substring(colon + 1)));
+		}
+		return weights;
+	}
+}
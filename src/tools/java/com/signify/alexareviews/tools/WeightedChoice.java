@@ -0,0 +1,44 @@
+package com.signify.alexareviews.tools;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Picks values with probabilities proportional to their weights.
+ */
+final class WeightedChoice<T> {
+
+	private final List<T> values = new ArrayList<>();
+	private final double[] cumulative;
+
+	WeightedChoice(Map<T, Double> weights) {
+		cumulative = new double[weights.size()];
+		double total = 0;
+		for (Map.Entry<T, Double> weight : weights.entrySet()) {
+			if (weight.getValue() < 0) {
+				throw new IllegalArgumentException("Negative weight for " + weight.getKey());
+			}
+			total += weight.getValue();
+			cumulative[values.size()] = total;
+			values.add(weight.getKey());
+		}
+		if (total <= 0) {
+			throw new IllegalArgumentException("Weights must not all be zero");
+		}
+		for (int i = 0; i < cumulative.length; i++) {
+			cumulative[i] /= total;
+		}
+	}
+
+	T next(SplittableRandom random) {
+		double point = random.nextDouble();
+		for (int i = 0; i < cumulative.length - 1; i++) {
+			if (point < cumulative[i]) {
+				return values.get(i);
+			}
+		}
+		return values.get(values.size() - 1);
+	}
+}